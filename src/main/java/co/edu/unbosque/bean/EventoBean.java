@@ -1,17 +1,11 @@
 package co.edu.unbosque.bean;
 
+import co.edu.unbosque.codec.Codecs;
 import co.edu.unbosque.dto.EventoDTO;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.EventoService;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import com.google.gson.reflect.TypeToken;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -27,13 +21,10 @@ import org.primefaces.model.ScheduleEvent;
 import org.primefaces.model.ScheduleModel;
 
 import java.io.Serializable;
-import java.lang.reflect.Type;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ManagedBean para gestionar los eventos del calendario en el sistema Artemisa.
@@ -48,40 +39,27 @@ public class EventoBean implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Formato de las fechas en la vista; inmutable y compartido */
+    private static final DateTimeFormatter FORMATO_VISTA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     /** Lista de eventos cargados desde el backend */
     private List<EventoDTO> eventos = new ArrayList<>();
     private String titulo = "";
     private String descripcion = "";
     private String tipo = "";
-    private Date fecha;
+    private LocalDateTime fecha;
     private String enlace = "";
     private String ubicacion = "";
 
+    /** Consulta de eventos en curso; se resuelve al primer acceso de la vista */
+    private transient CompletableFuture<List<EventoDTO>> eventosPendientes;
+
     /** Modelo del calendario PrimeFaces */
     private ScheduleModel eventModel;
     private ScheduleEvent<?> event = new DefaultScheduleEvent<>();
 
-    /** Gson configurado para serializar/deserializar fechas */
-    private Gson gson = new GsonBuilder().setDateFormat("yyyy-MM-dd HH:mm:ss")
-            .registerTypeAdapter(Date.class, new JsonDeserializer<Date>() {
-                @Override
-                public Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-                    try {
-                        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(json.getAsString());
-                    } catch (ParseException e) {
-                        try {
-                            return new SimpleDateFormat("yyyy-MM-dd").parse(json.getAsString());
-                        } catch (ParseException e2) {
-                            return null;
-                        }
-                    }
-                }
-            }).registerTypeAdapter(Date.class, new JsonSerializer<Date>() {
-                @Override
-                public JsonElement serialize(Date src, Type typeOfSrc, JsonSerializationContext context) {
-                    return new JsonPrimitive(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(src));
-                }
-            }).create();
+    /** Gson compartido; su adaptador de EventoDTO convierte las fechas */
+    private Gson gson = Codecs.gson();
 
     /**
      * Constructor vacío.
@@ -90,52 +68,49 @@ public class EventoBean implements Serializable {
     }
 
     /**
-     * Inicializa el bean cargando los eventos y configurando el calendario.
+     * Inicializa el bean lanzando la consulta de eventos sin esperarla. La vista
+     * sigue construyéndose (y puede lanzar otras consultas) mientras el backend
+     * responde; el calendario se arma la primera vez que se pide.
      */
     @PostConstruct
     public void init() {
-        cargarEventos();
-        inicializarCalendario();
+        eventosPendientes = consultarEventos();
     }
 
     /**
      * Consume el servicio REST para cargar los eventos desde el backend.
      */
     public void cargarEventos() {
-        try {
-            String respuesta = EventoService.doGet("http://localhost:8081/evento/getall");
-
-            if (respuesta != null && !respuesta.contains("Error")) {
-                String[] partes = respuesta.split("\n", 2);
-
-                if (partes.length > 1 && !partes[1].equals("[]")) {
-                    try {
-                        Type listType = new TypeToken<List<EventoDTO>>() {}.getType();
-                        List<EventoDTO> lista = gson.fromJson(partes[1], listType);
-
-                        if (lista != null) {
-                            eventos = lista.stream()
-                                    .filter(e -> e.getTitulo() != null && !e.getTitulo().trim().isEmpty())
-                                    .collect(Collectors.toList());
-                        } else {
-                            eventos = new ArrayList<>();
-                        }
-
-                    } catch (Exception e) {
-                        eventos = new ArrayList<>();
-                    }
-                } else {
-                    eventos = new ArrayList<>();
-                }
-            } else {
-                eventos = new ArrayList<>();
-            }
+        eventosPendientes = consultarEventos();
+        resolverEventos();
+    }
 
+    /**
+     * Lanza la consulta asíncrona de eventos.
+     * @return futuro con los eventos válidos
+     */
+    private CompletableFuture<List<EventoDTO>> consultarEventos() {
+        return EventoService.doGetListAsync("/evento/getall", gson.getAdapter(EventoDTO.class),
+                e -> e.getTitulo() != null && !e.getTitulo().trim().isEmpty());
+    }
+
+    /**
+     * Espera la consulta en curso, si la hay, y reconstruye el calendario.
+     */
+    private void resolverEventos() {
+        if (eventosPendientes == null) {
+            return;
+        }
+        try {
+            eventos = eventosPendientes.join();
         } catch (Exception e) {
             eventos = new ArrayList<>();
         }
+        eventosPendientes = null;
+        inicializarCalendario();
     }
 
+
     /**
      * Inicializa el calendario con los eventos cargados.
      * Si no hay eventos, agrega algunos de ejemplo.
@@ -145,8 +120,7 @@ public class EventoBean implements Serializable {
 
         for (EventoDTO evento : eventos) {
             if (evento.getFecha() != null) {
-                LocalDateTime fechaInicio = evento.getFecha().toInstant().atZone(ZoneId.systemDefault())
-                        .toLocalDateTime();
+                LocalDateTime fechaInicio = evento.getFecha();
 
                 eventModel.addEvent(DefaultScheduleEvent.builder()
                         .title(evento.getTitulo())
@@ -200,28 +174,23 @@ public class EventoBean implements Serializable {
                 return;
             }
 
-            Map<String, Object> eventoParaJson = new HashMap<>();
-            eventoParaJson.put("titulo", titulo.trim());
-            eventoParaJson.put("descripcion", descripcion != null ? descripcion.trim() : "");
-            eventoParaJson.put("tipo", tipo != null ? tipo : "evento");
-            eventoParaJson.put("fecha", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(fecha));
-            eventoParaJson.put("enlace", enlace != null ? enlace.trim() : "");
-            eventoParaJson.put("ubicacion", ubicacion != null ? ubicacion.trim() : "");
+            EventoDTO nuevo = new EventoDTO(titulo.trim(), descripcion != null ? descripcion.trim() : "",
+                    tipo != null ? tipo : "evento", fecha, enlace != null ? enlace.trim() : "",
+                    ubicacion != null ? ubicacion.trim() : "");
 
-            String json = gson.toJson(eventoParaJson);
-            String respuesta = EventoService.doPost("http://localhost:8081/evento/createeventojson", json);
+            String json = gson.toJson(nuevo);
+            BackendResponse respuesta = EventoService.doPost("/evento/createeventojson", json);
 
-            if (respuesta != null && respuesta.startsWith("201")) {
+            if (respuesta.getStatus() == 201) {
                 showMessage("201", "Evento '" + titulo + "' creado exitosamente");
                 limpiarCampos();
                 cargarEventos();
-                inicializarCalendario();
 
-            } else if (respuesta != null && respuesta.contains("ya existe")) {
+            } else if (respuesta.getStatus() == 409) {
                 showMessage("409", "El evento '" + titulo + "' ya existe");
 
             } else {
-                showMessage("Error", "Error del servidor: " + respuesta);
+                showMessage("Error", "Error del servidor: " + respuesta.describir());
             }
 
         } catch (Exception e) {
@@ -241,7 +210,7 @@ public class EventoBean implements Serializable {
             }
 
             EventoDTO eventoAEliminar = null;
-            for (EventoDTO e : eventos) {
+            for (EventoDTO e : getEventos()) {
                 if (e.getId() != null && e.getId().equals(id)) {
                     eventoAEliminar = e;
                     break;
@@ -254,16 +223,15 @@ public class EventoBean implements Serializable {
             }
 
             String titleEncoded = java.net.URLEncoder.encode(eventoAEliminar.getTitulo(), "UTF-8");
-            String url = "http://localhost:8081/evento/deletebyTitle?title=" + titleEncoded;
+            String url = "/evento/deletebyTitle?title=" + titleEncoded;
 
-            String respuesta = EventoService.doDelete(url);
+            BackendResponse respuesta = EventoService.doDelete(url);
 
-            if (respuesta != null && (respuesta.startsWith("200") || respuesta.startsWith("202"))) {
+            if (respuesta.getStatus() == 200 || respuesta.getStatus() == 202) {
                 showMessage("200", "Evento '" + eventoAEliminar.getTitulo() + "' eliminado");
                 cargarEventos();
-                inicializarCalendario();
             } else {
-                showMessage("Error", "Error eliminando: " + respuesta);
+                showMessage("Error", "Error eliminando: " + respuesta.describir());
             }
 
         } catch (Exception e) {
@@ -325,12 +293,12 @@ public class EventoBean implements Serializable {
 
     /**
      * Formatea la fecha en formato dd/MM/yyyy HH:mm
-     * @param fecha objeto Date a formatear
+     * @param fecha fecha a formatear
      * @return fecha como String
      */
-    public String formatearFecha(Date fecha) {
+    public String formatearFecha(LocalDateTime fecha) {
         if (fecha == null) return "";
-        return new SimpleDateFormat("dd/MM/yyyy HH:mm").format(fecha);
+        return FORMATO_VISTA.format(fecha);
     }
 
     /**
@@ -380,6 +348,7 @@ public class EventoBean implements Serializable {
 
 
     public ScheduleModel getEventModel() {
+        resolverEventos();
         return eventModel;
     }
 
@@ -425,6 +394,7 @@ public class EventoBean implements Serializable {
 
 
     public List<EventoDTO> getEventos() {
+        resolverEventos();
         return eventos;
     }
 
@@ -456,11 +426,11 @@ public class EventoBean implements Serializable {
         this.tipo = tipo;
     }
 
-    public Date getFecha() {
+    public LocalDateTime getFecha() {
         return fecha;
     }
 
-    public void setFecha(Date fecha) {
+    public void setFecha(LocalDateTime fecha) {
         this.fecha = fecha;
     }
 
@@ -1,13 +1,14 @@
 package co.edu.unbosque.bean;
 
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.codec.FuenteFlujo;
 import co.edu.unbosque.dto.LibroDTO;
+import co.edu.unbosque.service.BackendException;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.LibroService;
+import co.edu.unbosque.service.Media;
+import co.edu.unbosque.service.MediaService;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.ExclusionStrategy;
-import com.google.gson.FieldAttributes;
-import com.google.gson.reflect.TypeToken;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -16,13 +17,10 @@ import jakarta.servlet.http.HttpSession;
 import org.primefaces.model.DefaultStreamedContent;
 import org.primefaces.model.StreamedContent;
 import org.primefaces.model.file.UploadedFile;
-import java.awt.Image;
 import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 
 /**
@@ -64,20 +62,8 @@ public class LibroBean {
 	/** Archivo PDF cargado por el usuario. */
 	private UploadedFile bookFile;
 
-	/** Objeto Gson configurado para serialización y deserialización de libros. */
-	private Gson gson = new GsonBuilder().addDeserializationExclusionStrategy(new ExclusionStrategy() {
-		@Override
-		public boolean shouldSkipField(FieldAttributes fieldAttributes) {
-			return fieldAttributes.getDeclaredClass() == Image.class || fieldAttributes.getDeclaredClass() == File.class
-					|| fieldAttributes.getName().equals("portadaDelLibro")
-					|| fieldAttributes.getName().equals("libroPDF");
-		}
-
-		@Override
-		public boolean shouldSkipClass(Class<?> aClass) {
-			return aClass == Image.class || aClass == File.class;
-		}
-	}).create();
+	/** Objeto Gson compartido para serialización y deserialización de libros. */
+	private Gson gson = Codecs.gson();
 
 	/** Libro actualmente seleccionado. */
 	private LibroDTO libroSeleccionado = new LibroDTO();
@@ -91,44 +77,14 @@ public class LibroBean {
 	}
 
 	/**
-	 * Carga todos los libros disponibles desde el backend. En caso de error o
-	 * respuesta vacía, inicializa la lista como vacía.
+	 * Carga el resumen de los libros disponibles desde el backend, sin sus PDF.
+	 * En caso de error o respuesta vacía, inicializa la lista como vacía.
 	 */
 	public void cargarLibro() {
 		try {
-			String respuesta = LibroService.doGet("http://localhost:8081/libro/getall");
-
-			if (respuesta != null && !respuesta.contains("Error")) {
-				String[] partes = respuesta.split("\n", 2);
-
-				if (partes.length > 1) {
-					String jsonData = partes[1];
-
-					if (!jsonData.equals("[]")) {
-						try {
-							Type listType = new TypeToken<List<LibroDTO>>() {
-							}.getType();
-							List<LibroDTO> lista = gson.fromJson(jsonData, listType);
-
-							if (lista != null) {
-								books = lista;
-							} else {
-								books = new ArrayList<>();
-							}
-
-						} catch (JsonSyntaxException e) {
-							books = new ArrayList<>();
-						}
-					} else {
-						books = new ArrayList<>();
-					}
-				} else {
-					books = new ArrayList<>();
-				}
-			} else {
-				books = new ArrayList<>();
-			}
-
+			books = LibroService.doGetResumen();
+		} catch (BackendException e) {
+			books = new ArrayList<>();
 		} catch (Exception e) {
 			e.printStackTrace();
 			books = new ArrayList<>();
@@ -136,8 +92,8 @@ public class LibroBean {
 	}
 
 	/**
-	 * Agrega un nuevo libro validando título y autor. Convierte la portada y el PDF
-	 * a Base64 antes de enviarlos al backend.
+	 * Agrega un nuevo libro validando título y autor. La portada y el PDF viajan
+	 * en Base64, codificados mientras se envían sin cargar el PDF en memoria.
 	 */
 	public void addBook() {
 		try {
@@ -151,39 +107,33 @@ public class LibroBean {
 				return;
 			}
 
-			String coverBase64 = "";
+			// la portada se lee una vez porque también hace falta para su miniatura;
+			// el PDF se lee del archivo subido mientras se envía
+			byte[] portada = null;
 			if (coverFile != null) {
 				try (InputStream input = coverFile.getInputStream()) {
-					byte[] bytes = input.readAllBytes();
-					coverBase64 = Base64.getEncoder().encodeToString(bytes);
-				}
-			}
-
-			String pdfBase64 = "";
-			if (bookFile != null) {
-				try (InputStream input = bookFile.getInputStream()) {
-					byte[] bytes = input.readAllBytes();
-					pdfBase64 = Base64.getEncoder().encodeToString(bytes);
+					portada = input.readAllBytes();
 				}
 			}
+			byte[] imagen = portada;
+			FuenteFlujo pdf = bookFile != null ? bookFile::getInputStream : null;
 
 			LibroDTO nuevo = new LibroDTO();
 			nuevo.setTitulo(titulo.trim());
 			nuevo.setAuthor(author.trim());
 			nuevo.setDescripcion(description != null ? description.trim() : "");
 			nuevo.setEnlace(enlace != null ? enlace.trim() : "");
-			nuevo.setImagenBase64(coverBase64);
-			nuevo.setPdfBase64(pdfBase64);
 
-			String json = gson.toJson(nuevo);
-			String respuesta = LibroService.doPost("http://localhost:8081/libro/createlibrojson", json);
+			BackendResponse respuesta = LibroService.doPostFlujo("/libro/createlibrojson", nuevo,
+					imagen != null ? () -> new ByteArrayInputStream(imagen) : null, pdf);
 
-			if (respuesta != null && respuesta.startsWith("201")) {
+			if (respuesta.getStatus() == 201) {
 				showMessage("201", "Libro '" + titulo + "' creado exitosamente");
+				MediaService.programarMiniaturaPortada(portada);
 				limpiarCampos();
 				cargarLibro();
 			} else {
-				showMessage("Error", "Error del servidor: " + respuesta);
+				showMessage("Error", "Error del servidor: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -217,14 +167,15 @@ public class LibroBean {
 			}
 
 			String titleEncoded = java.net.URLEncoder.encode(libroAEliminar.getTitulo(), "UTF-8");
-			String url = "http://localhost:8081/libro/deletebyTitle?title=" + titleEncoded;
+			String url = "/libro/deletebyTitle?title=" + titleEncoded;
 
-			String respuesta = LibroService.doDelete(url);
-			if (respuesta != null && (respuesta.startsWith("200") || respuesta.startsWith("202"))) {
+			BackendResponse respuesta = LibroService.doDelete(url);
+			if (respuesta.getStatus() == 200 || respuesta.getStatus() == 202) {
 				showMessage("200", "Libro '" + libroAEliminar.getTitulo() + "' eliminado");
+				MediaService.olvidarLibro(id);
 				cargarLibro();
 			} else {
-				showMessage("Error", "Error eliminando: " + respuesta);
+				showMessage("Error", "Error eliminando: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -396,17 +347,32 @@ public class LibroBean {
 	}
 
 	/**
-	 * Descarga el PDF de un libro en formato {@link StreamedContent}.
+	 * Descarga el PDF de un libro en formato {@link StreamedContent}. La vista
+	 * enlaza el PDF en {@code /media}; este método se conserva para quien lo
+	 * pida desde un bean.
 	 *
 	 * @param libro Libro cuyo PDF será descargado.
 	 * @return PDF en {@link StreamedContent} o null si no existe.
 	 */
 	public StreamedContent descargarPDF(LibroDTO libro) {
-		if (libro != null && libro.getPdfBase64() != null && !libro.getPdfBase64().isEmpty()) {
-			byte[] pdfBytes = Base64.getDecoder().decode(libro.getPdfBase64());
-			return DefaultStreamedContent.builder().name(libro.getTitulo() + ".pdf").contentType("application/pdf")
-					.stream(() -> new ByteArrayInputStream(pdfBytes)).build();
+		if (libro == null || libro.getId() == null) {
+			return null;
+		}
+		try (Media pdf = MediaService.getPdfLibro(libro.getId())) {
+			if (pdf == null) {
+				return null;
+			}
+			// el flujo se abre aquí, antes de cerrar el PDF, y retiene su contenido
+			// hasta que PrimeFaces termina de enviarlo y lo cierra
+			InputStream flujo = pdf.abrir();
+			return DefaultStreamedContent.builder().name(pdf.getNombre()).contentType(pdf.getTipo())
+					.contentLength(pdf.getLongitud()).stream(() -> flujo).build();
+		} catch (BackendException e) {
+			showMessage("Error", "No se pudo cargar el PDF: " + e.getMessage());
+			return null;
+		} catch (IOException e) {
+			showMessage("Error", "No se pudo abrir el PDF: " + e.getMessage());
+			return null;
 		}
-		return null;
 	}
 }
@@ -1,10 +1,12 @@
 package co.edu.unbosque.bean;
 
+import co.edu.unbosque.codec.Codecs;
 import co.edu.unbosque.dto.LinkDTO;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.LinkService;
+import co.edu.unbosque.service.MediaService;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -12,13 +14,9 @@ import jakarta.inject.Named;
 import jakarta.servlet.http.HttpSession;
 import org.primefaces.model.file.UploadedFile;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Bean encargado de gestionar los links (enlaces con título, descripción e
@@ -45,7 +43,7 @@ public class LinkBean {
 	private UploadedFile imagenFile;
 
 	/** Instancia de Gson para serializar y deserializar JSON. */
-	private Gson gson = new Gson();
+	private Gson gson = Codecs.gson();
 
 	/**
 	 * Constructor que inicializa el bean cargando los links disponibles.
@@ -60,33 +58,8 @@ public class LinkBean {
 	 */
 	public void cargarLink() {
 		try {
-			String respuesta = LinkService.doGet("http://localhost:8081/link/getall");
-
-			if (respuesta != null && !respuesta.contains("Error")) {
-				String[] partes = respuesta.split("\n", 2);
-
-				if (partes.length > 1 && !partes[1].equals("[]")) {
-					try {
-						Type listType = new TypeToken<List<LinkDTO>>() {
-						}.getType();
-						List<LinkDTO> lista = gson.fromJson(partes[1], listType);
-
-						if (lista != null) {
-							links = lista.stream().filter(l -> l.getTitulo() != null && !l.getTitulo().trim().isEmpty())
-									.collect(Collectors.toList());
-						} else {
-							links = new ArrayList<>();
-						}
-
-					} catch (Exception e) {
-						links = new ArrayList<>();
-					}
-				} else {
-					links = new ArrayList<>();
-				}
-			} else {
-				links = new ArrayList<>();
-			}
+			links = LinkService.doGetList("/link/getall", Codecs.ligero(LinkDTO.class),
+					l -> l.getTitulo() != null && !l.getTitulo().trim().isEmpty());
 		} catch (Exception e) {
 			links = new ArrayList<>();
 		}
@@ -108,29 +81,31 @@ public class LinkBean {
 				return;
 			}
 
-			Map<String, Object> linkParaJson = new HashMap<>();
-			linkParaJson.put("titulo", titulo.trim());
-			linkParaJson.put("descripcion", descripcion != null ? descripcion.trim() : "");
-			linkParaJson.put("enlace", enlace.trim());
+			LinkDTO nuevo = new LinkDTO();
+			nuevo.setTitulo(titulo.trim());
+			nuevo.setDescripcion(descripcion != null ? descripcion.trim() : "");
+			nuevo.setEnlace(enlace.trim());
 
+			byte[] imagen = null;
 			if (imagenFile != null) {
-				String base64 = Base64.getEncoder().encodeToString(imagenFile.getContent());
-				linkParaJson.put("imagenBase64", base64);
+				imagen = imagenFile.getContent();
+				nuevo.setImagenBase64(Base64.getEncoder().encodeToString(imagen));
 			}
 
-			String json = gson.toJson(linkParaJson);
-			String respuesta = LinkService.doPost("http://localhost:8081/link/createlinkjson", json);
+			BackendResponse respuesta = LinkService.doPost("/link/createlinkjson", nuevo,
+					gson.getAdapter(LinkDTO.class));
 
-			if (respuesta != null && respuesta.startsWith("201")) {
+			if (respuesta.getStatus() == 201) {
 				showMessage("201", "Link '" + titulo + "' creado exitosamente");
+				MediaService.programarMiniaturaLink(imagen);
 				limpiarCampos();
 				cargarLink();
 
-			} else if (respuesta != null && respuesta.contains("ya existe")) {
+			} else if (respuesta.getStatus() == 409) {
 				showMessage("409", "El link '" + titulo + "' ya existe");
 
 			} else {
-				showMessage("Error", "Error del servidor: " + respuesta);
+				showMessage("Error", "Error del servidor: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -164,15 +139,16 @@ public class LinkBean {
 			}
 
 			String titleEncoded = java.net.URLEncoder.encode(linkAEliminar.getTitulo(), "UTF-8");
-			String url = "http://localhost:8081/link/deletebyTitle?title=" + titleEncoded;
+			String url = "/link/deletebyTitle?title=" + titleEncoded;
 
-			String respuesta = LinkService.doDelete(url);
+			BackendResponse respuesta = LinkService.doDelete(url);
 
-			if (respuesta != null && (respuesta.startsWith("200") || respuesta.startsWith("202"))) {
+			if (respuesta.getStatus() == 200 || respuesta.getStatus() == 202) {
 				showMessage("200", "Link '" + linkAEliminar.getTitulo() + "' eliminado");
+				MediaService.olvidarLink(id);
 				cargarLink();
 			} else {
-				showMessage("Error", "Error eliminando: " + respuesta);
+				showMessage("Error", "Error eliminando: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -3,6 +3,7 @@ package co.edu.unbosque.bean;
 import java.io.Serializable;
 
 import co.edu.unbosque.service.AdministradorService;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.EstudianteService;
 import co.edu.unbosque.service.ProfesorService;
 import jakarta.enterprise.context.RequestScoped;
@@ -65,31 +66,24 @@ public class LoginBean implements Serializable {
 
 			String json = "{" + "\"usuario\":\"" + usuario + "\"," + "\"contrasenia\":\"" + contrasenia + "\"" + "}";
 
-			String respuesta = "";
-			boolean loginExitoso = false;
+			BackendResponse respuesta;
 
 			switch (nivelDePermiso) {
 			case "Administrador":
-				respuesta = AdministradorService.doPost("http://localhost:8081/admin/loginadmin", json);
+				respuesta = AdministradorService.doPost("/admin/loginadmin", json);
 				break;
 			case "Profesor":
-				respuesta = ProfesorService.doPost("http://localhost:8081/profesor/loginprofesor", json);
+				respuesta = ProfesorService.doPost("/profesor/loginprofesor", json);
 				break;
 			case "Estudiante":
-				respuesta = EstudianteService.doPost("http://localhost:8081/estudiante/loginestudiantejson", json);
+				respuesta = EstudianteService.doPost("/estudiante/loginestudiantejson", json);
 				break;
 			default:
 				showStickyLogin("Error", "Rol no válido");
 				return null;
 			}
 
-			if (respuesta != null && (respuesta.contains("Login exitoso") || respuesta.contains("exitoso")
-					|| respuesta.contains("200")
-					|| (!respuesta.contains("Error") && !respuesta.contains("no encontrado")))) {
-				loginExitoso = true;
-			}
-
-			if (loginExitoso) {
+			if (respuesta.isExitosa()) {
 				HttpSession session = (HttpSession) FacesContext.getCurrentInstance().getExternalContext()
 						.getSession(true);
 				session.setAttribute("username", usuario);
@@ -101,9 +95,11 @@ public class LoginBean implements Serializable {
 				return "temario?faces-redirect=true";
 
 			} else {
-				if (respuesta != null && respuesta.contains("no encontrado")) {
+				if (respuesta.getStatus() == 404) {
 					showStickyLogin("404", "El usuario '" + usuario + "' no existe como " + nivelDePermiso);
-				} else if (respuesta != null && respuesta.contains("Contraseña incorrecta")) {
+				} else if (respuesta.isSinRespuesta()) {
+					showStickyLogin("Error", "Error en el sistema: " + respuesta.getMensajeError());
+				} else if (respuesta.getStatus() == 401 && respuesta.getBody().contains("Contraseña incorrecta")) {
 					showStickyLogin("401", "Contraseña incorrecta para " + nivelDePermiso);
 				} else {
 					showStickyLogin("401", "Credenciales incorrectas para " + nivelDePermiso);
@@ -143,29 +139,28 @@ public class LoginBean implements Serializable {
 			String json = "{" + "\"usuario\":\"" + usuario + "\"," + "\"contrasenia\":\"" + contrasenia + "\","
 					+ "\"nivelDePermiso\":\"" + nivelDePermiso + "\"" + "}";
 
-			String respuesta = "";
+			BackendResponse respuesta;
 			switch (nivelDePermiso) {
 			case "Administrador":
-				respuesta = AdministradorService.doPost("http://localhost:8081/admin/createadminjson", json);
+				respuesta = AdministradorService.doPost("/admin/createadminjson", json);
 				break;
 			case "Profesor":
-				respuesta = ProfesorService.doPost("http://localhost:8081/profesor/createprofesorjson", json);
+				respuesta = ProfesorService.doPost("/profesor/createprofesorjson", json);
 				break;
 			case "Estudiante":
-				respuesta = EstudianteService.doPost("http://localhost:8081/estudiante/createestudiantejson", json);
+				respuesta = EstudianteService.doPost("/estudiante/createestudiantejson", json);
 				break;
 			default:
 				showStickyLogin("Error", "Debe seleccionar un rol válido");
 				return;
 			}
 
-			if (respuesta != null && (respuesta.contains("exitosamente") || respuesta.contains("201")
-					|| respuesta.contains("creado"))) {
+			if (respuesta.isExitosa()) {
 				showStickyLogin("201", nivelDePermiso + " '" + usuario + "' registrado exitosamente en Artemisa");
-			} else if (respuesta != null && respuesta.contains("existe")) {
+			} else if (respuesta.getStatus() == 409) {
 				showStickyLogin("409", "El usuario '" + usuario + "' ya existe como " + nivelDePermiso);
 			} else {
-				showStickyLogin("406", "Error en el registro: " + respuesta);
+				showStickyLogin("406", "Error en el registro: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -1,6 +1,8 @@
 package co.edu.unbosque.bean;
 
+import co.edu.unbosque.codec.Codecs;
 import co.edu.unbosque.service.AdministradorService;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.EstudianteService;
 import co.edu.unbosque.service.ProfesorService;
 import jakarta.enterprise.context.SessionScoped;
@@ -14,6 +16,7 @@ import java.io.Serializable;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.google.gson.Gson;
 
@@ -51,10 +54,17 @@ public class PerfilBean implements Serializable {
 	private String role;
 
 	/** Imagen de perfil en base64, lista para ser mostrada en la interfaz. */
-	private String profileImagePath = "";
+	private volatile String profileImagePath = "";
+
+	/**
+	 * Consulta de la imagen en curso; se resuelve al primer acceso. Las
+	 * peticiones simultáneas de la sesión la comparten, así que se copia antes de
+	 * usarla y solo se descarta si nadie la reemplazó entretanto.
+	 */
+	private transient volatile CompletableFuture<String> imagenPendiente;
 
 	/** Instancia de Gson para procesar conversiones JSON. */
-	private Gson gson = new Gson();
+	private Gson gson = Codecs.gson();
 
 	/**
 	 * Constructor por defecto. Inicializa el bean cargando la información del
@@ -65,8 +75,9 @@ public class PerfilBean implements Serializable {
 	}
 
 	/**
-	 * Carga los datos del usuario (nombre y rol) desde la sesión JSF. Si existe una
-	 * imagen en el backend, la asigna; de lo contrario carga una por defecto.
+	 * Carga los datos del usuario (nombre y rol) desde la sesión JSF. La imagen se
+	 * pide al backend de forma asíncrona y se asigna cuando la vista la necesita;
+	 * si no existe se usa una por defecto.
 	 */
 	private void loadUserData() {
 		try {
@@ -78,12 +89,10 @@ public class PerfilBean implements Serializable {
 				role = (String) session.getAttribute("role");
 
 				if (username != null && role != null) {
-					String imagenBase64 = obtenerImagenPorRol(username, role);
-					if (imagenBase64 != null && !imagenBase64.isEmpty()) {
-						profileImagePath = "data:image/*;base64," + imagenBase64;
-					} else {
-						profileImagePath = getDefaultImage();
-					}
+					imagenPendiente = obtenerImagenPorRol(username, role).thenApply(
+							imagenBase64 -> imagenBase64 != null && !imagenBase64.isEmpty()
+									? "data:image/*;base64," + imagenBase64
+									: getDefaultImage());
 				} else {
 					profileImagePath = getDefaultImage();
 				}
@@ -98,44 +107,44 @@ public class PerfilBean implements Serializable {
 	 * 
 	 * @param usuario nombre del usuario.
 	 * @param rol     rol del usuario (Estudiante, Profesor o Administrador).
-	 * @return cadena en base64 de la imagen si existe, en caso contrario
-	 *         {@code null}.
+	 * @return futuro con la cadena en base64 de la imagen si existe, en caso
+	 *         contrario {@code null}.
 	 */
-	private String obtenerImagenPorRol(String usuario, String rol) {
+	private CompletableFuture<String> obtenerImagenPorRol(String usuario, String rol) {
 		try {
 			String url = "";
-			String response = "";
+			CompletableFuture<BackendResponse> response;
 
 			switch (rol) {
 			case "Estudiante":
-				url = "http://localhost:8081/estudiante/obtenerImagen?usuario="
+				url = "/estudiante/obtenerImagen?usuario="
 						+ java.net.URLEncoder.encode(usuario, "UTF-8");
-				response = EstudianteService.doGet(url);
+				response = EstudianteService.doGetAsync(url);
 				break;
 			case "Profesor":
-				url = "http://localhost:8081/profesor/obtenerImagen?usuario="
+				url = "/profesor/obtenerImagen?usuario="
 						+ java.net.URLEncoder.encode(usuario, "UTF-8");
-				response = ProfesorService.doGet(url);
+				response = ProfesorService.doGetAsync(url);
 				break;
 			case "Administrador":
-				url = "http://localhost:8081/admin/obtenerImagen?usuario="
+				url = "/admin/obtenerImagen?usuario="
 						+ java.net.URLEncoder.encode(usuario, "UTF-8");
-				response = AdministradorService.doGet(url);
+				response = AdministradorService.doGetAsync(url);
 				break;
 			default:
-				return null;
+				return CompletableFuture.completedFuture(null);
 			}
 
-			if (response != null && response.contains("200")) {
-				String[] partes = response.split("\n", 2);
-				if (partes.length > 1) {
-					Map<String, Object> jsonResponse = gson.fromJson(partes[1], Map.class);
-					return (String) jsonResponse.get("imagenBase64");
+			return response.thenApply(respuesta -> {
+				if (respuesta.isExitosa()) {
+					Map<String, Object> jsonResponse = gson.fromJson(respuesta.getBodyReader(), Map.class);
+					return jsonResponse != null ? (String) jsonResponse.get("imagenBase64") : null;
 				}
-			}
+				return null;
+			}).exceptionally(e -> null);
 		} catch (Exception e) {
+			return CompletableFuture.completedFuture(null);
 		}
-		return null;
 	}
 
 	/**
@@ -157,30 +166,33 @@ public class PerfilBean implements Serializable {
 				data.put("imagenBase64", base64);
 
 				String json = gson.toJson(data);
-				String response = "";
+				BackendResponse response;
 
 				switch (role) {
 				case "Estudiante":
-					response = EstudianteService.doPost("http://localhost:8081/estudiante/actualizarImagen", json);
+					response = EstudianteService.doPost("/estudiante/actualizarImagen", json);
 					break;
 				case "Profesor":
-					response = ProfesorService.doPost("http://localhost:8081/profesor/actualizarImagen", json);
+					response = ProfesorService.doPost("/profesor/actualizarImagen", json);
 					break;
 				case "Administrador":
-					response = AdministradorService.doPost("http://localhost:8081/admin/actualizarImagen", json);
+					response = AdministradorService.doPost("/admin/actualizarImagen", json);
 					break;
 				default:
 					throw new Exception("Rol no válido: " + role);
 				}
 
-				if (response != null && (response.contains("200") || response.contains("201"))) {
-					profileImagePath = "data:image/*;base64," + base64;
+				if (response.isExitosa()) {
+					synchronized (this) {
+						imagenPendiente = null;
+						profileImagePath = "data:image/*;base64," + base64;
+					}
 
 					FacesContext.getCurrentInstance().addMessage("perfilForm", new FacesMessage(
 							FacesMessage.SEVERITY_INFO, "Éxito", "Imagen de perfil actualizada correctamente"));
 				} else {
 					FacesContext.getCurrentInstance().addMessage("perfilForm", new FacesMessage(
-							FacesMessage.SEVERITY_ERROR, "Error", "Error actualizando imagen: " + response));
+							FacesMessage.SEVERITY_ERROR, "Error", "Error actualizando imagen: " + response.describir()));
 				}
 
 			} catch (Exception e) {
@@ -281,6 +293,16 @@ public class PerfilBean implements Serializable {
 
 	/** @return la cadena base64 de la imagen de perfil. */
 	public String getProfileImagePath() {
+		CompletableFuture<String> pendiente = imagenPendiente;
+		if (pendiente != null) {
+			String imagen = pendiente.join();
+			synchronized (this) {
+				if (imagenPendiente == pendiente) {
+					profileImagePath = imagen;
+					imagenPendiente = null;
+				}
+			}
+		}
 		return profileImagePath;
 	}
 
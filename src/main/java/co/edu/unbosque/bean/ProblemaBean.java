@@ -1,19 +1,18 @@
 package co.edu.unbosque.bean;
 
+import co.edu.unbosque.codec.Codecs;
 import co.edu.unbosque.dto.ProblemaDTO;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.ProblemaService;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
 import jakarta.inject.Named;
 import jakarta.servlet.http.HttpSession;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Bean encargado de gestionar los problemas de programación dentro del sistema
@@ -56,7 +55,7 @@ public class ProblemaBean {
 			"CodeChef", "Otros");
 
 	/** Objeto Gson para manejo de conversiones JSON. */
-	private Gson gson = new Gson();
+	private Gson gson = Codecs.gson();
 
 	/**
 	 * Constructor por defecto. Carga los problemas al inicializar el bean.
@@ -71,40 +70,9 @@ public class ProblemaBean {
 	 */
 	public void cargarProblema() {
 		try {
-			String respuesta = ProblemaService.doGet("http://localhost:8081/problema/getall");
-
-			if (respuesta != null && !respuesta.contains("Error")) {
-				String[] partes = respuesta.split("\n", 2);
-
-				if (partes.length > 1 && !partes[1].equals("[]")) {
-					try {
-						Type listType = new TypeToken<List<ProblemaDTO>>() {
-						}.getType();
-						List<ProblemaDTO> lista = gson.fromJson(partes[1], listType);
-
-						if (lista != null) {
-							problemas = lista.stream()
-									.filter(p -> p.getTitulo() != null && !p.getTitulo().trim().isEmpty())
-									.collect(Collectors.toList());
-						} else {
-							problemas = new ArrayList<>();
-						}
-
-						filteredProblemas = new ArrayList<>(problemas);
-
-					} catch (Exception e) {
-						problemas = new ArrayList<>();
-						filteredProblemas = new ArrayList<>();
-					}
-				} else {
-					problemas = new ArrayList<>();
-					filteredProblemas = new ArrayList<>();
-				}
-			} else {
-				problemas = new ArrayList<>();
-				filteredProblemas = new ArrayList<>();
-			}
-
+			problemas = ProblemaService.doGetList("/problema/getall", gson.getAdapter(ProblemaDTO.class),
+					p -> p.getTitulo() != null && !p.getTitulo().trim().isEmpty());
+			filteredProblemas = new ArrayList<>(problemas);
 		} catch (Exception e) {
 			problemas = new ArrayList<>();
 			filteredProblemas = new ArrayList<>();
@@ -134,20 +102,18 @@ public class ProblemaBean {
 					link != null ? link.trim() : "");
 
 			String json = gson.toJson(nuevoProblema);
-			String respuesta = ProblemaService.doPost("http://localhost:8081/problema/createproblemajson", json);
-
-			if (respuesta != null && (respuesta.contains("exitosamente") || respuesta.contains("creado")
-					|| respuesta.contains("message") || respuesta.contains("Problema creado"))) {
+			BackendResponse respuesta = ProblemaService.doPost("/problema/createproblemajson", json);
 
+			if (respuesta.isExitosa()) {
 				showMessage("201", "Problema '" + titulo + "' creado exitosamente");
 				limpiarCampos();
 				cargarProblema();
 
-			} else if (respuesta != null && respuesta.contains("ya existe")) {
+			} else if (respuesta.getStatus() == 409) {
 				showMessage("409", "El problema '" + titulo + "' ya existe");
 
 			} else {
-				showMessage("Error", "Error del servidor: " + respuesta);
+				showMessage("Error", "Error del servidor: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -181,15 +147,15 @@ public class ProblemaBean {
 			}
 
 			String tituloEncoded = java.net.URLEncoder.encode(problemaAEliminar.getTitulo(), "UTF-8");
-			String url = "http://localhost:8081/problema/deletebyTitulo?titulo=" + tituloEncoded;
+			String url = "/problema/deletebyTitulo?titulo=" + tituloEncoded;
 
-			String respuesta = ProblemaService.doDelete(url);
+			BackendResponse respuesta = ProblemaService.doDelete(url);
 
-			if (respuesta != null && respuesta.contains("successfully")) {
+			if (respuesta.isExitosa()) {
 				showMessage("200", "Problema '" + problemaAEliminar.getTitulo() + "' eliminado");
 				cargarProblema();
 			} else {
-				showMessage("Error", "Error eliminando: " + respuesta);
+				showMessage("Error", "Error eliminando: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -1,19 +1,18 @@
 package co.edu.unbosque.bean;
 
+import co.edu.unbosque.codec.Codecs;
 import co.edu.unbosque.dto.TemarioDTO;
+import co.edu.unbosque.service.BackendResponse;
 import co.edu.unbosque.service.TemarioService;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
 import jakarta.inject.Named;
 import jakarta.servlet.http.HttpSession;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Bean encargado de gestionar la interacción entre la vista JSF y la lógica de
@@ -53,7 +52,7 @@ public class TemarioBean {
 			"Greedy", "Backtracking", "Búsquedas", "Ordenamiento", "Otros");
 
 	/** Objeto Gson para manejo de serialización y deserialización JSON. */
-	private Gson gson = new Gson();
+	private Gson gson = Codecs.gson();
 
 	/**
 	 * Constructor que inicializa el bean y carga los temarios disponibles desde el
@@ -71,40 +70,9 @@ public class TemarioBean {
 	 */
 	public void cargarTemarios() {
 		try {
-			String respuesta = TemarioService.doGet("http://localhost:8081/temario/getall");
-
-			if (respuesta != null && !respuesta.contains("Error")) {
-				String[] partes = respuesta.split("\n", 2);
-
-				if (partes.length > 1 && !partes[1].equals("[]")) {
-					try {
-						Type listType = new TypeToken<List<TemarioDTO>>() {
-						}.getType();
-						List<TemarioDTO> lista = gson.fromJson(partes[1], listType);
-
-						if (lista != null) {
-							temarios = lista.stream()
-									.filter(t -> t.getTemaAlgoritmo() != null && !t.getTemaAlgoritmo().trim().isEmpty())
-									.collect(Collectors.toList());
-						} else {
-							temarios = new ArrayList<>();
-						}
-
-						filteredTemarios = new ArrayList<>(temarios);
-
-					} catch (Exception e) {
-						temarios = new ArrayList<>();
-						filteredTemarios = new ArrayList<>();
-					}
-				} else {
-					temarios = new ArrayList<>();
-					filteredTemarios = new ArrayList<>();
-				}
-			} else {
-				temarios = new ArrayList<>();
-				filteredTemarios = new ArrayList<>();
-			}
-
+			temarios = TemarioService.doGetList("/temario/getall", gson.getAdapter(TemarioDTO.class),
+					t -> t.getTemaAlgoritmo() != null && !t.getTemaAlgoritmo().trim().isEmpty());
+			filteredTemarios = new ArrayList<>(temarios);
 		} catch (Exception e) {
 			temarios = new ArrayList<>();
 			filteredTemarios = new ArrayList<>();
@@ -133,20 +101,18 @@ public class TemarioBean {
 					contenido != null ? contenido.trim() : "", codigo != null ? codigo.trim() : "");
 
 			String json = gson.toJson(nuevoTemario);
-			String respuesta = TemarioService.doPost("http://localhost:8081/temario/createtemariojson", json);
-
-			if (respuesta != null && (respuesta.contains("exitosamente") || respuesta.contains("creado")
-					|| respuesta.contains("message") || respuesta.contains("Temario creado"))) {
+			BackendResponse respuesta = TemarioService.doPost("/temario/createtemariojson", json);
 
+			if (respuesta.isExitosa()) {
 				showMessage("201", "Temario '" + temaAlgoritmo + "' creado exitosamente");
 				limpiarCampos();
 				cargarTemarios();
 
-			} else if (respuesta != null && respuesta.contains("ya existe")) {
+			} else if (respuesta.getStatus() == 409) {
 				showMessage("409", "El temario '" + temaAlgoritmo + "' ya existe");
 
 			} else {
-				showMessage("Error", "Error del servidor: " + respuesta);
+				showMessage("Error", "Error del servidor: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -180,15 +146,15 @@ public class TemarioBean {
 			}
 
 			String temaEncoded = java.net.URLEncoder.encode(temarioAEliminar.getTemaAlgoritmo(), "UTF-8");
-			String url = "http://localhost:8081/temario/deletebyTema?temaAlgoritmo=" + temaEncoded;
+			String url = "/temario/deletebyTema?temaAlgoritmo=" + temaEncoded;
 
-			String respuesta = TemarioService.doDelete(url);
+			BackendResponse respuesta = TemarioService.doDelete(url);
 
-			if (respuesta != null && respuesta.contains("successfully")) {
+			if (respuesta.isExitosa()) {
 				showMessage("200", "Temario '" + temarioAEliminar.getTemaAlgoritmo() + "' eliminado");
 				cargarTemarios();
 			} else {
-				showMessage("Error", "Error eliminando: " + respuesta);
+				showMessage("Error", "Error eliminando: " + respuesta.describir());
 			}
 
 		} catch (Exception e) {
@@ -0,0 +1,127 @@
+package co.edu.unbosque.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.google.gson.TypeAdapter;
+
+/**
+ * Formato binario compacto para intercambiar DTO con el backend, alternativo
+ * al JSON.
+ * <p>
+ * Representa el mismo modelo de datos que JSON (objetos, arreglos, textos,
+ * números, booleanos y nulos), pero cada valor va precedido de una etiqueta de
+ * un byte y los textos de su longitud, de modo que no hay comillas ni escapes
+ * y un valor que no interesa se salta sin leerlo. Además admite bytes crudos:
+ * los campos que en JSON viajan en base64, como la portada o el PDF de un
+ * libro, viajan aquí sin el 33 % de base64.
+ * </p>
+ *
+ * <p>
+ * Se lee y se escribe con {@link LectorBinario} y {@link EscritorBinario}, que
+ * extienden {@code JsonReader} y {@code JsonWriter}: los adaptadores de
+ * {@link Codecs} sirven sin cambios para los dos formatos.
+ * </p>
+ *
+ * <p>
+ * Codificación de cada valor:
+ * </p>
+ * <ul>
+ * <li>{@code 0x00} nulo, {@code 0x01} falso, {@code 0x02} verdadero.</li>
+ * <li>{@code 0x03} entero: varint con signo en zigzag.</li>
+ * <li>{@code 0x04} decimal: 8 bytes IEEE 754, big-endian.</li>
+ * <li>{@code 0x05} texto: longitud en varint y bytes UTF-8.</li>
+ * <li>{@code 0x06} bytes: longitud en varint y bytes crudos.</li>
+ * <li>{@code 0x07} inicio de arreglo y {@code 0x08} inicio de objeto; ambos
+ * terminan con {@code 0x09}.</li>
+ * <li>{@code 0x0A} nombre de un campo, dentro de un objeto: longitud en varint
+ * y bytes UTF-8, seguido del valor.</li>
+ * </ul>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class Binario {
+
+	/** Tipo de contenido con que se anuncia el formato. */
+	public static final String TIPO = "application/x-artemisa-binario";
+
+	static final int NULO = 0x00;
+	static final int FALSO = 0x01;
+	static final int VERDADERO = 0x02;
+	static final int ENTERO = 0x03;
+	static final int DECIMAL = 0x04;
+	static final int TEXTO = 0x05;
+	static final int BYTES = 0x06;
+	static final int ARREGLO = 0x07;
+	static final int OBJETO = 0x08;
+	static final int FIN = 0x09;
+	static final int NOMBRE = 0x0A;
+
+	private Binario() {
+	}
+
+	/**
+	 * @param tipoContenido valor de la cabecera {@code Content-Type}, o
+	 *                      {@code null}
+	 * @return {@code true} si el contenido está en este formato
+	 */
+	public static boolean es(String tipoContenido) {
+		return tipoContenido != null && tipoContenido.regionMatches(true, 0, TIPO, 0, TIPO.length());
+	}
+
+	/**
+	 * Codifica un valor en este formato.
+	 *
+	 * @param <T>       tipo del valor
+	 * @param adaptador adaptador del tipo
+	 * @param valor     valor a codificar
+	 * @return bytes codificados
+	 */
+	public static <T> byte[] codificar(TypeAdapter<T> adaptador, T valor) {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		try (EscritorBinario escritor = new EscritorBinario(salida)) {
+			// como en JSON, los campos null no se envían
+			escritor.setSerializeNulls(false);
+			adaptador.write(escritor, valor);
+		} catch (IOException e) {
+			// un ByteArrayOutputStream no falla
+			throw new UncheckedIOException(e);
+		}
+		return salida.toByteArray();
+	}
+
+	/**
+	 * Escribe un entero sin signo en varint: 7 bits por byte, el bit alto indica
+	 * que sigue otro byte.
+	 */
+	static void escribirVarint(OutputStream salida, long valor) throws IOException {
+		while ((valor & ~0x7FL) != 0) {
+			salida.write((int) ((valor & 0x7F) | 0x80));
+			valor >>>= 7;
+		}
+		salida.write((int) valor);
+	}
+
+	/**
+	 * Lee un entero sin signo escrito con {@link #escribirVarint}.
+	 */
+	static long leerVarint(InputStream entrada) throws IOException {
+		long valor = 0;
+		for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+			int b = entrada.read();
+			if (b < 0) {
+				throw new EOFException("Fin inesperado del cuerpo binario");
+			}
+			valor |= (long) (b & 0x7F) << desplazamiento;
+			if ((b & 0x80) == 0) {
+				return valor;
+			}
+		}
+		throw new IOException("Varint demasiado largo");
+	}
+}
@@ -0,0 +1,131 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.util.Base64;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Base de los adaptadores escritos a mano para los DTO.
+ * <p>
+ * Gson descubre por reflexión los campos de una clase que no tiene adaptador
+ * propio; estos adaptadores leen y escriben cada campo con su getter y su
+ * setter, sin reflexión. Conservan el comportamiento del adaptador reflexivo:
+ * los campos desconocidos se ignoran, los {@code null} del JSON dejan el campo
+ * sin asignar y los campos {@code null} no se escriben.
+ * </p>
+ *
+ * @param <T> tipo del DTO
+ * @author
+ * @version 1.0
+ */
+abstract class CodecDTO<T> extends TypeAdapter<T> {
+
+	@Override
+	public final T read(JsonReader lector) throws IOException {
+		if (lector.peek() == JsonToken.NULL) {
+			lector.nextNull();
+			return null;
+		}
+
+		T dto = crear();
+		lector.beginObject();
+		while (lector.hasNext()) {
+			String campo = lector.nextName();
+			if (lector.peek() == JsonToken.NULL) {
+				lector.nextNull();
+			} else if (diferir(dto, campo) || !leerCampo(dto, campo, lector)) {
+				lector.skipValue();
+			}
+		}
+		lector.endObject();
+		return dto;
+	}
+
+	@Override
+	public final void write(JsonWriter escritor, T dto) throws IOException {
+		if (dto == null) {
+			escritor.nullValue();
+			return;
+		}
+		escritor.beginObject();
+		escribirCampos(escritor, dto);
+		escritor.endObject();
+	}
+
+	/**
+	 * @return DTO vacío que se llenará con los campos leídos
+	 */
+	protected abstract T crear();
+
+	/**
+	 * Indica si el valor de un campo se salta sin decodificarlo, para cargarlo
+	 * después bajo demanda. Por omisión se decodifican todos.
+	 *
+	 * @param dto   DTO en construcción, con los campos leídos hasta ahora
+	 * @param campo nombre del campo en el JSON
+	 * @return {@code true} para saltar el valor
+	 */
+	protected boolean diferir(T dto, String campo) {
+		return false;
+	}
+
+	/**
+	 * Lee el valor de un campo, que no es {@code null}.
+	 *
+	 * @param dto    DTO en construcción
+	 * @param campo  nombre del campo en el JSON
+	 * @param lector lector posicionado en el valor
+	 * @return {@code false} si el campo no pertenece al DTO y su valor no se leyó
+	 * @throws IOException si el valor no tiene el tipo esperado
+	 */
+	protected abstract boolean leerCampo(T dto, String campo, JsonReader lector) throws IOException;
+
+	/**
+	 * Escribe los campos del DTO, en el orden en que están declarados.
+	 *
+	 * @param escritor escritor dentro del objeto JSON
+	 * @param dto      DTO a escribir
+	 * @throws IOException si falla la escritura
+	 */
+	protected abstract void escribirCampos(JsonWriter escritor, T dto) throws IOException;
+
+	/**
+	 * Lee un texto; como el adaptador de Gson, acepta también números y
+	 * booleanos.
+	 *
+	 * @param lector lector posicionado en el valor
+	 * @return texto leído
+	 * @throws IOException si el valor no es un texto
+	 */
+	static String texto(JsonReader lector) throws IOException {
+		return lector.peek() == JsonToken.BOOLEAN ? Boolean.toString(lector.nextBoolean()) : lector.nextString();
+	}
+
+	/**
+	 * Escribe un texto en base64. En el formato de {@link Binario} se escriben los
+	 * bytes crudos, salvo que el texto no sea base64 válido.
+	 *
+	 * @param escritor escritor con el nombre del campo ya escrito
+	 * @param valor    texto en base64, o {@code null}
+	 * @throws IOException si falla la escritura
+	 */
+	static void base64(JsonWriter escritor, String valor) throws IOException {
+		if (valor != null && escritor instanceof EscritorBinario binario) {
+			byte[] bytes;
+			try {
+				bytes = Base64.getDecoder().decode(valor);
+			} catch (IllegalArgumentException e) {
+				bytes = null;
+			}
+			if (bytes != null) {
+				binario.value(bytes);
+				return;
+			}
+		}
+		escritor.value(valor);
+	}
+}
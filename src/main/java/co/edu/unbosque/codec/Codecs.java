@@ -0,0 +1,163 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.AdministradorDTO;
+import co.edu.unbosque.dto.EstudianteDTO;
+import co.edu.unbosque.dto.EventoDTO;
+import co.edu.unbosque.dto.LibroDTO;
+import co.edu.unbosque.dto.LinkDTO;
+import co.edu.unbosque.dto.ProblemaDTO;
+import co.edu.unbosque.dto.ProfesorDTO;
+import co.edu.unbosque.dto.TemarioDTO;
+
+/**
+ * Registro de los adaptadores JSON de la aplicación.
+ * <p>
+ * Antes cada bean construía su propio {@link Gson}, y cada instancia volvía a
+ * inspeccionar por reflexión los DTO la primera vez que los usaba; los beans de
+ * vista repetían ese trabajo en cada página. Aquí se construye un único
+ * {@link Gson}, seguro entre hilos, con un adaptador escrito a mano para cada
+ * DTO de {@code co.edu.unbosque.dto}; los demás tipos (mapas, listas) siguen
+ * usando los adaptadores de Gson.
+ * </p>
+ *
+ * <p>
+ * Para los listados hay además adaptadores ligeros ({@link #ligero(Class)})
+ * que saltan los campos pesados que las vistas de listado no muestran, como el
+ * PDF de un libro; el libro completo se pide bajo demanda con
+ * {@link #libroConPdf(Long)} y su portada con {@link #libroConPortada(Long)}.
+ * </p>
+ *
+ * <p>
+ * Un DTO nuevo necesita su adaptador registrado aquí; sin él funciona igual,
+ * pero por reflexión.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class Codecs {
+
+	private static final Gson GSON = new GsonBuilder()
+			.registerTypeAdapter(AdministradorDTO.class, new AdministradorCodec())
+			.registerTypeAdapter(EstudianteDTO.class, new EstudianteCodec())
+			.registerTypeAdapter(ProfesorDTO.class, new ProfesorCodec())
+			.registerTypeAdapter(EventoDTO.class, new EventoCodec())
+			.registerTypeAdapter(LibroDTO.class, new LibroCodec(libro -> true, libro -> true))
+			.registerTypeAdapter(LinkDTO.class, new LinkCodec(false, link -> true))
+			.registerTypeAdapter(ProblemaDTO.class, new ProblemaCodec())
+			.registerTypeAdapter(TemarioDTO.class, new TemarioCodec())
+			.create();
+
+	/** Adaptadores de listado de los DTO que tienen campos pesados. */
+	private static final Map<Class<?>, TypeAdapter<?>> LIGEROS = Map.of(
+			LibroDTO.class, new LibroCodec(libro -> false, libro -> false),
+			LinkDTO.class, new LinkCodec(true, link -> false));
+
+	private Codecs() {
+	}
+
+	/**
+	 * @return instancia compartida de {@link Gson} con los adaptadores de los DTO
+	 */
+	public static Gson gson() {
+		return GSON;
+	}
+
+	/**
+	 * @param <T>  tipo a convertir
+	 * @param tipo clase a convertir
+	 * @return adaptador de la clase
+	 */
+	public static <T> TypeAdapter<T> de(Class<T> tipo) {
+		return GSON.getAdapter(tipo);
+	}
+
+	/**
+	 * Escribe un valor en JSON omitiendo los campos {@code null}, como
+	 * {@link Gson#toJson(Object)}. {@link TypeAdapter#toJson(Object)} no sirve
+	 * para los cuerpos de las peticiones: su {@link JsonWriter} escribe los
+	 * {@code null}, y un backend puede rechazar un {@code "id":null}.
+	 *
+	 * @param <T>       tipo del valor
+	 * @param adaptador adaptador que escribe el valor
+	 * @param valor     valor a escribir
+	 * @return texto JSON
+	 */
+	public static <T> String json(TypeAdapter<T> adaptador, T valor) {
+		StringWriter texto = new StringWriter();
+		try {
+			JsonWriter escritor = new JsonWriter(texto);
+			escritor.setSerializeNulls(false);
+			adaptador.write(escritor, valor);
+			escritor.flush();
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+		return texto.toString();
+	}
+
+	/**
+	 * Adaptador para decodificar listados: salta los campos pesados del tipo, si
+	 * los tiene, y marca el DTO para cargarlos bajo demanda.
+	 *
+	 * @param <T>  tipo a convertir
+	 * @param tipo clase a convertir
+	 * @return adaptador ligero de la clase, o el completo si no tiene campos
+	 *         pesados
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> TypeAdapter<T> ligero(Class<T> tipo) {
+		TypeAdapter<?> ligero = LIGEROS.get(tipo);
+		return ligero != null ? (TypeAdapter<T>) ligero : de(tipo);
+	}
+
+	/**
+	 * Adaptador para buscar un libro completo en un listado: decodifica la
+	 * portada y el PDF del libro pedido y salta los de los demás.
+	 *
+	 * @param id identificador del libro cuyo PDF se carga
+	 * @return adaptador de {@link LibroDTO}
+	 */
+	public static TypeAdapter<LibroDTO> libroConPdf(Long id) {
+		return new LibroCodec(esElLibro(id), esElLibro(id));
+	}
+
+	/**
+	 * Adaptador para buscar la portada de un libro en un listado: decodifica
+	 * solo la portada del libro pedido y salta los PDF de todos.
+	 *
+	 * @param id identificador del libro cuya portada se carga
+	 * @return adaptador de {@link LibroDTO}
+	 */
+	public static TypeAdapter<LibroDTO> libroConPortada(Long id) {
+		return new LibroCodec(esElLibro(id), libro -> false);
+	}
+
+	/**
+	 * Adaptador para buscar la imagen de un link en un listado: decodifica en
+	 * base64 solo la imagen del link pedido.
+	 *
+	 * @param id identificador del link cuya imagen se carga
+	 * @return adaptador de {@link LinkDTO}
+	 */
+	public static TypeAdapter<LinkDTO> linkConImagen(Long id) {
+		// si el id llega después de la imagen no se sabe de quién es: se decodifica
+		return new LinkCodec(true, link -> link.getId() == null || link.getId().equals(id));
+	}
+
+	private static Predicate<LibroDTO> esElLibro(Long id) {
+		// si el id llega después del campo no se sabe de quién es: se decodifica
+		return libro -> libro.getId() == null || libro.getId().equals(id);
+	}
+}
@@ -0,0 +1,121 @@
+package co.edu.unbosque.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.TypeAdapter;
+
+/**
+ * Cuerpos JSON que se generan mientras se envían.
+ * <p>
+ * Un libro lleva la portada y el PDF en base64 dentro del JSON. Armarlo con
+ * {@link TypeAdapter#toJson(Object)} deja en el heap, a la vez, los bytes del
+ * archivo, su texto en base64, el JSON completo y su copia en UTF-8: unas
+ * ocho veces el tamaño del PDF. Aquí solo los campos pequeños del DTO se
+ * escriben por adelantado; los adjuntos se leen de su {@link FuenteFlujo} y se
+ * codifican con {@link FlujoBase64} a medida que el cliente HTTP consume el
+ * cuerpo, de modo que en memoria solo hay un bloque de cada archivo.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class CuerpoJson {
+
+	/** Tipo de contenido de los cuerpos. */
+	public static final String TIPO = "application/json";
+
+	private CuerpoJson() {
+	}
+
+	/**
+	 * Arma el cuerpo de un DTO con campos en base64 leídos de flujos.
+	 *
+	 * @param <T>       tipo del DTO
+	 * @param adaptador adaptador que escribe los campos del DTO; los campos
+	 *                  {@code null} no se escriben, así que los adjuntos deben
+	 *                  quedar en {@code null} en el DTO
+	 * @param dto       DTO con los campos pequeños
+	 * @param adjuntos  campos en base64 y su contenido, en el orden en que se
+	 *                  escriben; un contenido {@code null} se envía como texto
+	 *                  vacío
+	 * @return fuente del cuerpo; cada vez que se abre vuelve a abrir los
+	 *         adjuntos, uno por uno y solo cuando les toca
+	 * @throws IllegalArgumentException si el DTO no se escribe como objeto
+	 */
+	public static <T> FuenteFlujo conAdjuntos(TypeAdapter<T> adaptador, T dto, Map<String, FuenteFlujo> adjuntos) {
+		String campos = campos(adaptador, dto);
+		List<FuenteFlujo> tramos = new ArrayList<>();
+		boolean primero = "{".equals(campos);
+		StringBuilder texto = new StringBuilder(campos);
+		for (Map.Entry<String, FuenteFlujo> adjunto : adjuntos.entrySet()) {
+			if (!primero) {
+				texto.append(',');
+			}
+			primero = false;
+			texto.append(Codecs.gson().toJson(adjunto.getKey())).append(":\"");
+			tramos.add(fijo(texto.toString()));
+			texto.setLength(0);
+			FuenteFlujo fuente = adjunto.getValue();
+			if (fuente != null) {
+				tramos.add(() -> new FlujoBase64(fuente.abrir()));
+			}
+			texto.append('"');
+		}
+		texto.append('}');
+		tramos.add(fijo(texto.toString()));
+		return () -> unir(tramos);
+	}
+
+	/**
+	 * Escribe los campos no nulos del DTO.
+	 *
+	 * @return objeto JSON sin la llave de cierre
+	 */
+	private static <T> String campos(TypeAdapter<T> adaptador, T dto) {
+		String json = Codecs.json(adaptador, dto);
+		if (!json.startsWith("{") || !json.endsWith("}")) {
+			throw new IllegalArgumentException("El DTO no se escribe como un objeto JSON: " + dto);
+		}
+		return json.substring(0, json.length() - 1);
+	}
+
+	private static FuenteFlujo fijo(String texto) {
+		byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+		return () -> new ByteArrayInputStream(bytes);
+	}
+
+	/**
+	 * Une los tramos abriendo cada uno recién cuando
+	 * {@link SequenceInputStream} llega a él, para no tener abiertos todos los
+	 * archivos desde el principio. Un fallo al abrir se propaga como
+	 * {@link UncheckedIOException}.
+	 */
+	private static InputStream unir(List<FuenteFlujo> tramos) {
+		Iterator<FuenteFlujo> pendientes = tramos.iterator();
+		return new SequenceInputStream(new Enumeration<>() {
+			@Override
+			public boolean hasMoreElements() {
+				return pendientes.hasNext();
+			}
+
+			@Override
+			public InputStream nextElement() {
+				try {
+					return pendientes.next().abrir();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+}
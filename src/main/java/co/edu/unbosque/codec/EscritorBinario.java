@@ -0,0 +1,191 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Escribe el formato de {@link Binario} con la interfaz de {@link JsonWriter}.
+ * <p>
+ * Como {@link JsonWriter}, omite los campos {@code null} salvo que se active
+ * {@link #setSerializeNulls(boolean)}. {@link #jsonValue(String)} no está
+ * disponible.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class EscritorBinario extends JsonWriter {
+
+	private final OutputStream salida;
+
+	/** Nombre del campo cuyo valor aún no se escribió. */
+	private String nombre;
+
+	/**
+	 * @param salida flujo donde se escribe; se cierra con {@link #close()}
+	 */
+	public EscritorBinario(OutputStream salida) {
+		super(Writer.nullWriter());
+		this.salida = salida;
+	}
+
+	@Override
+	public JsonWriter beginArray() throws IOException {
+		abrirValor(Binario.ARREGLO);
+		return this;
+	}
+
+	@Override
+	public JsonWriter endArray() throws IOException {
+		salida.write(Binario.FIN);
+		return this;
+	}
+
+	@Override
+	public JsonWriter beginObject() throws IOException {
+		abrirValor(Binario.OBJETO);
+		return this;
+	}
+
+	@Override
+	public JsonWriter endObject() throws IOException {
+		salida.write(Binario.FIN);
+		return this;
+	}
+
+	@Override
+	public JsonWriter name(String nombre) throws IOException {
+		Objects.requireNonNull(nombre, "nombre");
+		if (this.nombre != null) {
+			throw new IllegalStateException("Falta el valor de " + this.nombre);
+		}
+		this.nombre = nombre;
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(String valor) throws IOException {
+		if (valor == null) {
+			return nullValue();
+		}
+		abrirValor(Binario.TEXTO);
+		byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+		Binario.escribirVarint(salida, bytes.length);
+		salida.write(bytes);
+		return this;
+	}
+
+	/**
+	 * Escribe bytes crudos, que en JSON irían en base64.
+	 *
+	 * @param valor bytes a escribir, o {@code null}
+	 * @return este escritor
+	 * @throws IOException si falla la escritura
+	 */
+	public JsonWriter value(byte[] valor) throws IOException {
+		if (valor == null) {
+			return nullValue();
+		}
+		abrirValor(Binario.BYTES);
+		Binario.escribirVarint(salida, valor.length);
+		salida.write(valor);
+		return this;
+	}
+
+	@Override
+	public JsonWriter jsonValue(String valor) {
+		throw new UnsupportedOperationException("El formato binario no admite JSON literal");
+	}
+
+	@Override
+	public JsonWriter nullValue() throws IOException {
+		if (nombre != null && !getSerializeNulls()) {
+			nombre = null;
+			return this;
+		}
+		abrirValor(Binario.NULO);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(boolean valor) throws IOException {
+		abrirValor(valor ? Binario.VERDADERO : Binario.FALSO);
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Boolean valor) throws IOException {
+		return valor == null ? nullValue() : value(valor.booleanValue());
+	}
+
+	@Override
+	public JsonWriter value(float valor) throws IOException {
+		return value((double) valor);
+	}
+
+	@Override
+	public JsonWriter value(double valor) throws IOException {
+		abrirValor(Binario.DECIMAL);
+		long bits = Double.doubleToLongBits(valor);
+		for (int desplazamiento = 56; desplazamiento >= 0; desplazamiento -= 8) {
+			salida.write((int) (bits >>> desplazamiento));
+		}
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(long valor) throws IOException {
+		abrirValor(Binario.ENTERO);
+		Binario.escribirVarint(salida, (valor << 1) ^ (valor >> 63));
+		return this;
+	}
+
+	@Override
+	public JsonWriter value(Number valor) throws IOException {
+		if (valor == null) {
+			return nullValue();
+		}
+		if (valor instanceof Long || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+			return value(valor.longValue());
+		}
+		if (valor instanceof Double || valor instanceof Float) {
+			return value(valor.doubleValue());
+		}
+		if (valor instanceof BigInteger entero && entero.bitLength() < 64) {
+			return value(entero.longValue());
+		}
+		// BigDecimal y números de precisión arbitraria conservan su texto exacto
+		return value(valor instanceof BigDecimal decimal ? decimal.toPlainString() : valor.toString());
+	}
+
+	@Override
+	public void flush() throws IOException {
+		salida.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		salida.close();
+	}
+
+	/**
+	 * Escribe el nombre pendiente, si lo hay, y la etiqueta del valor.
+	 */
+	private void abrirValor(int etiqueta) throws IOException {
+		if (nombre != null) {
+			byte[] bytes = nombre.getBytes(StandardCharsets.UTF_8);
+			salida.write(Binario.NOMBRE);
+			Binario.escribirVarint(salida, bytes.length);
+			salida.write(bytes);
+			nombre = null;
+		}
+		salida.write(etiqueta);
+	}
+}
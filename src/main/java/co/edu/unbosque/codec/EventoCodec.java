@@ -0,0 +1,142 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.EventoDTO;
+
+/**
+ * Adaptador sin reflexión de {@link EventoDTO}.
+ * <p>
+ * La fecha se escribe como {@code yyyy-MM-dd HH:mm:ss}, el formato del
+ * backend, y se lee en ese formato, en ISO-8601 ({@code 2025-05-10T18:30:00}),
+ * sólo con el día ({@code 2025-05-10}) o como milisegundos desde la época,
+ * directamente a {@link LocalDateTime}. Una fecha que no se reconoce queda en
+ * {@code null}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class EventoCodec extends CodecDTO<EventoDTO> {
+
+	/** Formato de las fechas que se envían al backend; inmutable y compartido. */
+	private static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	@Override
+	protected EventoDTO crear() {
+		return new EventoDTO();
+	}
+
+	@Override
+	protected boolean leerCampo(EventoDTO dto, String campo, JsonReader lector) throws IOException {
+		switch (campo) {
+		case "id":
+			dto.setId(lector.nextLong());
+			return true;
+		case "titulo":
+			dto.setTitulo(texto(lector));
+			return true;
+		case "descripcion":
+			dto.setDescripcion(texto(lector));
+			return true;
+		case "tipo":
+			dto.setTipo(texto(lector));
+			return true;
+		case "fecha":
+			dto.setFecha(fecha(lector));
+			return true;
+		case "enlace":
+			dto.setEnlace(texto(lector));
+			return true;
+		case "ubicacion":
+			dto.setUbicacion(texto(lector));
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected void escribirCampos(JsonWriter escritor, EventoDTO dto) throws IOException {
+		escritor.name("id").value(dto.getId());
+		escritor.name("titulo").value(dto.getTitulo());
+		escritor.name("descripcion").value(dto.getDescripcion());
+		escritor.name("tipo").value(dto.getTipo());
+		escritor.name("fecha").value(dto.getFecha() == null ? null : FORMATO.format(dto.getFecha()));
+		escritor.name("enlace").value(dto.getEnlace());
+		escritor.name("ubicacion").value(dto.getUbicacion());
+	}
+
+	private static LocalDateTime fecha(JsonReader lector) throws IOException {
+		if (lector.peek() == JsonToken.NUMBER) {
+			return LocalDateTime.ofInstant(Instant.ofEpochMilli(lector.nextLong()), ZoneId.systemDefault());
+		}
+		return fecha(texto(lector).trim());
+	}
+
+	/**
+	 * Interpreta una fecha del backend. Los formatos habituales se leen por
+	 * posición, sin crear objetos intermedios; los demás, con los formateadores
+	 * ISO de {@code java.time}.
+	 *
+	 * @param texto fecha recibida
+	 * @return fecha leída, o {@code null} si no se reconoce
+	 */
+	private static LocalDateTime fecha(String texto) {
+		try {
+			int largo = texto.length();
+			if ((largo == 10 || largo == 19) && texto.charAt(4) == '-' && texto.charAt(7) == '-') {
+				int anio = digitos(texto, 0, 4);
+				int mes = digitos(texto, 5, 2);
+				int dia = digitos(texto, 8, 2);
+				if (largo == 10 && (anio | mes | dia) >= 0) {
+					return LocalDateTime.of(anio, mes, dia, 0, 0);
+				}
+				if (largo == 19 && (texto.charAt(10) == ' ' || texto.charAt(10) == 'T') && texto.charAt(13) == ':'
+						&& texto.charAt(16) == ':') {
+					int hora = digitos(texto, 11, 2);
+					int minuto = digitos(texto, 14, 2);
+					int segundo = digitos(texto, 17, 2);
+					if ((anio | mes | dia | hora | minuto | segundo) >= 0) {
+						return LocalDateTime.of(anio, mes, dia, hora, minuto, segundo);
+					}
+				}
+			}
+			// fracciones de segundo, zona horaria...
+			if (largo > 10 && texto.charAt(10) == 'T') {
+				return LocalDateTime.from(DateTimeFormatter.ISO_DATE_TIME.parse(texto));
+			}
+			return LocalDate.parse(largo > 10 ? texto.substring(0, 10) : texto).atStartOfDay();
+		} catch (DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param texto    texto a leer
+	 * @param inicio   posición del primer dígito
+	 * @param cantidad cantidad de dígitos
+	 * @return valor de los dígitos, o -1 si alguno no es un dígito decimal
+	 */
+	private static int digitos(String texto, int inicio, int cantidad) {
+		int valor = 0;
+		for (int i = inicio; i < inicio + cantidad; i++) {
+			int digito = texto.charAt(i) - '0';
+			if (digito < 0 || digito > 9) {
+				return -1;
+			}
+			valor = valor * 10 + digito;
+		}
+		return valor;
+	}
+}
@@ -0,0 +1,96 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+
+/**
+ * Flujo que entrega en base64 el contenido de otro flujo a medida que se lee.
+ * <p>
+ * {@link Base64.Encoder#wrap(java.io.OutputStream)} codifica al escribir, lo
+ * que obligaría a un hilo que escriba mientras el cliente HTTP lee. Este flujo
+ * codifica al leer: toma del original bloques de 3 bytes completos y los
+ * convierte en 4 caracteres, así que en memoria solo hay un bloque de cada
+ * lado.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class FlujoBase64 extends InputStream {
+
+	/** Bytes del original por bloque; múltiplo de 3 para no rellenar a mitad. */
+	private static final int BLOQUE = 3 * 4096;
+
+	private final InputStream original;
+	private final byte[] leidos = new byte[BLOQUE];
+	private final byte[] codificados = new byte[BLOQUE / 3 * 4];
+	private int posicion;
+	private int disponibles;
+	private boolean terminado;
+
+	/**
+	 * @param original flujo con los bytes a codificar; se cierra con este
+	 */
+	FlujoBase64(InputStream original) {
+		this.original = original;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!llenar()) {
+			return -1;
+		}
+		return codificados[posicion++];
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!llenar()) {
+			return -1;
+		}
+		int n = Math.min(len, disponibles - posicion);
+		System.arraycopy(codificados, posicion, b, off, n);
+		posicion += n;
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return disponibles - posicion;
+	}
+
+	@Override
+	public void close() throws IOException {
+		original.close();
+	}
+
+	/**
+	 * Codifica el siguiente bloque si ya se entregó el anterior.
+	 *
+	 * @return {@code false} si no queda nada por entregar
+	 */
+	private boolean llenar() throws IOException {
+		if (posicion < disponibles) {
+			return true;
+		}
+		if (terminado) {
+			return false;
+		}
+		int cantidad = original.readNBytes(leidos, 0, BLOQUE);
+		// un bloque incompleto solo puede ser el último: lleva el relleno
+		terminado = cantidad < BLOQUE;
+		posicion = 0;
+		disponibles = Base64.getEncoder().encode(cantidad == BLOQUE ? leidos : copia(cantidad), codificados);
+		return disponibles > 0;
+	}
+
+	private byte[] copia(int cantidad) {
+		byte[] ultimo = new byte[cantidad];
+		System.arraycopy(leidos, 0, ultimo, 0, cantidad);
+		return ultimo;
+	}
+}
@@ -0,0 +1,25 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Origen de un contenido que se lee como flujo, sin tenerlo completo en
+ * memoria, por ejemplo un archivo subido.
+ * <p>
+ * Cada llamada a {@link #abrir()} entrega un flujo nuevo desde el principio,
+ * de modo que el contenido puede leerse más de una vez si el envío se repite.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface FuenteFlujo {
+
+	/**
+	 * @return flujo nuevo con el contenido; quien lo abre debe cerrarlo
+	 * @throws IOException si el contenido no se puede abrir
+	 */
+	InputStream abrir() throws IOException;
+}
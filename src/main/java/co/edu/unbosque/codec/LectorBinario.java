@@ -0,0 +1,336 @@
+package co.edu.unbosque.codec;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+/**
+ * Lee el formato de {@link Binario} con la interfaz de {@link JsonReader}.
+ * <p>
+ * Los bytes crudos se entregan con {@link #nextBytes()} o, para los
+ * adaptadores que esperan base64, con {@link #nextString()}.
+ * {@link #skipValue()} salta los textos y los bytes sin leerlos, por su
+ * longitud.
+ * </p>
+ *
+ * <p>
+ * Sirve para los adaptadores de {@link Codecs} y los de Gson para tipos
+ * simples y listas; los mapas de Gson acceden al estado interno de
+ * {@link JsonReader} y deben leerse de JSON.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class LectorBinario extends JsonReader {
+
+	private final InputStream entrada;
+
+	/** Etiqueta del siguiente valor ya leída, o -1. */
+	private int etiqueta = -1;
+
+	/** Etiqueta consumida por la última llamada a {@link #esperar(JsonToken)}. */
+	private int etiquetaConsumida;
+
+	/** Contenedores abiertos: {@link Binario#ARREGLO} u {@link Binario#OBJETO}. */
+	private int[] pila = new int[16];
+	private int profundidad;
+
+	/**
+	 * @param entrada flujo a leer; se cierra con {@link #close()}
+	 */
+	public LectorBinario(InputStream entrada) {
+		super(Reader.nullReader());
+		this.entrada = entrada instanceof BufferedInputStream ? entrada : new BufferedInputStream(entrada);
+	}
+
+	@Override
+	public JsonToken peek() throws IOException {
+		int siguiente = etiqueta();
+		switch (siguiente) {
+		case -1:
+			if (profundidad > 0) {
+				throw new EOFException("Fin inesperado del cuerpo binario");
+			}
+			return JsonToken.END_DOCUMENT;
+		case Binario.NULO:
+			return JsonToken.NULL;
+		case Binario.FALSO:
+		case Binario.VERDADERO:
+			return JsonToken.BOOLEAN;
+		case Binario.ENTERO:
+		case Binario.DECIMAL:
+			return JsonToken.NUMBER;
+		case Binario.TEXTO:
+		case Binario.BYTES:
+			return JsonToken.STRING;
+		case Binario.ARREGLO:
+			return JsonToken.BEGIN_ARRAY;
+		case Binario.OBJETO:
+			return JsonToken.BEGIN_OBJECT;
+		case Binario.NOMBRE:
+			return JsonToken.NAME;
+		case Binario.FIN:
+			if (profundidad == 0) {
+				throw new MalformedJsonException("Fin de contenedor sin abrir");
+			}
+			return pila[profundidad - 1] == Binario.ARREGLO ? JsonToken.END_ARRAY : JsonToken.END_OBJECT;
+		default:
+			throw new MalformedJsonException("Etiqueta desconocida: " + siguiente);
+		}
+	}
+
+	@Override
+	public void beginArray() throws IOException {
+		esperar(JsonToken.BEGIN_ARRAY);
+		abrir(Binario.ARREGLO);
+	}
+
+	@Override
+	public void endArray() throws IOException {
+		esperar(JsonToken.END_ARRAY);
+		profundidad--;
+	}
+
+	@Override
+	public void beginObject() throws IOException {
+		esperar(JsonToken.BEGIN_OBJECT);
+		abrir(Binario.OBJETO);
+	}
+
+	@Override
+	public void endObject() throws IOException {
+		esperar(JsonToken.END_OBJECT);
+		profundidad--;
+	}
+
+	@Override
+	public boolean hasNext() throws IOException {
+		JsonToken siguiente = peek();
+		return siguiente != JsonToken.END_ARRAY && siguiente != JsonToken.END_OBJECT
+				&& siguiente != JsonToken.END_DOCUMENT;
+	}
+
+	@Override
+	public String nextName() throws IOException {
+		esperar(JsonToken.NAME);
+		return new String(leerBytes(), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String nextString() throws IOException {
+		JsonToken siguiente = peek();
+		int actual = etiqueta;
+		if (siguiente != JsonToken.STRING && siguiente != JsonToken.NUMBER) {
+			throw inesperado("un texto", siguiente);
+		}
+		etiqueta = -1;
+		switch (actual) {
+		case Binario.TEXTO:
+			return new String(leerBytes(), StandardCharsets.UTF_8);
+		case Binario.BYTES:
+			return Base64.getEncoder().encodeToString(leerBytes());
+		case Binario.ENTERO:
+			return Long.toString(leerEntero());
+		default:
+			return Double.toString(leerDecimal());
+		}
+	}
+
+	/**
+	 * Lee bytes crudos.
+	 *
+	 * @return bytes leídos
+	 * @throws IOException si el siguiente valor no son bytes
+	 */
+	public byte[] nextBytes() throws IOException {
+		if (etiqueta() != Binario.BYTES) {
+			throw inesperado("bytes", peek());
+		}
+		etiqueta = -1;
+		return leerBytes();
+	}
+
+	@Override
+	public boolean nextBoolean() throws IOException {
+		esperar(JsonToken.BOOLEAN);
+		return etiquetaConsumida == Binario.VERDADERO;
+	}
+
+	@Override
+	public void nextNull() throws IOException {
+		esperar(JsonToken.NULL);
+	}
+
+	@Override
+	public double nextDouble() throws IOException {
+		peek();
+		if (etiqueta == Binario.TEXTO) {
+			return Double.parseDouble(nextString());
+		}
+		esperar(JsonToken.NUMBER);
+		return etiquetaConsumida == Binario.ENTERO ? leerEntero() : leerDecimal();
+	}
+
+	@Override
+	public long nextLong() throws IOException {
+		peek();
+		if (etiqueta == Binario.TEXTO) {
+			return Long.parseLong(nextString());
+		}
+		esperar(JsonToken.NUMBER);
+		if (etiquetaConsumida == Binario.ENTERO) {
+			return leerEntero();
+		}
+		double decimal = leerDecimal();
+		long entero = (long) decimal;
+		if (entero != decimal) {
+			throw new NumberFormatException("Se esperaba un entero pero se encontró " + decimal);
+		}
+		return entero;
+	}
+
+	@Override
+	public int nextInt() throws IOException {
+		long valor = nextLong();
+		if ((int) valor != valor) {
+			throw new NumberFormatException("Se esperaba un int pero se encontró " + valor);
+		}
+		return (int) valor;
+	}
+
+	@Override
+	public void skipValue() throws IOException {
+		int nivel = 0;
+		do {
+			switch (peek()) {
+			case BEGIN_ARRAY:
+			case BEGIN_OBJECT:
+				abrir(etiqueta);
+				etiqueta = -1;
+				nivel++;
+				break;
+			case END_ARRAY:
+			case END_OBJECT:
+				if (nivel == 0) {
+					throw new IllegalStateException("No hay un valor que saltar al final de un contenedor");
+				}
+				etiqueta = -1;
+				profundidad--;
+				nivel--;
+				break;
+			case END_DOCUMENT:
+				throw new EOFException("No hay un valor que saltar");
+			default:
+				saltarEscalar();
+			}
+		} while (nivel > 0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		profundidad = 0;
+		etiqueta = -1;
+		entrada.close();
+	}
+
+	@Override
+	public String toString() {
+		return "LectorBinario";
+	}
+
+	/**
+	 * @return etiqueta del siguiente valor sin consumirla, o -1 al final del
+	 *         flujo
+	 */
+	private int etiqueta() throws IOException {
+		if (etiqueta < 0) {
+			etiqueta = entrada.read();
+		}
+		return etiqueta;
+	}
+
+	/**
+	 * Consume el siguiente valor si es del tipo esperado.
+	 */
+	private void esperar(JsonToken esperado) throws IOException {
+		JsonToken siguiente = peek();
+		if (siguiente != esperado) {
+			throw inesperado(esperado.toString(), siguiente);
+		}
+		etiquetaConsumida = etiqueta;
+		etiqueta = -1;
+	}
+
+	private void abrir(int contenedor) {
+		if (profundidad == pila.length) {
+			pila = Arrays.copyOf(pila, profundidad * 2);
+		}
+		pila[profundidad++] = contenedor;
+	}
+
+	/**
+	 * Salta un nombre o un valor que no es un contenedor.
+	 */
+	private void saltarEscalar() throws IOException {
+		int actual = etiqueta;
+		etiqueta = -1;
+		switch (actual) {
+		case Binario.TEXTO:
+		case Binario.BYTES:
+		case Binario.NOMBRE:
+			entrada.skipNBytes(Binario.leerVarint(entrada));
+			break;
+		case Binario.ENTERO:
+			Binario.leerVarint(entrada);
+			break;
+		case Binario.DECIMAL:
+			entrada.skipNBytes(Long.BYTES);
+			break;
+		default:
+			// nulo y booleanos no tienen contenido
+		}
+	}
+
+	private byte[] leerBytes() throws IOException {
+		long largo = Binario.leerVarint(entrada);
+		if (largo > Integer.MAX_VALUE - 8) {
+			throw new MalformedJsonException("Valor demasiado grande: " + largo + " bytes");
+		}
+		byte[] bytes = entrada.readNBytes((int) largo);
+		if (bytes.length < largo) {
+			throw new EOFException("Fin inesperado del cuerpo binario");
+		}
+		return bytes;
+	}
+
+	private long leerEntero() throws IOException {
+		long zigzag = Binario.leerVarint(entrada);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	private double leerDecimal() throws IOException {
+		byte[] bytes = entrada.readNBytes(Long.BYTES);
+		if (bytes.length < Long.BYTES) {
+			throw new EOFException("Fin inesperado del cuerpo binario");
+		}
+		long bits = 0;
+		for (byte b : bytes) {
+			bits = (bits << 8) | (b & 0xFF);
+		}
+		return Double.longBitsToDouble(bits);
+	}
+
+	private static IllegalStateException inesperado(String esperado, JsonToken encontrado) {
+		return new IllegalStateException("Se esperaba " + esperado + " pero se encontró " + encontrado);
+	}
+}
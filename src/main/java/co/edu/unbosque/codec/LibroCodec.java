@@ -0,0 +1,121 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+import java.util.function.Predicate;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.LibroDTO;
+
+/**
+ * Adaptador sin reflexión de {@link LibroDTO}.
+ * <p>
+ * La portada y el PDF en base64 pueden ocupar megabytes por libro y la vista
+ * del catálogo no los decodifica: muestra la miniatura que sirve
+ * {@code /media}. En modo ligero sus valores se saltan con
+ * {@link JsonReader#skipValue()}, sin crear el {@link String}, y el libro
+ * queda marcado con {@link LibroDTO#isPortadaDiferida()} y
+ * {@link LibroDTO#isPdfDiferido()}. Los resúmenes del catálogo no traen ni la
+ * portada ni el PDF sino los campos {@code tienePortada} y {@code tienePdf},
+ * que marcan el libro de la misma forma; esos campos no se escriben.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class LibroCodec extends CodecDTO<LibroDTO> {
+
+	/** Decide, con los campos leídos hasta la portada, si se decodifica. */
+	private final Predicate<LibroDTO> conPortada;
+
+	/** Decide, con los campos leídos hasta el PDF, si el PDF se decodifica. */
+	private final Predicate<LibroDTO> conPdf;
+
+	/**
+	 * @param conPortada recibe el libro con los campos leídos hasta la portada y
+	 *                   decide si se decodifica o se difiere
+	 * @param conPdf     recibe el libro con los campos leídos hasta el PDF y
+	 *                   decide si el PDF se decodifica o se difiere
+	 */
+	LibroCodec(Predicate<LibroDTO> conPortada, Predicate<LibroDTO> conPdf) {
+		this.conPortada = conPortada;
+		this.conPdf = conPdf;
+	}
+
+	@Override
+	protected boolean diferir(LibroDTO dto, String campo) {
+		switch (campo) {
+		case "imagenBase64":
+			if (conPortada.test(dto)) {
+				return false;
+			}
+			// sin leerla no se sabe si está vacía; /media responde 404 si lo está
+			dto.setPortadaDiferida(true);
+			return true;
+		case "pdfBase64":
+			if (conPdf.test(dto)) {
+				return false;
+			}
+			dto.setPdfDiferido(true);
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected LibroDTO crear() {
+		return new LibroDTO();
+	}
+
+	@Override
+	protected boolean leerCampo(LibroDTO dto, String campo, JsonReader lector) throws IOException {
+		switch (campo) {
+		case "id":
+			dto.setId(lector.nextLong());
+			return true;
+		case "titulo":
+			dto.setTitulo(texto(lector));
+			return true;
+		case "author":
+			dto.setAuthor(texto(lector));
+			return true;
+		case "descripcion":
+			dto.setDescripcion(texto(lector));
+			return true;
+		case "enlace":
+			dto.setEnlace(texto(lector));
+			return true;
+		case "imagenBase64":
+			dto.setImagenBase64(texto(lector));
+			return true;
+		case "pdfBase64":
+			dto.setPdfBase64(texto(lector));
+			return true;
+		case "tienePortada":
+			if (lector.nextBoolean() && dto.getImagenBase64() == null) {
+				dto.setPortadaDiferida(true);
+			}
+			return true;
+		case "tienePdf":
+			if (lector.nextBoolean() && dto.getPdfBase64() == null) {
+				dto.setPdfDiferido(true);
+			}
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected void escribirCampos(JsonWriter escritor, LibroDTO dto) throws IOException {
+		escritor.name("id").value(dto.getId());
+		escritor.name("titulo").value(dto.getTitulo());
+		escritor.name("author").value(dto.getAuthor());
+		escritor.name("descripcion").value(dto.getDescripcion());
+		escritor.name("enlace").value(dto.getEnlace());
+		base64(escritor.name("imagenBase64"), dto.getImagenBase64());
+		base64(escritor.name("pdfBase64"), dto.getPdfBase64());
+	}
+}
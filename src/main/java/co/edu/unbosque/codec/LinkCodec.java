@@ -0,0 +1,134 @@
+package co.edu.unbosque.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.function.Predicate;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.LinkDTO;
+
+/**
+ * Adaptador sin reflexión de {@link LinkDTO}.
+ * <p>
+ * La imagen llega dos veces: como arreglo de bytes, que Gson escribe número
+ * por número, y en base64. En modo ligero el arreglo se salta siempre con
+ * {@link JsonReader#skipValue()}, y el base64 se salta salvo en los links que
+ * se piden con su imagen; la vista del listado muestra la miniatura que sirve
+ * {@code /media}, y el link queda marcado con
+ * {@link LinkDTO#isImagenDiferida()}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class LinkCodec extends CodecDTO<LinkDTO> {
+
+	private final boolean ligero;
+
+	/** Decide, con los campos leídos hasta la imagen, si se decodifica. */
+	private final Predicate<LinkDTO> conImagen;
+
+	/**
+	 * @param ligero    {@code true} para saltar el arreglo de bytes de la imagen
+	 * @param conImagen recibe el link con los campos leídos hasta la imagen en
+	 *                  base64 y decide si se decodifica o se difiere
+	 */
+	LinkCodec(boolean ligero, Predicate<LinkDTO> conImagen) {
+		this.ligero = ligero;
+		this.conImagen = conImagen;
+	}
+
+	@Override
+	protected boolean diferir(LinkDTO dto, String campo) {
+		switch (campo) {
+		case "imagen":
+			return ligero;
+		case "imagenBase64":
+			if (conImagen.test(dto)) {
+				return false;
+			}
+			// sin leerla no se sabe si está vacía; /media responde 404 si lo está
+			dto.setImagenDiferida(true);
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected LinkDTO crear() {
+		return new LinkDTO();
+	}
+
+	@Override
+	protected boolean leerCampo(LinkDTO dto, String campo, JsonReader lector) throws IOException {
+		switch (campo) {
+		case "id":
+			dto.setId(lector.nextLong());
+			return true;
+		case "titulo":
+			dto.setTitulo(texto(lector));
+			return true;
+		case "descripcion":
+			dto.setDescripcion(texto(lector));
+			return true;
+		case "enlace":
+			dto.setEnlace(texto(lector));
+			return true;
+		case "imagen":
+			dto.setImagen(bytes(lector));
+			return true;
+		case "imagenBase64":
+			dto.setImagenBase64(texto(lector));
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected void escribirCampos(JsonWriter escritor, LinkDTO dto) throws IOException {
+		escritor.name("id").value(dto.getId());
+		escritor.name("titulo").value(dto.getTitulo());
+		escritor.name("descripcion").value(dto.getDescripcion());
+		escritor.name("enlace").value(dto.getEnlace());
+		escritor.name("imagen");
+		bytes(escritor, dto.getImagen());
+		base64(escritor.name("imagenBase64"), dto.getImagenBase64());
+	}
+
+	/**
+	 * Gson representa los arreglos de bytes como arreglos de números; el formato
+	 * binario, como bytes crudos.
+	 */
+	private static byte[] bytes(JsonReader lector) throws IOException {
+		if (lector instanceof LectorBinario binario) {
+			return binario.nextBytes();
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		lector.beginArray();
+		while (lector.hasNext()) {
+			bytes.write(lector.nextInt());
+		}
+		lector.endArray();
+		return bytes.toByteArray();
+	}
+
+	private static void bytes(JsonWriter escritor, byte[] bytes) throws IOException {
+		if (escritor instanceof EscritorBinario binario) {
+			binario.value(bytes);
+			return;
+		}
+		if (bytes == null) {
+			escritor.nullValue();
+			return;
+		}
+		escritor.beginArray();
+		for (byte b : bytes) {
+			escritor.value(b);
+		}
+		escritor.endArray();
+	}
+}
@@ -0,0 +1,58 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.ProblemaDTO;
+
+/**
+ * Adaptador sin reflexión de {@link ProblemaDTO}.
+ *
+ * @author
+ * @version 1.0
+ */
+final class ProblemaCodec extends CodecDTO<ProblemaDTO> {
+
+	@Override
+	protected ProblemaDTO crear() {
+		return new ProblemaDTO();
+	}
+
+	@Override
+	protected boolean leerCampo(ProblemaDTO dto, String campo, JsonReader lector) throws IOException {
+		switch (campo) {
+		case "id":
+			dto.setId(lector.nextLong());
+			return true;
+		case "titulo":
+			dto.setTitulo(texto(lector));
+			return true;
+		case "dificultad":
+			dto.setDificultad(lector.nextInt());
+			return true;
+		case "tema":
+			dto.setTema(texto(lector));
+			return true;
+		case "juez":
+			dto.setJuez(texto(lector));
+			return true;
+		case "link":
+			dto.setLink(texto(lector));
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected void escribirCampos(JsonWriter escritor, ProblemaDTO dto) throws IOException {
+		escritor.name("id").value(dto.getId());
+		escritor.name("titulo").value(dto.getTitulo());
+		escritor.name("dificultad").value(dto.getDificultad());
+		escritor.name("tema").value(dto.getTema());
+		escritor.name("juez").value(dto.getJuez());
+		escritor.name("link").value(dto.getLink());
+	}
+}
@@ -0,0 +1,54 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.ProfesorDTO;
+
+/**
+ * Adaptador sin reflexión de {@link ProfesorDTO}.
+ *
+ * @author
+ * @version 1.0
+ */
+final class ProfesorCodec extends CodecDTO<ProfesorDTO> {
+
+	@Override
+	protected ProfesorDTO crear() {
+		return new ProfesorDTO();
+	}
+
+	@Override
+	protected boolean leerCampo(ProfesorDTO dto, String campo, JsonReader lector) throws IOException {
+		switch (campo) {
+		case "id":
+			dto.setId(lector.nextLong());
+			return true;
+		case "usuario":
+			dto.setUsuario(texto(lector));
+			return true;
+		case "contrasenia":
+			dto.setContrasenia(texto(lector));
+			return true;
+		case "nivelDePermiso":
+			dto.setNivelDePermiso(texto(lector));
+			return true;
+		case "fechaDeNacimiento":
+			dto.setFechaDeNacimiento(texto(lector));
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected void escribirCampos(JsonWriter escritor, ProfesorDTO dto) throws IOException {
+		escritor.name("id").value(dto.getId());
+		escritor.name("usuario").value(dto.getUsuario());
+		escritor.name("contrasenia").value(dto.getContrasenia());
+		escritor.name("nivelDePermiso").value(dto.getNivelDePermiso());
+		escritor.name("fechaDeNacimiento").value(dto.getFechaDeNacimiento());
+	}
+}
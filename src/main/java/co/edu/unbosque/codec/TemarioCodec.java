@@ -0,0 +1,54 @@
+package co.edu.unbosque.codec;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import co.edu.unbosque.dto.TemarioDTO;
+
+/**
+ * Adaptador sin reflexión de {@link TemarioDTO}.
+ *
+ * @author
+ * @version 1.0
+ */
+final class TemarioCodec extends CodecDTO<TemarioDTO> {
+
+	@Override
+	protected TemarioDTO crear() {
+		return new TemarioDTO();
+	}
+
+	@Override
+	protected boolean leerCampo(TemarioDTO dto, String campo, JsonReader lector) throws IOException {
+		switch (campo) {
+		case "id":
+			dto.setId(lector.nextLong());
+			return true;
+		case "temaAlgoritmo":
+			dto.setTemaAlgoritmo(texto(lector));
+			return true;
+		case "tipo":
+			dto.setTipo(texto(lector));
+			return true;
+		case "contenido":
+			dto.setContenido(texto(lector));
+			return true;
+		case "codigo":
+			dto.setCodigo(texto(lector));
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected void escribirCampos(JsonWriter escritor, TemarioDTO dto) throws IOException {
+		escritor.name("id").value(dto.getId());
+		escritor.name("temaAlgoritmo").value(dto.getTemaAlgoritmo());
+		escritor.name("tipo").value(dto.getTipo());
+		escritor.name("contenido").value(dto.getContenido());
+		escritor.name("codigo").value(dto.getCodigo());
+	}
+}
@@ -1,6 +1,6 @@
 package co.edu.unbosque.dto;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 
 /**
  * Data Transfer Object (DTO) que representa un evento dentro del sistema.
@@ -28,7 +28,7 @@ public class EventoDTO {
     private String tipo;
 
     /** Fecha en la que se realiza el evento. */
-    private Date fecha;
+    private LocalDateTime fecha;
 
     /** Enlace relacionado con el evento (ejemplo: URL de reunión o streaming). */
     private String enlace;
@@ -52,7 +52,7 @@ public class EventoDTO {
      * @param enlace      enlace del evento
      * @param ubicacion   ubicación del evento
      */
-    public EventoDTO(String titulo, String descripcion, String tipo, Date fecha, String enlace, String ubicacion) {
+    public EventoDTO(String titulo, String descripcion, String tipo, LocalDateTime fecha, String enlace, String ubicacion) {
         this.titulo = titulo;
         this.descripcion = descripcion;
         this.tipo = tipo;
@@ -72,7 +72,7 @@ public class EventoDTO {
      * @param enlace      enlace del evento
      * @param ubicacion   ubicación del evento
      */
-    public EventoDTO(Long id, String titulo, String descripcion, String tipo, Date fecha, String enlace,
+    public EventoDTO(Long id, String titulo, String descripcion, String tipo, LocalDateTime fecha, String enlace,
             String ubicacion) {
         this.id = id;
         this.titulo = titulo;
@@ -142,14 +142,14 @@ public class EventoDTO {
     /**
      * @return fecha del evento
      */
-    public Date getFecha() {
+    public LocalDateTime getFecha() {
         return fecha;
     }
 
     /**
      * @param fecha fecha a establecer
      */
-    public void setFecha(Date fecha) {
+    public void setFecha(LocalDateTime fecha) {
         this.fecha = fecha;
     }
 
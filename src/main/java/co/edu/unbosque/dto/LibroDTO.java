@@ -36,6 +36,18 @@ public class LibroDTO {
 	/** Archivo PDF en formato Base64 asociado al libro. */
 	private String pdfBase64;
 
+	/**
+	 * Indica que el backend envió el PDF pero no se decodificó, porque el libro
+	 * se leyó en un listado; se carga bajo demanda.
+	 */
+	private transient boolean pdfDiferido;
+
+	/**
+	 * Indica que el libro tiene portada pero no se decodificó, porque se leyó en
+	 * el resumen del catálogo; la vista la pide por su identificador.
+	 */
+	private transient boolean portadaDiferida;
+
 	/**
 	 * Constructor vacío requerido para serialización/deserialización.
 	 */
@@ -163,6 +175,50 @@ public class LibroDTO {
 		this.pdfBase64 = pdfBase64;
 	}
 
+	/**
+	 * @return {@code true} si el PDF quedó sin decodificar y debe cargarse bajo
+	 *         demanda
+	 */
+	public boolean isPdfDiferido() {
+		return pdfDiferido;
+	}
+
+	/**
+	 * @param pdfDiferido {@code true} si el PDF quedó sin decodificar
+	 */
+	public void setPdfDiferido(boolean pdfDiferido) {
+		this.pdfDiferido = pdfDiferido;
+	}
+
+	/**
+	 * @return {@code true} si el libro tiene PDF, cargado o por cargar
+	 */
+	public boolean isConPdf() {
+		return pdfDiferido || (pdfBase64 != null && !pdfBase64.isEmpty());
+	}
+
+	/**
+	 * @return {@code true} si la portada quedó sin decodificar y debe cargarse
+	 *         bajo demanda
+	 */
+	public boolean isPortadaDiferida() {
+		return portadaDiferida;
+	}
+
+	/**
+	 * @param portadaDiferida {@code true} si la portada quedó sin decodificar
+	 */
+	public void setPortadaDiferida(boolean portadaDiferida) {
+		this.portadaDiferida = portadaDiferida;
+	}
+
+	/**
+	 * @return {@code true} si el libro tiene portada, cargada o por cargar
+	 */
+	public boolean isConPortada() {
+		return portadaDiferida || (imagenBase64 != null && !imagenBase64.isEmpty());
+	}
+
 	/**
 	 * Calcula el código hash del objeto en función de sus atributos.
 	 * 
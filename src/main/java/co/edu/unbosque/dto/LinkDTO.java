@@ -34,6 +34,12 @@ public class LinkDTO {
 	/** Imagen asociada en formato Base64 (útil para transmisión en JSON). */
 	private String imagenBase64;
 
+	/**
+	 * Indica que el link tiene imagen pero no se decodificó, porque se leyó en
+	 * un listado; la vista la pide por su identificador.
+	 */
+	private transient boolean imagenDiferida;
+
 	/**
 	 * Constructor vacío requerido para serialización/deserialización.
 	 */
@@ -139,6 +145,28 @@ public class LinkDTO {
 		this.imagenBase64 = imagenBase64;
 	}
 
+	/**
+	 * @return {@code true} si la imagen quedó sin decodificar y debe cargarse
+	 *         bajo demanda
+	 */
+	public boolean isImagenDiferida() {
+		return imagenDiferida;
+	}
+
+	/**
+	 * @param imagenDiferida {@code true} si la imagen quedó sin decodificar
+	 */
+	public void setImagenDiferida(boolean imagenDiferida) {
+		this.imagenDiferida = imagenDiferida;
+	}
+
+	/**
+	 * @return {@code true} si el link tiene imagen, cargada o por cargar
+	 */
+	public boolean isConImagen() {
+		return imagenDiferida || (imagenBase64 != null && !imagenBase64.isEmpty());
+	}
+
 	/**
 	 * Devuelve una representación en texto del objeto.
 	 * 
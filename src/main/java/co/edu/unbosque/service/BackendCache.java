@@ -0,0 +1,152 @@
+package co.edu.unbosque.service;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Últimos listados decodificados por URL, con los validadores que permiten
+ * revalidarlos contra el backend.
+ * <p>
+ * Si el backend envía {@code ETag} o {@code Last-Modified}, la siguiente
+ * consulta lleva {@code If-None-Match} / {@code If-Modified-Since} y un
+ * {@code 304} reutiliza la lista ya decodificada. Si no envía validadores se
+ * guarda el SHA-256 del cuerpo recibido: un cuerpo idéntico tampoco se vuelve a
+ * decodificar.
+ * </p>
+ *
+ * <p>
+ * Se asume que una URL siempre se decodifica al mismo tipo de elemento. Las
+ * listas se guardan completas, sin filtrar y sin modificar; quien las usa debe
+ * copiarlas antes de aplicar su propio filtro.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendCache {
+
+	/** Máximo de URLs recordadas; se descarta la usada hace más tiempo. */
+	private static final int MAXIMO_ENTRADAS = BackendConfig.getInt("backend.cache.entradas", 64);
+
+	/** Entradas por URL, en orden de acceso. */
+	private static final Map<String, Entrada> ENTRADAS = new LinkedHashMap<String, Entrada>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+			return size() > MAXIMO_ENTRADAS;
+		}
+	};
+
+	private BackendCache() {
+	}
+
+	/**
+	 * Listado decodificado junto con los datos para revalidarlo. Es inmutable.
+	 */
+	static final class Entrada {
+
+		private final String etag;
+		private final String ultimaModificacion;
+		private final byte[] hash;
+		private final List<?> elementos;
+
+		private Entrada(String etag, String ultimaModificacion, byte[] hash, List<?> elementos) {
+			this.etag = etag;
+			this.ultimaModificacion = ultimaModificacion;
+			this.hash = hash;
+			this.elementos = elementos;
+		}
+
+		/**
+		 * Agrega a la petición las cabeceras condicionales de esta entrada.
+		 *
+		 * @param solicitud petición a condicionar
+		 */
+		void condicionar(HttpRequest.Builder solicitud) {
+			if (etag != null) {
+				solicitud.header("If-None-Match", etag);
+			}
+			if (ultimaModificacion != null) {
+				solicitud.header("If-Modified-Since", ultimaModificacion);
+			}
+		}
+
+		/**
+		 * @param otroHash SHA-256 de un cuerpo recibido
+		 * @return {@code true} si coincide con el del cuerpo de esta entrada
+		 */
+		boolean mismoCuerpo(byte[] otroHash) {
+			return hash != null && MessageDigest.isEqual(hash, otroHash);
+		}
+
+		/**
+		 * @return elementos decodificados, sin filtrar; la lista no se modifica
+		 */
+		List<?> getElementos() {
+			return elementos;
+		}
+	}
+
+	/**
+	 * @param url URL del listado
+	 * @return entrada guardada, o {@code null} si no hay ninguna
+	 */
+	static Entrada obtener(String url) {
+		synchronized (ENTRADAS) {
+			return ENTRADAS.get(url);
+		}
+	}
+
+	/**
+	 * Guarda el listado recién decodificado de una URL. Si la respuesta no trae
+	 * validadores ni se pudo calcular el hash, la entrada anterior se descarta
+	 * porque no habría forma de revalidarla.
+	 *
+	 * @param url       URL del listado
+	 * @param cabeceras cabeceras de la respuesta
+	 * @param hash      SHA-256 del cuerpo, o {@code null}
+	 * @param elementos elementos decodificados, sin filtrar; no deben
+	 *                  modificarse después
+	 */
+	static void guardar(String url, HttpHeaders cabeceras, byte[] hash, List<?> elementos) {
+		String etag = cabeceras.firstValue("ETag").orElse(null);
+		String ultimaModificacion = cabeceras.firstValue("Last-Modified").orElse(null);
+		Entrada entrada = etag != null || ultimaModificacion != null || hash != null
+				? new Entrada(etag, ultimaModificacion, hash, elementos)
+				: null;
+		synchronized (ENTRADAS) {
+			if (entrada == null) {
+				ENTRADAS.remove(url);
+			} else {
+				ENTRADAS.put(url, entrada);
+			}
+		}
+	}
+
+	/**
+	 * @param cabeceras cabeceras de una respuesta
+	 * @return {@code true} si traen {@code ETag} o {@code Last-Modified}
+	 */
+	static boolean tieneValidadores(HttpHeaders cabeceras) {
+		return cabeceras.firstValue("ETag").isPresent() || cabeceras.firstValue("Last-Modified").isPresent();
+	}
+
+	/**
+	 * @param datos bytes a resumir
+	 * @return SHA-256 de los bytes
+	 */
+	static byte[] hash(byte[] datos) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(datos);
+		} catch (NoSuchAlgorithmException e) {
+			// todo JDK incluye SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
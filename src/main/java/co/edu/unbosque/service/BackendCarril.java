@@ -0,0 +1,155 @@
+package co.edu.unbosque.service;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Carril por el que viajan las peticiones de una {@link BackendPrioridad}.
+ * <p>
+ * Cada carril tiene su propio ejecutor y admite como máximo
+ * {@code backend.prioridad.<prioridad>.concurrencia} peticiones en curso (0 =
+ * sin límite propio). Las que exceden el máximo esperan en orden de llegada,
+ * sin ocupar ningún hilo, hasta que termine una de las que están en curso; no
+ * se rechazan, porque el trabajo de fondo puede esperar.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendCarril {
+
+	/** Carril de cada prioridad. */
+	private static final Map<BackendPrioridad, BackendCarril> CARRILES = crearCarriles();
+
+	private final int limite;
+	private final ExecutorService ejecutor;
+
+	private final ReentrantLock cerrojo = new ReentrantLock();
+	private final ArrayDeque<Runnable> cola = new ArrayDeque<>();
+	private int enCurso;
+
+	private BackendCarril(BackendPrioridad prioridad) {
+		this.limite = Math.max(0,
+				BackendConfig.getInt("backend.prioridad." + prioridad.getClave() + ".concurrencia", 0));
+		this.ejecutor = prioridad == BackendPrioridad.INTERACTIVA ? BackendExecutors.io()
+				: BackendExecutors.nuevo("backend-" + prioridad.getClave());
+	}
+
+	private static Map<BackendPrioridad, BackendCarril> crearCarriles() {
+		Map<BackendPrioridad, BackendCarril> carriles = new EnumMap<>(BackendPrioridad.class);
+		for (BackendPrioridad prioridad : BackendPrioridad.values()) {
+			carriles.put(prioridad, new BackendCarril(prioridad));
+		}
+		return carriles;
+	}
+
+	/**
+	 * @param prioridad prioridad de la petición
+	 * @return carril de la prioridad
+	 */
+	static BackendCarril de(BackendPrioridad prioridad) {
+		return CARRILES.get(prioridad);
+	}
+
+	/**
+	 * @return ejecutor de la E/S y las continuaciones del carril
+	 */
+	ExecutorService getEjecutor() {
+		return ejecutor;
+	}
+
+	/**
+	 * Lanza una petición en cuanto el carril tenga lugar.
+	 *
+	 * @param <T>   tipo del resultado
+	 * @param tarea lanza la petición y devuelve su futuro
+	 * @return futuro con el resultado de la petición
+	 */
+	<T> CompletableFuture<T> encolar(Supplier<CompletableFuture<T>> tarea) {
+		CompletableFuture<T> resultado = new CompletableFuture<>();
+		Runnable inicio = () -> lanzar(tarea, resultado);
+
+		boolean ahora;
+		cerrojo.lock();
+		try {
+			ahora = limite == 0 || enCurso < limite;
+			if (ahora) {
+				enCurso++;
+			} else {
+				cola.add(inicio);
+			}
+		} finally {
+			cerrojo.unlock();
+		}
+		if (ahora) {
+			inicio.run();
+		}
+		return resultado;
+	}
+
+	private <T> void lanzar(Supplier<CompletableFuture<T>> tarea, CompletableFuture<T> resultado) {
+		CompletableFuture<T> futuro;
+		try {
+			futuro = tarea.get();
+		} catch (RuntimeException e) {
+			futuro = CompletableFuture.failedFuture(e);
+		}
+		futuro.whenComplete((valor, error) -> {
+			terminar();
+			if (error != null) {
+				resultado.completeExceptionally(error);
+			} else {
+				resultado.complete(valor);
+			}
+		});
+	}
+
+	/**
+	 * Libera el lugar de una petición terminada o se lo cede a la primera que
+	 * espera.
+	 */
+	private void terminar() {
+		Runnable siguiente;
+		cerrojo.lock();
+		try {
+			siguiente = cola.poll();
+			if (siguiente == null) {
+				enCurso--;
+			}
+		} finally {
+			cerrojo.unlock();
+		}
+		if (siguiente != null) {
+			ejecutor.execute(siguiente);
+		}
+	}
+
+	/**
+	 * @return peticiones del carril en curso
+	 */
+	int getEnCurso() {
+		cerrojo.lock();
+		try {
+			return enCurso;
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * @return peticiones del carril esperando lugar
+	 */
+	int getEnCola() {
+		cerrojo.lock();
+		try {
+			return cola.size();
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package co.edu.unbosque.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Cortocircuito (<i>circuit breaker</i>) y límite de concurrencia
+ * (<i>bulkhead</i>) de un recurso del backend.
+ * <p>
+ * Cada {@link BackendResource} tiene el suyo, de modo que un recurso caído o
+ * lento falla de inmediato sin ocupar los hilos que necesitan los demás:
+ * </p>
+ * <ul>
+ * <li><b>Cerrado</b>: las peticiones pasan. Tras
+ * {@code backend.circuito.fallos} fallos seguidos (sin respuesta o 5xx) el
+ * circuito se abre.</li>
+ * <li><b>Abierto</b>: las peticiones se rechazan sin tocar la red durante
+ * {@code backend.circuito.espera} milisegundos.</li>
+ * <li><b>Semiabierto</b>: pasado ese tiempo se deja pasar una sola petición de
+ * prueba; si responde bien el circuito se cierra y si falla se abre de
+ * nuevo.</li>
+ * </ul>
+ * <p>
+ * Además, las peticiones en curso del recurso no pasan de un
+ * {@link LimiteAdaptativo}, que empieza en {@code backend.concurrencia} y se
+ * mueve entre {@code backend.concurrencia.minima} y
+ * {@code backend.concurrencia.maxima} según la latencia del backend
+ * ({@code backend.concurrencia.adaptativa=false} lo deja fijo). Las que
+ * exceden el límite esperan hasta {@code backend.concurrencia.espera}
+ * milisegundos y, si no se libera un lugar, se rechazan. Todas las claves
+ * admiten un valor por recurso, por ejemplo {@code backend.libro.concurrencia}.
+ * </p>
+ *
+ * <p>
+ * El límite es solo del carril {@link BackendPrioridad#INTERACTIVA}. Una subida
+ * de fondo ocupa su lugar durante todo el envío, y unas pocas subidas de PDF
+ * dejarían sin lugar a las consultas de las páginas. Las peticiones de
+ * {@link BackendPrioridad#FONDO} pasan por el estado del circuito pero no por
+ * este límite: las acota su propio {@link BackendCarril}, que las hace esperar
+ * en orden.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendCircuito {
+
+	/** Estados del circuito. */
+	enum Estado {
+		/** Las peticiones pasan. */
+		CERRADO,
+		/** Las peticiones se rechazan. */
+		ABIERTO,
+		/** Una petición de prueba está en curso. */
+		SEMIABIERTO
+	}
+
+	/** Circuito de cada recurso. */
+	private static final Map<BackendResource, BackendCircuito> CIRCUITOS = crearCircuitos();
+
+	private final BackendResource recurso;
+	private final int umbralFallos;
+	private final long esperaMillis;
+	private final LimiteAdaptativo limite;
+
+	private Estado estado = Estado.CERRADO;
+	private int fallosSeguidos;
+	private long abiertoHasta;
+
+	private BackendCircuito(BackendResource recurso) {
+		this(recurso, leerInt(recurso, "circuito.fallos", 5), leerLong(recurso, "circuito.espera", 30000),
+				new LimiteAdaptativo(leerInt(recurso, "concurrencia", 32),
+						leerInt(recurso, "concurrencia.minima", 2), leerInt(recurso, "concurrencia.maxima", 128),
+						BackendConfig.getBoolean("backend." + recurso.getClave() + ".concurrencia.adaptativa",
+								BackendConfig.getBoolean("backend.concurrencia.adaptativa", true)),
+						leerLong(recurso, "concurrencia.espera", 20)));
+	}
+
+	/**
+	 * Crea un circuito con valores dados en lugar de los configurados.
+	 *
+	 * @param recurso      recurso del backend
+	 * @param umbralFallos fallos seguidos que abren el circuito
+	 * @param esperaMillis milisegundos que el circuito queda abierto
+	 * @param limite       límite de peticiones interactivas en curso
+	 */
+	BackendCircuito(BackendResource recurso, int umbralFallos, long esperaMillis, LimiteAdaptativo limite) {
+		this.recurso = recurso;
+		this.umbralFallos = Math.max(1, umbralFallos);
+		this.esperaMillis = esperaMillis;
+		this.limite = limite;
+	}
+
+	private static Map<BackendResource, BackendCircuito> crearCircuitos() {
+		Map<BackendResource, BackendCircuito> circuitos = new EnumMap<>(BackendResource.class);
+		for (BackendResource recurso : BackendResource.values()) {
+			circuitos.put(recurso, new BackendCircuito(recurso));
+		}
+		return circuitos;
+	}
+
+	/**
+	 * @param recurso recurso del backend
+	 * @return circuito del recurso
+	 */
+	static BackendCircuito de(BackendResource recurso) {
+		return CIRCUITOS.get(recurso);
+	}
+
+	/**
+	 * Pide permiso para enviar una petición. Si se concede, quien llama debe
+	 * invocar {@link #salir(BackendPrioridad, boolean, long)} o
+	 * {@link #liberar(BackendPrioridad)} exactamente una vez al terminar, con la
+	 * misma prioridad.
+	 *
+	 * @param prioridad carril de la petición
+	 * @throws BackendException si el circuito está abierto o el recurso ya tiene
+	 *                          el máximo de peticiones interactivas en curso
+	 */
+	void entrar(BackendPrioridad prioridad) throws BackendException {
+		boolean limitada = prioridad == BackendPrioridad.INTERACTIVA;
+		if (limitada && !limite.adquirir()) {
+			throw new BackendException(BackendResponse.SIN_RESPUESTA,
+					"El servicio de " + recurso.getClave() + " está saturado, intente de nuevo");
+		}
+		if (!admitir()) {
+			if (limitada) {
+				limite.liberar(-1, false);
+			}
+			throw new BackendException(BackendResponse.SIN_RESPUESTA,
+					"El servicio de " + recurso.getClave() + " no está disponible temporalmente");
+		}
+	}
+
+	/**
+	 * Registra el resultado de una petición admitida y libera su lugar.
+	 *
+	 * @param prioridad carril con que se admitió la petición
+	 * @param exito     {@code false} si no hubo respuesta o el backend respondió
+	 *                  5xx
+	 * @param nanos     tiempo hasta la respuesta o el fallo, que ajusta el límite
+	 *                  de concurrencia; -1 para no ajustarlo
+	 */
+	void salir(BackendPrioridad prioridad, boolean exito, long nanos) {
+		try {
+			registrar(exito);
+		} finally {
+			if (prioridad == BackendPrioridad.INTERACTIVA) {
+				limite.liberar(nanos, !exito);
+			}
+		}
+	}
+
+	/**
+	 * Libera el lugar de una petición admitida sin contar su resultado. Se usa
+	 * cuando la petición se cortó por un plazo más corto que el tiempo de espera
+	 * del recurso: que no alcanzara a responder no prueba que el backend falle.
+	 *
+	 * @param prioridad carril con que se admitió la petición
+	 */
+	void liberar(BackendPrioridad prioridad) {
+		try {
+			synchronized (this) {
+				if (estado == Estado.SEMIABIERTO) {
+					// la prueba no concluyó; la siguiente petición vuelve a probar
+					estado = Estado.ABIERTO;
+					abiertoHasta = 0;
+				}
+			}
+		} finally {
+			if (prioridad == BackendPrioridad.INTERACTIVA) {
+				limite.liberar(-1, false);
+			}
+		}
+	}
+
+	/**
+	 * @param status estado HTTP recibido, o {@link BackendResponse#SIN_RESPUESTA}
+	 * @return {@code true} si el estado indica que el backend funciona
+	 */
+	static boolean esExito(int status) {
+		return status != BackendResponse.SIN_RESPUESTA && status < 500;
+	}
+
+	/**
+	 * @return estado actual del circuito
+	 */
+	synchronized Estado getEstado() {
+		return estado;
+	}
+
+	/**
+	 * @return peticiones interactivas del recurso en curso
+	 */
+	int getEnCurso() {
+		return limite.getEnCurso();
+	}
+
+	/**
+	 * @return límite actual de peticiones en curso
+	 */
+	int getLimite() {
+		return limite.getLimite();
+	}
+
+	/**
+	 * @return peticiones rechazadas por no encontrar lugar bajo el límite
+	 */
+	long getDescartadas() {
+		return limite.getDescartadas();
+	}
+
+	private synchronized boolean admitir() {
+		switch (estado) {
+		case CERRADO:
+			return true;
+		case ABIERTO:
+			if (System.currentTimeMillis() < abiertoHasta) {
+				return false;
+			}
+			estado = Estado.SEMIABIERTO;
+			return true;
+		default:
+			// ya hay una petición de prueba en curso
+			return false;
+		}
+	}
+
+	private synchronized void registrar(boolean exito) {
+		if (exito) {
+			fallosSeguidos = 0;
+			estado = Estado.CERRADO;
+			return;
+		}
+		fallosSeguidos++;
+		if (estado == Estado.SEMIABIERTO || fallosSeguidos >= umbralFallos) {
+			if (estado != Estado.ABIERTO) {
+				BackendLog.aviso("Circuito de " + recurso.getClave() + " abierto tras " + fallosSeguidos + " fallos");
+			}
+			estado = Estado.ABIERTO;
+			abiertoHasta = System.currentTimeMillis() + esperaMillis;
+		}
+	}
+
+	private static int leerInt(BackendResource recurso, String sufijo, int valorDefecto) {
+		return BackendConfig.getInt("backend." + recurso.getClave() + "." + sufijo,
+				BackendConfig.getInt("backend." + sufijo, valorDefecto));
+	}
+
+	private static long leerLong(BackendResource recurso, String sufijo, long valorDefecto) {
+		return BackendConfig.getLong("backend." + recurso.getClave() + "." + sufijo,
+				BackendConfig.getLong("backend." + sufijo, valorDefecto));
+	}
+}
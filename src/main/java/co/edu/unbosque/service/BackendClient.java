@@ -0,0 +1,1270 @@
+package co.edu.unbosque.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import co.edu.unbosque.codec.Binario;
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.codec.FuenteFlujo;
+
+/**
+ * Cliente HTTP compartido por todos los servicios que consumen el backend.
+ * <p>
+ * Antes cada servicio abría una {@link java.net.HttpURLConnection} nueva por
+ * petición o construía su propio {@link HttpClient}. Esta clase concentra un
+ * único {@link HttpClient} para toda la aplicación, de modo que las conexiones
+ * TCP se mantienen vivas (keep-alive) y se reutilizan entre peticiones y entre
+ * usuarios concurrentes.
+ * </p>
+ *
+ * <p>
+ * Los métodos reciben la ruta del recurso, por ejemplo {@code /libro/getall},
+ * y {@link BackendEndpoints} elige el nodo del backend que la atiende. También
+ * aceptan una URL completa, que se usa tal cual y sin balanceo.
+ * </p>
+ *
+ * <p>
+ * Los tiempos de espera se configuran por recurso mediante
+ * {@link BackendResource}; el tiempo de conexión y el tamaño del pool se leen
+ * de {@code backend.properties}:
+ * </p>
+ * <ul>
+ * <li>{@code backend.timeout.conexion}: milisegundos para abrir la conexión
+ * (10000 por defecto).</li>
+ * <li>{@code backend.pool.keepalive}: segundos que una conexión ociosa
+ * permanece en el pool (60 por defecto).</li>
+ * <li>{@code backend.pool.tamanio}: máximo de conexiones ociosas por destino
+ * (0 = sin límite).</li>
+ * </ul>
+ *
+ * <p>
+ * El {@link HttpClient} entrega las respuestas en el ejecutor de
+ * {@link BackendExecutors}, por lo que las continuaciones de los métodos
+ * asíncronos corren en hilos virtuales cuando ese es el modo configurado.
+ * </p>
+ *
+ * <p>
+ * Las respuestas se piden comprimidas y se descomprimen con
+ * {@link BackendCompresion}; los bytes por endpoint, antes y después de
+ * descomprimir, junto con la latencia y el resultado de cada llamada, quedan en
+ * {@link BackendMetrics}.
+ * </p>
+ *
+ * <p>
+ * Las consultas GET se reintentan ante fallos pasajeros y pueden cubrirse con
+ * una segunda petición si tardan más de lo habitual, siempre dentro del plazo
+ * del recurso (ver {@link BackendReintentos}). Los POST y DELETE se envían una
+ * sola vez.
+ * </p>
+ *
+ * <p>
+ * Los envíos de fondo, como la subida del PDF de un libro, viajan por un
+ * carril aparte con su propio {@link HttpClient} y su propio máximo de
+ * peticiones en curso (ver {@link BackendPrioridad}), de modo que las consultas
+ * de las páginas nunca esperan detrás de ellos.
+ * </p>
+ *
+ * <p>
+ * Los listados y los envíos de DTO pueden viajar en el formato binario de
+ * {@link Binario} en lugar de JSON (ver {@link BackendFormato}).
+ * </p>
+ *
+ * <p>
+ * Si la página que se está construyendo tiene un plazo total (ver
+ * {@link BackendPlazo}), ninguna consulta GET espera más allá de él.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendClient {
+
+	/**
+	 * Ejecutor de las continuaciones asíncronas y de las lecturas en flujo que se
+	 * lanzan en segundo plano; usa hilos virtuales o de plataforma según
+	 * {@link BackendExecutors#getModo()}.
+	 */
+	private static final ExecutorService EJECUTOR = BackendExecutors.io();
+
+	/**
+	 * Tamaño máximo, en bytes tal como llegan por la red, de un listado sin
+	 * validadores que se resume con SHA-256 antes de decodificarlo. Los más
+	 * grandes se decodifican en flujo sin guardarse en {@link BackendCache}.
+	 */
+	private static final int LIMITE_HASH = BackendConfig.getInt("backend.cache.hash.limite", 4 * 1024 * 1024);
+
+	/** Listados en curso, compartidos entre llamadas simultáneas a la misma URL. */
+	private static final BackendEnCurso<List<?>> LISTAS = new BackendEnCurso<>();
+
+	/** Respuestas GET en curso, compartidas entre llamadas simultáneas. */
+	private static final BackendEnCurso<BackendResponse> RESPUESTAS = new BackendEnCurso<>();
+
+	/** Cliente HTTP de cada prioridad, con sus propias conexiones. */
+	private static final Map<BackendPrioridad, HttpClient> CLIENTES = crearClientes();
+
+	private BackendClient() {
+	}
+
+	/**
+	 * Construye un cliente por prioridad, cada uno con el ejecutor de su
+	 * {@link BackendCarril}. Se usa HTTP/1.1 para que cada conexión quede en el
+	 * pool keep-alive del {@link HttpClient} sin pasar por el intento de
+	 * actualización a HTTP/2 sobre texto plano en cada conexión nueva.
+	 *
+	 * @return clientes HTTP configurados
+	 */
+	private static Map<BackendPrioridad, HttpClient> crearClientes() {
+		// El pool del HttpClient del JDK se configura con propiedades del sistema
+		// que se leen una sola vez, al crear el primer cliente.
+		if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+			System.setProperty("jdk.httpclient.keepalive.timeout",
+					String.valueOf(BackendConfig.getLong("backend.pool.keepalive", 60)));
+		}
+		if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+			System.setProperty("jdk.httpclient.connectionPoolSize",
+					String.valueOf(BackendConfig.getInt("backend.pool.tamanio", 0)));
+		}
+
+		Duration conexion = Duration.ofMillis(BackendConfig.getLong("backend.timeout.conexion", 10000));
+		Map<BackendPrioridad, HttpClient> clientes = new EnumMap<>(BackendPrioridad.class);
+		for (BackendPrioridad prioridad : BackendPrioridad.values()) {
+			clientes.put(prioridad, HttpClient.newBuilder().version(Version.HTTP_1_1)
+					.executor(BackendCarril.de(prioridad).getEjecutor()).connectTimeout(conexion).build());
+		}
+		return clientes;
+	}
+
+	/**
+	 * Realiza una petición GET.
+	 *
+	 * @param recurso recurso del backend al que pertenece la URL
+	 * @param url     ruta o URL completa a consultar
+	 * @return respuesta del backend
+	 */
+	public static BackendResponse get(BackendResource recurso, String url) {
+		return esperar(getAsync(recurso, url));
+	}
+
+	/**
+	 * Realiza una petición POST con cuerpo JSON.
+	 *
+	 * @param recurso recurso del backend al que pertenece la URL
+	 * @param url     ruta o URL completa de destino
+	 * @param json    contenido JSON a enviar
+	 * @return respuesta del backend
+	 */
+	public static BackendResponse post(BackendResource recurso, String url, String json) {
+		return esperar(postAsync(recurso, url, json));
+	}
+
+	/**
+	 * Realiza una petición POST con cuerpo JSON y prioridad explícita.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param json      contenido JSON a enviar
+	 * @param prioridad carril por el que viaja la petición
+	 * @return respuesta del backend
+	 */
+	public static BackendResponse post(BackendResource recurso, String url, String json,
+			BackendPrioridad prioridad) {
+		return esperar(postAsync(recurso, url, json, prioridad));
+	}
+
+	/**
+	 * Realiza una petición POST con un DTO como cuerpo; ver
+	 * {@link #postAsync(BackendResource, String, Object, TypeAdapter, BackendPrioridad)}.
+	 *
+	 * @param <T>       tipo del DTO
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param cuerpo    DTO a enviar
+	 * @param adaptador adaptador que codifica el DTO
+	 * @param prioridad carril por el que viaja la petición, o {@code null} para
+	 *                  elegirlo según el tamaño del cuerpo
+	 * @return respuesta del backend
+	 */
+	public static <T> BackendResponse post(BackendResource recurso, String url, T cuerpo, TypeAdapter<T> adaptador,
+			BackendPrioridad prioridad) {
+		return esperar(postAsync(recurso, url, cuerpo, adaptador, prioridad));
+	}
+
+	/**
+	 * Realiza una petición POST con un cuerpo que se lee como flujo; ver
+	 * {@link #postFlujoAsync(BackendResource, String, FuenteFlujo, String, BackendPrioridad)}.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param cuerpo    fuente del cuerpo
+	 * @param tipo      tipo de contenido del cuerpo
+	 * @param prioridad carril por el que viaja la petición
+	 * @return respuesta del backend
+	 */
+	public static BackendResponse postFlujo(BackendResource recurso, String url, FuenteFlujo cuerpo, String tipo,
+			BackendPrioridad prioridad) {
+		return esperar(postFlujoAsync(recurso, url, cuerpo, tipo, prioridad));
+	}
+
+	/**
+	 * Realiza una petición DELETE.
+	 *
+	 * @param recurso recurso del backend al que pertenece la URL
+	 * @param url     ruta o URL completa del recurso a eliminar
+	 * @return respuesta del backend
+	 */
+	public static BackendResponse delete(BackendResource recurso, String url) {
+		return esperar(deleteAsync(recurso, url));
+	}
+
+	/**
+	 * Realiza una petición GET sin bloquear el hilo que llama.
+	 *
+	 * @param recurso recurso del backend al que pertenece la URL
+	 * @param url     ruta o URL completa a consultar
+	 * @return futuro con la respuesta; nunca termina con excepción, los fallos de
+	 *         transporte se entregan como {@link BackendResponse#SIN_RESPUESTA}.
+	 *         Los GET simultáneos a la misma URL comparten la respuesta; los
+	 *         fallos pasajeros se reintentan según {@link BackendReintentos}
+	 */
+	public static CompletableFuture<BackendResponse> getAsync(BackendResource recurso, String url) {
+		long limite = BackendPlazo.limite(recurso);
+		// quien se suma a una consulta ajena tampoco espera más que su propio plazo
+		return RESPUESTAS.compartir(url, () -> consultarAsync(recurso, url, limite))
+				.exceptionally(error -> BackendResponse.sinRespuesta(describirFallo(recurso, error)))
+				.completeOnTimeout(sinTiempo(recurso), Math.max(0, BackendPlazo.restante(limite)), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Realiza una petición POST con cuerpo JSON sin bloquear el hilo que llama.
+	 * Los cuerpos grandes van por el carril de fondo (ver
+	 * {@link BackendPrioridad#segunTamanio(long)}).
+	 *
+	 * @param recurso recurso del backend al que pertenece la URL
+	 * @param url     ruta o URL completa de destino
+	 * @param json    contenido JSON a enviar
+	 * @return futuro con la respuesta; nunca termina con excepción
+	 */
+	public static CompletableFuture<BackendResponse> postAsync(BackendResource recurso, String url, String json) {
+		return postAsync(recurso, url, json, null);
+	}
+
+	/**
+	 * Realiza una petición POST con cuerpo JSON y prioridad explícita sin
+	 * bloquear el hilo que llama.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param json      contenido JSON a enviar
+	 * @param prioridad carril por el que viaja la petición, o {@code null} para
+	 *                  elegirlo según el tamaño del cuerpo
+	 * @return futuro con la respuesta; nunca termina con excepción
+	 */
+	public static CompletableFuture<BackendResponse> postAsync(BackendResource recurso, String url, String json,
+			BackendPrioridad prioridad) {
+		return enviarCuerpoAsync(recurso, url, json.getBytes(StandardCharsets.UTF_8), "application/json", prioridad);
+	}
+
+	/**
+	 * Realiza una petición POST con un DTO como cuerpo, sin bloquear el hilo que
+	 * llama. El DTO se envía en el formato binario de
+	 * {@link co.edu.unbosque.codec.Binario} si está activado para el recurso (ver
+	 * {@link BackendFormato}) y, si no, o si el backend lo rechaza, en JSON.
+	 *
+	 * @param <T>       tipo del DTO
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param cuerpo    DTO a enviar
+	 * @param adaptador adaptador que codifica el DTO
+	 * @param prioridad carril por el que viaja la petición, o {@code null} para
+	 *                  elegirlo según el tamaño del cuerpo
+	 * @return futuro con la respuesta; nunca termina con excepción
+	 */
+	public static <T> CompletableFuture<BackendResponse> postAsync(BackendResource recurso, String url, T cuerpo,
+			TypeAdapter<T> adaptador, BackendPrioridad prioridad) {
+		if (!BackendFormato.enviarBinario(recurso)) {
+			return postAsync(recurso, url, Codecs.json(adaptador, cuerpo), prioridad);
+		}
+		return enviarCuerpoAsync(recurso, url, Binario.codificar(adaptador, cuerpo), Binario.TIPO, prioridad)
+				.thenCompose(respuesta -> {
+					if (respuesta.getStatus() != 415) {
+						return CompletableFuture.completedFuture(respuesta);
+					}
+					BackendFormato.rechazado(recurso);
+					return postAsync(recurso, url, Codecs.json(adaptador, cuerpo), prioridad);
+				});
+	}
+
+	/**
+	 * Realiza una petición POST con un cuerpo que se lee como flujo, sin bloquear
+	 * el hilo que llama. El cliente HTTP lee el cuerpo a medida que lo envía, sin
+	 * longitud conocida, así que viaja con {@code Transfer-Encoding: chunked} y en
+	 * memoria solo hay un bloque a la vez. No se comprime ni se pasa a
+	 * {@link co.edu.unbosque.codec.Binario}: ambos necesitan el cuerpo completo.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param cuerpo    fuente del cuerpo; se abre al enviar la petición
+	 * @param tipo      tipo de contenido del cuerpo
+	 * @param prioridad carril por el que viaja la petición
+	 * @return futuro con la respuesta; nunca termina con excepción, y si la
+	 *         fuente no se puede leer la respuesta es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
+	 */
+	public static CompletableFuture<BackendResponse> postFlujoAsync(BackendResource recurso, String url,
+			FuenteFlujo cuerpo, String tipo, BackendPrioridad prioridad) {
+		AtomicReference<FlujoContado> enviado = new AtomicReference<>();
+		HttpRequest.BodyPublisher publicador = HttpRequest.BodyPublishers.ofInputStream(() -> {
+			try {
+				FlujoContado flujo = new FlujoContado(cuerpo.abrir());
+				enviado.set(flujo);
+				return flujo;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		HttpRequest.Builder solicitud = solicitud(recurso.getTimeoutEnvio()).header("Content-Type", tipo);
+		return enviarAsync(recurso, url, solicitud.POST(publicador), prioridad).whenComplete((respuesta, error) -> {
+			FlujoContado flujo = enviado.get();
+			if (flujo != null) {
+				BackendMetrics.registrarEnvio(BackendMetrics.endpoint(url), flujo.getLeidos(), flujo.getLeidos());
+			}
+		});
+	}
+
+	/**
+	 * Envía un cuerpo ya codificado, comprimiéndolo si corresponde.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa de destino
+	 * @param cuerpo    bytes del cuerpo
+	 * @param tipo      tipo de contenido del cuerpo
+	 * @param prioridad carril por el que viaja la petición, o {@code null} para
+	 *                  elegirlo según el tamaño del cuerpo
+	 * @return futuro con la respuesta; nunca termina con excepción
+	 */
+	private static CompletableFuture<BackendResponse> enviarCuerpoAsync(BackendResource recurso, String url,
+			byte[] cuerpo, String tipo, BackendPrioridad prioridad) {
+		HttpRequest.Builder solicitud = solicitud(recurso.getTimeoutEnvio()).header("Content-Type", tipo);
+		if (prioridad == null) {
+			prioridad = BackendPrioridad.segunTamanio(cuerpo.length);
+		}
+		byte[] enviado = cuerpo;
+		if (BackendCompresion.comprimirEnvio(cuerpo.length)) {
+			enviado = BackendCompresion.comprimir(cuerpo);
+			solicitud.header("Content-Encoding", "gzip");
+		}
+		BackendMetrics.registrarEnvio(BackendMetrics.endpoint(url), enviado.length, cuerpo.length);
+		return enviarAsync(recurso, url, solicitud.POST(HttpRequest.BodyPublishers.ofByteArray(enviado)), prioridad);
+	}
+
+	/**
+	 * Realiza una petición DELETE sin bloquear el hilo que llama.
+	 *
+	 * @param recurso recurso del backend al que pertenece la URL
+	 * @param url     ruta o URL completa del recurso a eliminar
+	 * @return futuro con la respuesta; nunca termina con excepción
+	 */
+	public static CompletableFuture<BackendResponse> deleteAsync(BackendResource recurso, String url) {
+		return enviarAsync(recurso, url, solicitud(recurso.getTimeoutConsulta()).DELETE(),
+				BackendPrioridad.INTERACTIVA);
+	}
+
+	/**
+	 * Versión asíncrona de {@link #getList}. La lectura en flujo se ejecuta en el
+	 * ejecutor del backend, de modo que el hilo que llama puede lanzar otras
+	 * peticiones mientras tanto.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa a consultar
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return futuro con los elementos; termina con {@link BackendException} si la
+	 *         consulta falla
+	 */
+	public static <T> CompletableFuture<List<T>> getListAsync(BackendResource recurso, String url,
+			TypeAdapter<T> adaptador, Predicate<? super T> filtro) {
+		// el plazo de la página se lee aquí: el hilo del ejecutor no lo conoce
+		long limite = BackendPlazo.limite(recurso);
+		boolean pagina = BackendPlazo.activo();
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return listar(recurso, url, adaptador, filtro, limite, pagina);
+			} catch (BackendException e) {
+				throw new CompletionException(e);
+			}
+		}, EJECUTOR);
+	}
+
+	/**
+	 * Realiza una petición GET cuyo cuerpo es un arreglo JSON y lo decodifica
+	 * elemento por elemento directamente desde el socket.
+	 * <p>
+	 * El cuerpo nunca se copia completo en memoria: el {@link JsonReader} lee del
+	 * {@link InputStream} de la respuesta, de modo que el pico de memoria lo marca
+	 * la lista decodificada y no el JSON del catálogo completo.
+	 * </p>
+	 *
+	 * <p>
+	 * La consulta es condicional: si {@link BackendCache} tiene la lista anterior
+	 * de la URL, se envían sus validadores y un {@code 304} la reutiliza. Si el
+	 * backend no envía validadores, los cuerpos de hasta
+	 * {@code backend.cache.hash.limite} bytes se resumen con SHA-256 antes de
+	 * decodificarlos y un cuerpo idéntico al anterior tampoco se decodifica.
+	 * </p>
+	 *
+	 * <p>
+	 * Las llamadas simultáneas con la misma URL comparten una sola petición y su
+	 * lista decodificada (ver {@link BackendEnCurso}); cada una recibe su propia
+	 * copia filtrada.
+	 * </p>
+	 *
+	 * <p>
+	 * Si la página tiene un plazo (ver {@link BackendPlazo}) y se agota antes de
+	 * recibir el listado, se devuelve la última copia de {@link BackendCache}, si
+	 * la hay, en lugar de fallar.
+	 * </p>
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa a consultar
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return elementos decodificados, en el orden del backend, en una lista nueva
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> List<T> getList(BackendResource recurso, String url, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro) throws BackendException {
+		return listar(recurso, url, adaptador, filtro, BackendPlazo.limite(recurso), BackendPlazo.activo());
+	}
+
+	/**
+	 * Busca un elemento de un listado leyendo el arreglo JSON en flujo y
+	 * deteniéndose en el primero que cumple el filtro.
+	 * <p>
+	 * Sirve para cargar bajo demanda un elemento completo cuando el listado se
+	 * decodificó sin sus campos pesados: la consulta no pasa por
+	 * {@link BackendCache} ni se comparte con otras, y en memoria sólo queda el
+	 * elemento que se está decodificando. Para que los demás elementos no se
+	 * materialicen, el adaptador debe omitir sus campos pesados. También acepta
+	 * la respuesta de una consulta por identificador, cuyo cuerpo es un solo
+	 * objeto.
+	 * </p>
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir el elemento buscado
+	 * @return elemento encontrado, o {@code null} si ninguno cumple el filtro
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> T getElemento(BackendResource recurso, String url, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro) throws BackendException {
+		return consultarFlujo(recurso, url, BackendPlazo.limite(recurso), false,
+				(previa, respuesta) -> leerElemento(recurso, adaptador, filtro, respuesta));
+	}
+
+	/**
+	 * Implementación de {@link #getList} con el plazo ya calculado en el hilo de
+	 * la página.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa a consultar
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @param limite    instante límite de la consulta, en
+	 *                  {@link System#nanoTime()}
+	 * @param pagina    {@code true} si el límite incluye el plazo de una página
+	 * @return elementos decodificados, en una lista nueva
+	 * @throws BackendException si la consulta falla y no hay copia que devolver
+	 */
+	private static <T> List<T> listar(BackendResource recurso, String url, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro, long limite, boolean pagina) throws BackendException {
+		List<?> elementos;
+		try {
+			elementos = LISTAS.ejecutar(url, limite, () -> consultarLista(recurso, url, adaptador, limite));
+		} catch (BackendException e) {
+			BackendCache.Entrada previa = pagina && BackendPlazo.agotado(limite) ? BackendCache.obtener(url) : null;
+			if (previa == null) {
+				throw e;
+			}
+			// más vale mostrar el listado anterior que bloquear la página
+			BackendMetrics.registrarRespaldo(BackendMetrics.endpoint(url));
+			elementos = previa.getElementos();
+		}
+		return filtrar(elementos, filtro);
+	}
+
+	/**
+	 * Copia los elementos que cumplen el filtro en una lista nueva.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param elementos lista compartida, sin filtrar
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return lista nueva, modificable por quien la recibe
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> filtrar(List<?> elementos, Predicate<? super T> filtro) {
+		List<T> copia = new ArrayList<>(elementos.size());
+		for (Object elemento : elementos) {
+			if (filtro.test((T) elemento)) {
+				copia.add((T) elemento);
+			}
+		}
+		return copia;
+	}
+
+	/**
+	 * Consulta un listado completo, reintentando los fallos pasajeros dentro del
+	 * plazo del recurso. Los listados se leen en flujo, por lo que no se cubren
+	 * con una segunda petición.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       ruta o URL completa a consultar
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param limite    instante límite de la consulta, en
+	 *                  {@link System#nanoTime()}
+	 * @return elementos sin filtrar, en una lista que no debe modificarse
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	private static List<?> consultarLista(BackendResource recurso, String url, TypeAdapter<?> adaptador,
+			long limite) throws BackendException {
+		return consultarFlujo(recurso, url, limite, true,
+				(previa, respuesta) -> leerRespuesta(recurso, url, adaptador, previa, respuesta));
+	}
+
+	/**
+	 * Consulta una URL cuyo cuerpo se lee en flujo, reintentando los fallos
+	 * pasajeros dentro del plazo del recurso.
+	 *
+	 * @param <R>         tipo del resultado
+	 * @param recurso     recurso del backend al que pertenece la URL
+	 * @param url         ruta o URL completa a consultar
+	 * @param limite      instante límite de la consulta, en
+	 *                    {@link System#nanoTime()}
+	 * @param condicional {@code true} para revalidar con {@link BackendCache}
+	 * @param lector      lee el cuerpo de la respuesta
+	 * @return resultado del lector
+	 * @throws BackendException si no hay respuesta o el lector falla
+	 */
+	private static <R> R consultarFlujo(BackendResource recurso, String url, long limite, boolean condicional,
+			LectorRespuesta<R> lector) throws BackendException {
+		BackendReintentos politica = BackendReintentos.de(recurso);
+		for (int intento = 0;; intento++) {
+			try {
+				return cargarFlujo(recurso, url, limite, condicional, lector);
+			} catch (BackendException e) {
+				long espera = BackendReintentos.reintentable(e) ? politica.esperaReintento(intento, limite) : -1;
+				if (espera < 0) {
+					throw e;
+				}
+				BackendMetrics.registrarReintento(BackendMetrics.endpoint(url));
+				dormir(espera);
+			}
+		}
+	}
+
+	/**
+	 * Hace un intento de consulta de una URL cuyo cuerpo se lee en flujo.
+	 *
+	 * @param <R>         tipo del resultado
+	 * @param recurso     recurso del backend al que pertenece la URL
+	 * @param url         ruta o URL completa a consultar
+	 * @param limite      instante límite de la consulta, en
+	 *                    {@link System#nanoTime()}
+	 * @param condicional {@code true} para revalidar con {@link BackendCache}
+	 * @param lector      lee el cuerpo de la respuesta
+	 * @return resultado del lector
+	 * @throws BackendException si no hay respuesta o el lector falla
+	 */
+	private static <R> R cargarFlujo(BackendResource recurso, String url, long limite, boolean condicional,
+			LectorRespuesta<R> lector) throws BackendException {
+		String endpoint = BackendMetrics.endpoint(url);
+		if (BackendPlazo.agotado(limite)) {
+			BackendMetrics.registrarAgotada(endpoint);
+			throw BackendPlazo.plazoAgotado(recurso);
+		}
+
+		BackendCache.Entrada previa = condicional ? BackendCache.obtener(url) : null;
+		Duration timeout = BackendReintentos.timeoutIntento(limite, recurso);
+		HttpRequest.Builder solicitud = solicitud(timeout).setHeader("Accept", BackendFormato.aceptar(recurso)).GET();
+		if (previa != null) {
+			previa.condicionar(solicitud);
+		}
+
+		BackendCircuito circuito = BackendCircuito.de(recurso);
+		try {
+			circuito.entrar(BackendPrioridad.INTERACTIVA);
+		} catch (BackendException e) {
+			BackendMetrics.registrarRechazo(endpoint);
+			throw e;
+		}
+		BackendEndpoints.Nodo nodo;
+		try {
+			nodo = destino(recurso, url, solicitud);
+		} catch (RuntimeException e) {
+			// no se envió nada: el lugar se devuelve sin contar un fallo
+			salir(circuito, BackendPrioridad.INTERACTIVA, null, false, -1, true);
+			throw e;
+		}
+
+		long inicio = System.nanoTime();
+		long espera = -1;
+		int status = BackendResponse.SIN_RESPUESTA;
+		boolean exito = false;
+		boolean agotado = false;
+		try {
+			HttpResponse<InputStream> respuesta = abrir(recurso, solicitud);
+			espera = System.nanoTime() - inicio;
+			status = respuesta.statusCode();
+			if (BackendCircuito.esExito(status)) {
+				BackendReintentos.de(recurso).registrarLatencia(espera);
+			}
+			R resultado = lector.leer(previa, respuesta);
+			exito = true;
+			return resultado;
+		} catch (BackendException e) {
+			exito = BackendCircuito.esExito(e.getStatus());
+			agotado = esTimeout(e.getCause());
+			throw e;
+		} finally {
+			long duracion = System.nanoTime() - inicio;
+			// el límite de concurrencia se ajusta con el tiempo hasta las cabeceras
+			salir(circuito, BackendPrioridad.INTERACTIVA, nodo, exito, espera >= 0 ? espera : duracion,
+					agotado && recortado(recurso, timeout));
+			// la latencia de un listado incluye la lectura completa del cuerpo
+			registrarMetricas(endpoint, duracion, status, agotado);
+		}
+	}
+
+	/**
+	 * Lee la respuesta de un listado: reutiliza la entrada previa si no cambió o
+	 * decodifica el cuerpo en flujo.
+	 *
+	 * @param recurso   recurso del backend al que pertenece la URL
+	 * @param url       URL consultada
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param previa    listado anterior de la URL, o {@code null}
+	 * @param respuesta respuesta con el cuerpo como flujo
+	 * @return elementos sin filtrar, en una lista que no debe modificarse
+	 * @throws BackendException si el estado no es 2xx o el JSON es inválido
+	 */
+	private static List<?> leerRespuesta(BackendResource recurso, String url, TypeAdapter<?> adaptador,
+			BackendCache.Entrada previa, HttpResponse<InputStream> respuesta) throws BackendException {
+		String endpoint = BackendMetrics.endpoint(respuesta.uri());
+		FlujoContado red = new FlujoContado(respuesta.body());
+		FlujoContado cuerpo = red;
+
+		try {
+			if (respuesta.statusCode() == 304 && previa != null) {
+				BackendMetrics.registrarReutilizacion(endpoint, true);
+				return previa.getElementos();
+			}
+			if (respuesta.statusCode() < 200 || respuesta.statusCode() >= 300) {
+				cuerpo = new FlujoContado(BackendCompresion.descomprimir(red, respuesta.headers()));
+				throw rechazo(respuesta, cuerpo);
+			}
+
+			InputStream entrada = red;
+			byte[] hash = null;
+			if (!BackendCache.tieneValidadores(respuesta.headers())) {
+				byte[] inicio = red.readNBytes(LIMITE_HASH + 1);
+				if (inicio.length <= LIMITE_HASH) {
+					hash = BackendCache.hash(inicio);
+					if (previa != null && previa.mismoCuerpo(hash)) {
+						BackendMetrics.registrarReutilizacion(endpoint, false);
+						return previa.getElementos();
+					}
+					entrada = new ByteArrayInputStream(inicio);
+				} else {
+					entrada = new SequenceInputStream(new ByteArrayInputStream(inicio), red);
+				}
+			}
+
+			cuerpo = new FlujoContado(BackendCompresion.descomprimir(entrada, respuesta.headers()));
+			List<?> elementos = Collections.unmodifiableList(
+					leerLista(BackendFormato.lector(respuesta.headers(), cuerpo), adaptador));
+			BackendCache.guardar(url, respuesta.headers(), hash, elementos);
+			return elementos;
+		} catch (BackendException e) {
+			throw e;
+		} catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
+			// el backend respondió: un JSON inválido no indica que esté caído; Gson
+			// lanza IllegalStateException ante un token inesperado y los
+			// adaptadores NumberFormatException ante un número mal escrito
+			throw new BackendException(respuesta.statusCode(),
+					"Respuesta inválida de " + recurso.getClave() + ": " + e.getMessage(), e);
+		} finally {
+			cerrar(red);
+			BackendMetrics.registrarRecepcion(endpoint, red.getLeidos(), cuerpo.getLeidos());
+		}
+	}
+
+	/**
+	 * Lee una respuesta cuyo cuerpo es un arreglo JSON hasta encontrar el primer
+	 * elemento que cumple el filtro; el resto del cuerpo no se lee. Si el cuerpo
+	 * es un solo objeto, como el de una consulta por identificador, se toma como
+	 * el único elemento.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param recurso   recurso del backend
+	 * @param adaptador adaptador que decodifica un elemento
+	 * @param filtro    condición que debe cumplir el elemento buscado
+	 * @param respuesta respuesta con el cuerpo como flujo
+	 * @return elemento encontrado, o {@code null} si ninguno cumple el filtro
+	 * @throws BackendException si el estado no es 2xx o el JSON es inválido
+	 */
+	private static <T> T leerElemento(BackendResource recurso, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro, HttpResponse<InputStream> respuesta) throws BackendException {
+		String endpoint = BackendMetrics.endpoint(respuesta.uri());
+		FlujoContado red = new FlujoContado(respuesta.body());
+		FlujoContado cuerpo = red;
+
+		try {
+			cuerpo = new FlujoContado(BackendCompresion.descomprimir(red, respuesta.headers()));
+			if (respuesta.statusCode() < 200 || respuesta.statusCode() >= 300) {
+				throw rechazo(respuesta, cuerpo);
+			}
+
+			JsonReader lector = BackendFormato.lector(respuesta.headers(), cuerpo);
+			if (lector.peek() == JsonToken.NULL) {
+				return null;
+			}
+			if (lector.peek() == JsonToken.BEGIN_OBJECT) {
+				T elemento = adaptador.read(lector);
+				return elemento != null && filtro.test(elemento) ? elemento : null;
+			}
+			lector.beginArray();
+			while (lector.hasNext()) {
+				T elemento = adaptador.read(lector);
+				if (elemento != null && filtro.test(elemento)) {
+					return elemento;
+				}
+			}
+			return null;
+		} catch (BackendException e) {
+			throw e;
+		} catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
+			throw new BackendException(respuesta.statusCode(),
+					"Respuesta inválida de " + recurso.getClave() + ": " + e.getMessage(), e);
+		} finally {
+			cerrar(red);
+			BackendMetrics.registrarRecepcion(endpoint, red.getLeidos(), cuerpo.getLeidos());
+		}
+	}
+
+	/**
+	 * @param respuesta respuesta con estado distinto de 2xx
+	 * @param cuerpo    cuerpo descomprimido de la respuesta
+	 * @return error con el estado y el cuerpo de la respuesta
+	 * @throws IOException si no se puede leer el cuerpo
+	 */
+	private static BackendException rechazo(HttpResponse<?> respuesta, InputStream cuerpo) throws IOException {
+		return new BackendException(respuesta.statusCode(),
+				"Error " + respuesta.statusCode() + ": " + new String(cuerpo.readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Lee un arreglo JSON elemento por elemento.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param lector    lector posicionado al inicio del arreglo
+	 * @param adaptador adaptador que decodifica un elemento
+	 * @return elementos no nulos
+	 * @throws IOException si el JSON es inválido o se corta la lectura
+	 */
+	private static <T> List<T> leerLista(JsonReader lector, TypeAdapter<T> adaptador) throws IOException {
+		List<T> lista = new ArrayList<>();
+		if (lector.peek() == JsonToken.NULL) {
+			lector.nextNull();
+			return lista;
+		}
+
+		lector.beginArray();
+		while (lector.hasNext()) {
+			T elemento = adaptador.read(lector);
+			if (elemento != null) {
+				lista.add(elemento);
+			}
+		}
+		lector.endArray();
+		return lista;
+	}
+
+	/**
+	 * Envía la petición de forma asíncrona y empaqueta el resultado. Los fallos de
+	 * transporte no se propagan como excepción: se devuelven como
+	 * {@link BackendResponse#sinRespuesta(String)}.
+	 *
+	 * @param recurso   recurso del backend
+	 * @param url       ruta o URL completa de destino
+	 * @param solicitud petición sin URI
+	 * @param prioridad carril por el que viaja la petición; espera en él si está
+	 *                  lleno
+	 * @return futuro con la respuesta del backend
+	 */
+	private static CompletableFuture<BackendResponse> enviarAsync(BackendResource recurso, String url,
+			HttpRequest.Builder solicitud, BackendPrioridad prioridad) {
+		return BackendCarril.de(prioridad).encolar(() -> enviarUna(recurso, url, solicitud, null, prioridad))
+				.exceptionally(error -> BackendResponse.sinRespuesta(describirFallo(recurso, error)));
+	}
+
+	/**
+	 * Consulta GET con reintentos y cobertura dentro del plazo del recurso.
+	 *
+	 * @param recurso recurso del backend
+	 * @param url     ruta o URL completa a consultar
+	 * @param limite  instante límite de la consulta, en {@link System#nanoTime()}
+	 * @return futuro con la respuesta; nunca termina con excepción
+	 */
+	private static CompletableFuture<BackendResponse> consultarAsync(BackendResource recurso, String url,
+			long limite) {
+		return intentarAsync(recurso, url, limite, 0)
+				.exceptionally(error -> BackendResponse.sinRespuesta(describirFallo(recurso, error)));
+	}
+
+	/**
+	 * Hace un intento de consulta y, si falla de forma pasajera y el plazo lo
+	 * permite, programa el siguiente tras una espera con variación aleatoria.
+	 *
+	 * @param recurso recurso del backend
+	 * @param url     ruta o URL completa a consultar
+	 * @param limite  instante límite de la consulta, en {@link System#nanoTime()}
+	 * @param intento número de este intento, desde 0
+	 * @return futuro con la última respuesta o el último fallo
+	 */
+	private static CompletableFuture<BackendResponse> intentarAsync(BackendResource recurso, String url, long limite,
+			int intento) {
+		return cubrirAsync(recurso, url, limite).handle((respuesta, error) -> {
+			boolean pasajero = error != null ? BackendReintentos.reintentable(error)
+					: BackendReintentos.reintentable(respuesta.getStatus());
+			long espera = pasajero ? BackendReintentos.de(recurso).esperaReintento(intento, limite) : -1;
+			if (espera < 0) {
+				return error != null ? CompletableFuture.<BackendResponse>failedFuture(error)
+						: CompletableFuture.completedFuture(respuesta);
+			}
+			BackendMetrics.registrarReintento(BackendMetrics.endpoint(url));
+			Executor diferido = CompletableFuture.delayedExecutor(espera, TimeUnit.MILLISECONDS, EJECUTOR);
+			return CompletableFuture.supplyAsync(() -> intentarAsync(recurso, url, limite, intento + 1), diferido)
+					.thenCompose(Function.identity());
+		}).thenCompose(Function.identity());
+	}
+
+	/**
+	 * Envía una consulta GET y, si tarda más que el percentil 95 del recurso,
+	 * envía una segunda idéntica. Gana la primera respuesta que no sea un fallo
+	 * pasajero; la otra se deja terminar y se descarta.
+	 *
+	 * @param recurso recurso del backend
+	 * @param url     ruta o URL completa a consultar
+	 * @param limite  instante límite de la consulta, en {@link System#nanoTime()}
+	 * @return futuro con la respuesta ganadora
+	 */
+	private static CompletableFuture<BackendResponse> cubrirAsync(BackendResource recurso, String url, long limite) {
+		if (BackendPlazo.agotado(limite)) {
+			BackendMetrics.registrarAgotada(BackendMetrics.endpoint(url));
+			return CompletableFuture.failedFuture(BackendPlazo.plazoAgotado(recurso));
+		}
+		BackendReintentos politica = BackendReintentos.de(recurso);
+		CompletableFuture<BackendResponse> primera = enviarUna(recurso, url,
+				solicitud(BackendReintentos.timeoutIntento(limite, recurso)).GET(), politica,
+				BackendPrioridad.INTERACTIVA);
+		long retraso = politica.retrasoCobertura(limite);
+		if (retraso < 0) {
+			return primera;
+		}
+
+		CompletableFuture<BackendResponse> ganadora = new CompletableFuture<>();
+		AtomicInteger pendientes = new AtomicInteger(1);
+		BiConsumer<BackendResponse, Throwable> alTerminar = (respuesta, error) -> {
+			boolean definitiva = error == null && !BackendReintentos.reintentable(respuesta.getStatus());
+			if (definitiva || pendientes.decrementAndGet() == 0) {
+				if (error != null) {
+					ganadora.completeExceptionally(error);
+				} else {
+					ganadora.complete(respuesta);
+				}
+			}
+		};
+		primera.whenComplete(alTerminar);
+
+		CompletableFuture.delayedExecutor(retraso, TimeUnit.MILLISECONDS, EJECUTOR).execute(() -> {
+			if (!ganadora.isDone() && pendientes.incrementAndGet() > 1) {
+				BackendMetrics.registrarCobertura(BackendMetrics.endpoint(url));
+				enviarUna(recurso, url, solicitud(BackendReintentos.timeoutIntento(limite, recurso)).GET(), politica,
+						BackendPrioridad.INTERACTIVA).whenComplete(alTerminar);
+			}
+		});
+		return ganadora;
+	}
+
+	/**
+	 * Envía una petición pasando por el {@link BackendCircuito} del recurso, al
+	 * nodo que elija {@link BackendEndpoints}.
+	 *
+	 * @param recurso   recurso del backend
+	 * @param url       ruta o URL completa de destino
+	 * @param solicitud petición sin URI
+	 * @param politica  política donde registrar la latencia, o {@code null}
+	 * @param prioridad carril cuyo cliente HTTP envía la petición
+	 * @return futuro con la respuesta; termina con {@link BackendException} si el
+	 *         circuito la rechaza o con la excepción de transporte si falla
+	 */
+	private static CompletableFuture<BackendResponse> enviarUna(BackendResource recurso, String url,
+			HttpRequest.Builder solicitud, BackendReintentos politica, BackendPrioridad prioridad) {
+		String endpoint = BackendMetrics.endpoint(url);
+		BackendCircuito circuito = BackendCircuito.de(recurso);
+		try {
+			circuito.entrar(prioridad);
+		} catch (BackendException e) {
+			BackendMetrics.registrarRechazo(endpoint);
+			return CompletableFuture.failedFuture(e);
+		}
+		BackendEndpoints.Nodo nodo = null;
+		boolean recortada;
+		long inicio;
+		CompletableFuture<HttpResponse<byte[]>> envio;
+		try {
+			nodo = destino(recurso, url, solicitud);
+			HttpRequest peticion = solicitud.build();
+			recortada = politica != null
+					&& peticion.timeout().map(timeout -> recortado(recurso, timeout)).orElse(false);
+			inicio = System.nanoTime();
+			envio = CLIENTES.get(prioridad).sendAsync(peticion, HttpResponse.BodyHandlers.ofByteArray());
+		} catch (RuntimeException e) {
+			// no se envió nada: el lugar se devuelve sin contar un fallo
+			salir(circuito, prioridad, nodo, false, -1, true);
+			return CompletableFuture.failedFuture(e);
+		}
+		BackendEndpoints.Nodo elegido = nodo;
+		return envio.thenApply(BackendClient::empaquetar).whenComplete((respuesta, error) -> {
+			long duracion = System.nanoTime() - inicio;
+			boolean exito = error == null && BackendCircuito.esExito(respuesta.getStatus());
+			boolean agotada = esTimeout(error);
+			// una subida de fondo tarda por su tamaño, no por la cola del backend
+			salir(circuito, prioridad, elegido, exito, prioridad == BackendPrioridad.INTERACTIVA ? duracion : -1,
+					agotada && recortada);
+			if (exito && politica != null) {
+				politica.registrarLatencia(duracion);
+			}
+			registrarMetricas(endpoint, duracion, error == null ? respuesta.getStatus() : BackendResponse.SIN_RESPUESTA,
+					agotada);
+		});
+	}
+
+	/**
+	 * Informa el fin de una petición al circuito del recurso y al nodo que la
+	 * atendió.
+	 *
+	 * @param circuito  circuito que admitió la petición
+	 * @param prioridad carril con que el circuito admitió la petición
+	 * @param nodo      nodo elegido, o {@code null} si la URL era completa
+	 * @param exito     {@code false} si no hubo respuesta o fue 5xx
+	 * @param nanos     tiempo hasta la respuesta o el fallo, o -1 si no debe
+	 *                  ajustar el límite de concurrencia
+	 * @param neutral   {@code true} si el resultado no dice nada de la salud del
+	 *                  backend y no debe contarse
+	 */
+	private static void salir(BackendCircuito circuito, BackendPrioridad prioridad, BackendEndpoints.Nodo nodo,
+			boolean exito, long nanos, boolean neutral) {
+		if (neutral) {
+			circuito.liberar(prioridad);
+		} else {
+			circuito.salir(prioridad, exito, nanos);
+		}
+		if (nodo != null) {
+			if (neutral) {
+				nodo.liberar();
+			} else {
+				nodo.salir(exito);
+			}
+		}
+	}
+
+	/**
+	 * @param recurso recurso consultado
+	 * @param timeout tiempo de espera con que se envió una consulta
+	 * @return {@code true} si el plazo lo dejó por debajo del tiempo de espera
+	 *         propio del recurso; agotarlo entonces no indica un backend lento
+	 */
+	private static boolean recortado(BackendResource recurso, Duration timeout) {
+		return timeout.compareTo(recurso.getTimeoutConsulta()) < 0;
+	}
+
+	/**
+	 * @param recurso recurso consultado
+	 * @return respuesta de una consulta cuyo plazo se agotó
+	 */
+	private static BackendResponse sinTiempo(BackendResource recurso) {
+		return BackendResponse.sinRespuesta(BackendPlazo.mensajeAgotado(recurso));
+	}
+
+	/**
+	 * Registra una llamada en {@link BackendMetrics}.
+	 *
+	 * @param endpoint endpoint consultado
+	 * @param nanos    duración de la llamada
+	 * @param status   estado recibido, o {@link BackendResponse#SIN_RESPUESTA}
+	 * @param timeout  {@code true} si no hubo respuesta por tiempo agotado
+	 */
+	private static void registrarMetricas(String endpoint, long nanos, int status, boolean timeout) {
+		if (status != BackendResponse.SIN_RESPUESTA) {
+			BackendMetrics.registrarLlamada(endpoint, nanos, status);
+		} else {
+			BackendMetrics.registrarFallo(endpoint, nanos, timeout);
+		}
+	}
+
+	/**
+	 * @param error excepción recibida, posiblemente envuelta, o {@code null}
+	 * @return {@code true} si se trata de un tiempo de espera agotado
+	 */
+	private static boolean esTimeout(Throwable error) {
+		Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		return causa instanceof HttpTimeoutException;
+	}
+
+	/**
+	 * Descomprime el cuerpo recibido, registra su tamaño y construye la
+	 * respuesta.
+	 *
+	 * @param respuesta respuesta con el cuerpo tal como llegó del socket
+	 * @return respuesta del backend con el cuerpo descomprimido
+	 */
+	private static BackendResponse empaquetar(HttpResponse<byte[]> respuesta) {
+		byte[] red = respuesta.body();
+		byte[] cuerpo;
+		try {
+			cuerpo = BackendCompresion.descomprimir(red, respuesta.headers());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cuerpo comprimido inválido", e);
+		}
+		BackendMetrics.registrarRecepcion(BackendMetrics.endpoint(respuesta.uri()), red.length, cuerpo.length);
+		return new BackendResponse(respuesta.statusCode(), respuesta.headers(), cuerpo);
+	}
+
+	/**
+	 * Espera el resultado de una petición asíncrona desde un método síncrono.
+	 *
+	 * @param futuro petición en curso
+	 * @return respuesta del backend
+	 */
+	private static BackendResponse esperar(CompletableFuture<BackendResponse> futuro) {
+		try {
+			return futuro.get();
+		} catch (InterruptedException e) {
+			futuro.cancel(true);
+			Thread.currentThread().interrupt();
+			return BackendResponse.sinRespuesta("Petición interrumpida");
+		} catch (ExecutionException e) {
+			return BackendResponse.sinRespuesta("Error inesperado: " + e.getCause());
+		}
+	}
+
+	/**
+	 * Envía la petición y devuelve la respuesta en cuanto llegan las cabeceras;
+	 * el cuerpo queda disponible como flujo para leerlo sin copiarlo.
+	 *
+	 * @param recurso   recurso del backend
+	 * @param solicitud petición lista para construir
+	 * @return respuesta con el cuerpo como flujo; quien llama debe cerrarlo
+	 * @throws BackendException si no se obtiene respuesta
+	 */
+	private static HttpResponse<InputStream> abrir(BackendResource recurso, HttpRequest.Builder solicitud)
+			throws BackendException {
+		try {
+			return CLIENTES.get(BackendPrioridad.INTERACTIVA).send(solicitud.build(),
+					HttpResponse.BodyHandlers.ofInputStream());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BackendException("Petición interrumpida", e);
+		} catch (IOException e) {
+			throw new BackendException(describirFallo(recurso, e), e);
+		}
+	}
+
+	/**
+	 * Traduce un fallo de transporte al mensaje que se muestra al usuario.
+	 *
+	 * @param recurso recurso del backend
+	 * @param error   excepción recibida, posiblemente envuelta
+	 * @return descripción del fallo
+	 */
+	private static String describirFallo(BackendResource recurso, Throwable error) {
+		Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (causa instanceof BackendException) {
+			return causa.getMessage();
+		}
+		if (causa instanceof HttpTimeoutException) {
+			return "Tiempo de espera agotado en " + recurso.getClave();
+		}
+		String motivo = causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+		BackendLog.repetido("conexion." + recurso.getClave(),
+				"Error de conexión con " + recurso.getClave() + ": " + motivo);
+		return "Error de conexión: " + motivo;
+	}
+
+	/**
+	 * Asigna la URI de destino a una petición. Las rutas se resuelven contra el
+	 * nodo que elija {@link BackendEndpoints}, que queda marcado con una petición
+	 * en curso; las URL completas se usan tal cual.
+	 *
+	 * @param recurso   recurso del backend
+	 * @param url       ruta o URL completa de destino
+	 * @param solicitud petición a completar
+	 * @return nodo elegido, al que se debe informar el resultado con
+	 *         {@link BackendEndpoints.Nodo#salir(boolean)}; {@code null} si la URL
+	 *         era completa
+	 */
+	private static BackendEndpoints.Nodo destino(BackendResource recurso, String url,
+			HttpRequest.Builder solicitud) {
+		if (!BackendEndpoints.esRuta(url)) {
+			solicitud.uri(URI.create(url));
+			return null;
+		}
+		BackendEndpoints.Nodo nodo = BackendEndpoints.elegir(recurso);
+		solicitud.uri(nodo.resolver(url));
+		nodo.entrar();
+		return nodo;
+	}
+
+	/**
+	 * Crea el constructor de la petición con las cabeceras comunes; la URI se
+	 * asigna con {@link #destino}.
+	 *
+	 * @param timeout tiempo máximo de espera de la respuesta
+	 * @return constructor de la petición
+	 */
+	private static HttpRequest.Builder solicitud(Duration timeout) {
+		return HttpRequest.newBuilder().timeout(timeout).header("Accept", "application/json")
+				.header("Accept-Encoding", BackendCompresion.CODIFICACIONES_ACEPTADAS)
+				.header("User-Agent", "Artemisa-Frontend");
+	}
+
+	/**
+	 * Espera antes de un reintento síncrono.
+	 *
+	 * @param millis milisegundos a esperar
+	 * @throws BackendException si se interrumpe la espera
+	 */
+	private static void dormir(long millis) throws BackendException {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BackendException("Petición interrumpida", e);
+		}
+	}
+
+	/**
+	 * Cierra un flujo de respuesta ignorando los errores de cierre, que no
+	 * cambian el resultado de la consulta.
+	 *
+	 * @param flujo flujo a cerrar
+	 */
+	private static void cerrar(InputStream flujo) {
+		try {
+			flujo.close();
+		} catch (IOException e) {
+			// la respuesta ya se leyó o ya falló
+		}
+	}
+
+	/**
+	 * Lee el cuerpo de una respuesta abierta en flujo.
+	 *
+	 * @param <R> tipo del resultado
+	 */
+	@FunctionalInterface
+	private interface LectorRespuesta<R> {
+
+		/**
+		 * @param previa    entrada de {@link BackendCache} con que se condicionó la
+		 *                  consulta, o {@code null}
+		 * @param respuesta respuesta con el cuerpo como flujo; debe cerrarse
+		 * @return resultado de la lectura
+		 * @throws BackendException si el estado no es 2xx o el cuerpo es inválido
+		 */
+		R leer(BackendCache.Entrada previa, HttpResponse<InputStream> respuesta) throws BackendException;
+	}
+
+	/**
+	 * Flujo que cuenta los bytes leídos, para medir el tamaño de una respuesta
+	 * antes y después de descomprimirla sin copiarla.
+	 */
+	private static final class FlujoContado extends FilterInputStream {
+
+		private long leidos;
+
+		FlujoContado(InputStream entrada) {
+			super(entrada);
+		}
+
+		long getLeidos() {
+			return leidos;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				leidos++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				leidos += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long saltados = super.skip(n);
+			leidos += saltados;
+			return saltados;
+		}
+	}
+}
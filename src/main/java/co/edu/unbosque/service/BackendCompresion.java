@@ -0,0 +1,141 @@
+package co.edu.unbosque.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresión HTTP del tráfico con el backend.
+ * <p>
+ * Las respuestas se piden con {@code Accept-Encoding: gzip, deflate} y se
+ * descomprimen en flujo según su {@code Content-Encoding}. Los cuerpos de las
+ * peticiones se comprimen con gzip sólo si {@code backend.compresion.envio}
+ * está activo y superan {@code backend.compresion.umbral} bytes, porque el
+ * backend debe aceptar explícitamente cuerpos comprimidos.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendCompresion {
+
+	/** Valor de la cabecera {@code Accept-Encoding} de todas las peticiones. */
+	static final String CODIFICACIONES_ACEPTADAS = "gzip, deflate";
+
+	/** Indica si los cuerpos grandes de las peticiones se comprimen. */
+	private static final boolean ENVIO = BackendConfig.getBoolean("backend.compresion.envio", false);
+
+	/** Tamaño mínimo, en bytes, de un cuerpo para comprimirlo al enviarlo. */
+	private static final int UMBRAL = BackendConfig.getInt("backend.compresion.umbral", 16384);
+
+	private BackendCompresion() {
+	}
+
+	/**
+	 * Envuelve el cuerpo de una respuesta con el descompresor que indica su
+	 * cabecera {@code Content-Encoding}.
+	 *
+	 * @param cuerpo    flujo tal como llega del socket
+	 * @param cabeceras cabeceras de la respuesta
+	 * @return flujo descomprimido, o el mismo flujo si no viene comprimido
+	 * @throws IOException si la cabecera gzip es inválida
+	 */
+	static InputStream descomprimir(InputStream cuerpo, HttpHeaders cabeceras) throws IOException {
+		String codificacion = cabeceras.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+		switch (codificacion) {
+		case "gzip":
+		case "x-gzip":
+			return new GZIPInputStream(cuerpo, 8192);
+		case "deflate":
+			return inflar(cuerpo);
+		default:
+			return cuerpo;
+		}
+	}
+
+	/**
+	 * Descomprime un cuerpo ya recibido completo.
+	 *
+	 * @param cuerpo    bytes tal como llegaron del socket
+	 * @param cabeceras cabeceras de la respuesta
+	 * @return bytes descomprimidos, o el mismo arreglo si no viene comprimido
+	 * @throws IOException si el contenido comprimido es inválido
+	 */
+	static byte[] descomprimir(byte[] cuerpo, HttpHeaders cabeceras) throws IOException {
+		if (cuerpo.length == 0 || cabeceras.firstValue("Content-Encoding").isEmpty()) {
+			return cuerpo;
+		}
+		InputStream entrada = new ByteArrayInputStream(cuerpo);
+		InputStream descomprimido = descomprimir(entrada, cabeceras);
+		if (descomprimido == entrada) {
+			return cuerpo;
+		}
+		try (descomprimido) {
+			return descomprimido.readAllBytes();
+		}
+	}
+
+	/**
+	 * Indica si un cuerpo de petición de la longitud dada debe enviarse
+	 * comprimido.
+	 *
+	 * @param longitud bytes del cuerpo sin comprimir
+	 * @return {@code true} si se debe comprimir con gzip
+	 */
+	static boolean comprimirEnvio(int longitud) {
+		return ENVIO && longitud >= UMBRAL;
+	}
+
+	/**
+	 * Comprime un cuerpo con gzip.
+	 *
+	 * @param datos bytes sin comprimir
+	 * @return bytes comprimidos
+	 */
+	static byte[] comprimir(byte[] datos) {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(512, datos.length / 4));
+		try (GZIPOutputStream gzip = new GZIPOutputStream(salida, 8192)) {
+			gzip.write(datos);
+		} catch (IOException e) {
+			// ByteArrayOutputStream no lanza IOException
+			throw new IllegalStateException(e);
+		}
+		return salida.toByteArray();
+	}
+
+	/**
+	 * Descomprime {@code deflate}. La especificación pide el formato zlib, pero
+	 * algunos servidores envían deflate crudo; se distingue por los dos primeros
+	 * bytes, que en zlib forman un múltiplo de 31.
+	 *
+	 * @param cuerpo flujo comprimido
+	 * @return flujo descomprimido
+	 * @throws IOException si no se puede leer la cabecera
+	 */
+	private static InputStream inflar(InputStream cuerpo) throws IOException {
+		BufferedInputStream entrada = new BufferedInputStream(cuerpo, 8192);
+		entrada.mark(2);
+		int cmf = entrada.read();
+		int flg = entrada.read();
+		entrada.reset();
+		boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+		return new InflaterInputStream(entrada, new Inflater(!zlib), 8192) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					inf.end();
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,90 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Configuración del cliente del backend.
+ * <p>
+ * Los valores se leen del archivo {@code backend.properties} ubicado en el
+ * classpath. Cualquier clave puede sobrescribirse con una propiedad del sistema
+ * del mismo nombre (por ejemplo {@code -Dbackend.libro.timeout.consulta=90000}).
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendConfig {
+
+	/** Nombre del archivo de configuración en el classpath. */
+	private static final String ARCHIVO = "backend.properties";
+
+	/** Propiedades cargadas al iniciar la aplicación. */
+	private static final Properties PROPIEDADES = cargar();
+
+	private BackendConfig() {
+	}
+
+	/**
+	 * Carga el archivo de configuración; si no existe se usan los valores por
+	 * defecto de cada clave.
+	 *
+	 * @return propiedades cargadas
+	 */
+	private static Properties cargar() {
+		Properties propiedades = new Properties();
+		try (InputStream in = BackendConfig.class.getClassLoader().getResourceAsStream(ARCHIVO)) {
+			if (in != null) {
+				propiedades.load(in);
+			}
+		} catch (IOException e) {
+			BackendLog.aviso("No se pudo leer " + ARCHIVO + ": " + e.getMessage());
+		}
+		return propiedades;
+	}
+
+	/**
+	 * @param clave        clave de configuración
+	 * @param valorDefecto valor usado si la clave no está definida
+	 * @return valor configurado para la clave
+	 */
+	public static String getString(String clave, String valorDefecto) {
+		String valor = System.getProperty(clave);
+		if (valor == null) {
+			valor = PROPIEDADES.getProperty(clave);
+		}
+		return valor != null && !valor.trim().isEmpty() ? valor.trim() : valorDefecto;
+	}
+
+	/**
+	 * @param clave        clave de configuración
+	 * @param valorDefecto valor usado si la clave no está definida o no es numérica
+	 * @return valor configurado para la clave
+	 */
+	public static long getLong(String clave, long valorDefecto) {
+		try {
+			return Long.parseLong(getString(clave, String.valueOf(valorDefecto)));
+		} catch (NumberFormatException e) {
+			return valorDefecto;
+		}
+	}
+
+	/**
+	 * @param clave        clave de configuración
+	 * @param valorDefecto valor usado si la clave no está definida o no es numérica
+	 * @return valor configurado para la clave
+	 */
+	public static int getInt(String clave, int valorDefecto) {
+		return (int) getLong(clave, valorDefecto);
+	}
+
+	/**
+	 * @param clave        clave de configuración
+	 * @param valorDefecto valor usado si la clave no está definida
+	 * @return valor configurado para la clave
+	 */
+	public static boolean getBoolean(String clave, boolean valorDefecto) {
+		return Boolean.parseBoolean(getString(clave, String.valueOf(valorDefecto)));
+	}
+}
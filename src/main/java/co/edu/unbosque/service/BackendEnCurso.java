@@ -0,0 +1,147 @@
+package co.edu.unbosque.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las consultas idénticas que se hacen al mismo tiempo
+ * (<i>single-flight</i>).
+ * <p>
+ * La primera llamada con una URL hace la petición real; las que llegan
+ * mientras sigue en curso no envían nada al backend y reciben el mismo
+ * resultado, o el mismo error, cuando termina. Al terminar la URL queda libre
+ * y la siguiente llamada vuelve a consultar. Cada agrupación se cuenta en
+ * {@link BackendMetrics} como una llamada colapsada del endpoint.
+ * </p>
+ *
+ * @param <V> tipo del resultado compartido; debe poder usarse desde varios
+ *            hilos sin copiarse
+ * @author
+ * @version 1.0
+ */
+final class BackendEnCurso<V> {
+
+	/**
+	 * Operación que produce el resultado de una URL.
+	 *
+	 * @param <V> tipo del resultado
+	 */
+	@FunctionalInterface
+	interface Consulta<V> {
+		/**
+		 * @return resultado de la consulta
+		 * @throws BackendException si la consulta falla
+		 */
+		V ejecutar() throws BackendException;
+	}
+
+	/** Consultas en curso por URL. */
+	private final Map<String, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+
+	/**
+	 * Ejecuta la consulta en el hilo que llama, o espera la que ya está en curso
+	 * para la misma URL. La espera de una consulta ajena no pasa del límite
+	 * propio, aunque la ajena tenga más tiempo.
+	 *
+	 * @param url      URL consultada
+	 * @param limite   instante límite de quien llama, en {@link System#nanoTime()}
+	 * @param consulta operación que hace la petición real
+	 * @return resultado, propio o compartido
+	 * @throws BackendException si la consulta falla, se agota el límite o se
+	 *                          interrumpe la espera
+	 */
+	V ejecutar(String url, long limite, Consulta<V> consulta) throws BackendException {
+		CompletableFuture<V> propia = new CompletableFuture<>();
+		CompletableFuture<V> existente = enCurso.putIfAbsent(url, propia);
+		if (existente != null) {
+			colapsar(url);
+			return esperar(existente, limite);
+		}
+
+		try {
+			V resultado = consulta.ejecutar();
+			propia.complete(resultado);
+			return resultado;
+		} catch (BackendException | RuntimeException e) {
+			propia.completeExceptionally(e);
+			throw e;
+		} finally {
+			enCurso.remove(url, propia);
+		}
+	}
+
+	/**
+	 * Versión asíncrona de {@link #ejecutar(String, long, Consulta)}.
+	 *
+	 * @param url    URL consultada
+	 * @param origen lanza la petición real
+	 * @return futuro con el resultado; cancelarlo no afecta a las demás llamadas
+	 *         que comparten la petición. Si {@code origen} lanza una excepción
+	 *         en lugar de devolver el futuro, termina con esa excepción
+	 */
+	CompletableFuture<V> compartir(String url, Supplier<CompletableFuture<V>> origen) {
+		CompletableFuture<V> propia = new CompletableFuture<>();
+		CompletableFuture<V> existente = enCurso.putIfAbsent(url, propia);
+		if (existente != null) {
+			colapsar(url);
+			return existente.copy();
+		}
+
+		CompletableFuture<V> peticion;
+		try {
+			peticion = origen.get();
+		} catch (RuntimeException e) {
+			// sin esto la URL quedaría ocupada por un futuro que nunca termina
+			enCurso.remove(url, propia);
+			propia.completeExceptionally(e);
+			return propia.copy();
+		}
+		peticion.whenComplete((resultado, error) -> {
+			enCurso.remove(url, propia);
+			if (error != null) {
+				propia.completeExceptionally(error);
+			} else {
+				propia.complete(resultado);
+			}
+		});
+		return propia.copy();
+	}
+
+	/**
+	 * Espera una consulta ajena y traduce su error.
+	 *
+	 * @param futuro consulta en curso
+	 * @param limite instante límite de la espera, en {@link System#nanoTime()}
+	 * @return resultado compartido
+	 * @throws BackendException si la consulta falló, se agota el límite o se
+	 *                          interrumpe la espera
+	 */
+	private V esperar(CompletableFuture<V> futuro, long limite) throws BackendException {
+		try {
+			return futuro.get(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			throw new BackendException(BackendResponse.SIN_RESPUESTA, "Tiempo de espera agotado", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BackendException("Petición interrumpida", e);
+		} catch (ExecutionException e) {
+			Throwable causa = e.getCause();
+			if (causa instanceof BackendException) {
+				throw (BackendException) causa;
+			}
+			if (causa instanceof RuntimeException) {
+				throw (RuntimeException) causa;
+			}
+			throw new BackendException("Error inesperado: " + causa, causa);
+		}
+	}
+
+	private static void colapsar(String url) {
+		BackendMetrics.registrarColapsada(BackendMetrics.endpoint(url));
+	}
+}
@@ -0,0 +1,218 @@
+package co.edu.unbosque.service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro de los nodos del backend que atienden cada recurso, con balanceo de
+ * carga del lado del cliente.
+ * <p>
+ * Las direcciones se leen de {@code backend.properties} (o de
+ * {@code -D<clave>=<valor>}), separadas por comas:
+ * </p>
+ * <ul>
+ * <li>{@code backend.nodos}: nodos por defecto de todos los recursos
+ * ({@code http://localhost:8081} si no se indica).</li>
+ * <li>{@code backend.<recurso>.nodos}: nodos propios de un recurso, por
+ * ejemplo {@code backend.libro.nodos}.</li>
+ * </ul>
+ * <p>
+ * Cada petición va al nodo sano con menos peticiones en curso; los empates se
+ * rompen al azar. Un nodo que acumula {@code backend.nodos.fallos} fallos
+ * seguidos (sin respuesta o 5xx) se expulsa durante
+ * {@code backend.nodos.expulsion} milisegundos. Si todos están expulsados se
+ * usa el que vuelve antes, para no dejar el recurso sin destino.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendEndpoints {
+
+	/** Fallos seguidos que expulsan a un nodo. */
+	private static final int FALLOS_EXPULSION = Math.max(1, BackendConfig.getInt("backend.nodos.fallos", 3));
+
+	/** Milisegundos que un nodo permanece expulsado. */
+	private static final long EXPULSION_MILLIS = BackendConfig.getLong("backend.nodos.expulsion", 10000);
+
+	/** Nodos de cada recurso. */
+	private static final Map<BackendResource, List<Nodo>> NODOS = crearNodos();
+
+	private BackendEndpoints() {
+	}
+
+	/**
+	 * Instancia del backend identificada por su URL base.
+	 */
+	static final class Nodo {
+
+		private final URI base;
+		private final AtomicInteger enCurso = new AtomicInteger();
+		private int fallosSeguidos;
+		private long expulsadoHasta;
+
+		/**
+		 * @param base URL base del nodo, sin barra final
+		 */
+		Nodo(URI base) {
+			this.base = base;
+		}
+
+		/**
+		 * @param ruta ruta del recurso, empezando con {@code /}
+		 * @return URL completa de la ruta en este nodo
+		 */
+		URI resolver(String ruta) {
+			return URI.create(base + ruta);
+		}
+
+		/**
+		 * Marca el inicio de una petición.
+		 */
+		void entrar() {
+			enCurso.incrementAndGet();
+		}
+
+		/**
+		 * Marca el fin de una petición y actualiza la salud del nodo.
+		 *
+		 * @param exito {@code false} si no hubo respuesta o fue 5xx
+		 */
+		void salir(boolean exito) {
+			enCurso.decrementAndGet();
+			synchronized (this) {
+				if (exito) {
+					fallosSeguidos = 0;
+					expulsadoHasta = 0;
+				} else if (++fallosSeguidos >= FALLOS_EXPULSION) {
+					if (expulsadoHasta == 0) {
+						BackendLog.aviso("Nodo " + base + " expulsado tras " + fallosSeguidos + " fallos");
+					}
+					expulsadoHasta = System.currentTimeMillis() + EXPULSION_MILLIS;
+				}
+			}
+		}
+
+		/**
+		 * Marca el fin de una petición cuyo resultado no dice nada de la salud del
+		 * nodo.
+		 */
+		void liberar() {
+			enCurso.decrementAndGet();
+		}
+
+		/**
+		 * @return peticiones en curso en el nodo
+		 */
+		int getEnCurso() {
+			return enCurso.get();
+		}
+
+		/**
+		 * @return instante hasta el que el nodo está expulsado, o 0 si está sano
+		 */
+		synchronized long getExpulsadoHasta() {
+			return expulsadoHasta;
+		}
+
+		@Override
+		public String toString() {
+			return base.toString();
+		}
+	}
+
+	private static Map<BackendResource, List<Nodo>> crearNodos() {
+		Map<String, Nodo> porDireccion = new HashMap<>();
+		String porDefecto = BackendConfig.getString("backend.nodos", "http://localhost:8081");
+		Map<BackendResource, List<Nodo>> nodos = new EnumMap<>(BackendResource.class);
+		for (BackendResource recurso : BackendResource.values()) {
+			List<Nodo> lista = new ArrayList<>();
+			for (String direccion : BackendConfig.getString("backend." + recurso.getClave() + ".nodos", porDefecto)
+					.split(",")) {
+				String base = quitarBarraFinal(direccion.trim());
+				if (!base.isEmpty()) {
+					// un mismo nodo comparte su conteo entre todos los recursos
+					lista.add(porDireccion.computeIfAbsent(base, b -> new Nodo(URI.create(b))));
+				}
+			}
+			if (lista.isEmpty()) {
+				throw new IllegalStateException("No hay nodos configurados para " + recurso.getClave());
+			}
+			nodos.put(recurso, Collections.unmodifiableList(lista));
+		}
+		return nodos;
+	}
+
+	/**
+	 * @param recurso recurso del backend
+	 * @return nodos configurados del recurso
+	 */
+	static List<Nodo> getNodos(BackendResource recurso) {
+		return NODOS.get(recurso);
+	}
+
+	/**
+	 * Elige el nodo para una petición.
+	 *
+	 * @param recurso recurso del backend
+	 * @return nodo sano con menos peticiones en curso
+	 */
+	static Nodo elegir(BackendResource recurso) {
+		return elegir(NODOS.get(recurso));
+	}
+
+	/**
+	 * Elige entre los nodos dados.
+	 *
+	 * @param nodos nodos candidatos, al menos uno
+	 * @return nodo sano con menos peticiones en curso o, si todos están
+	 *         expulsados, el que vuelve antes
+	 */
+	static Nodo elegir(List<Nodo> nodos) {
+		if (nodos.size() == 1) {
+			return nodos.get(0);
+		}
+
+		long ahora = System.currentTimeMillis();
+		Nodo elegido = null;
+		Nodo proximoEnVolver = null;
+		int empates = 0;
+		for (Nodo nodo : nodos) {
+			long expulsadoHasta = nodo.getExpulsadoHasta();
+			if (expulsadoHasta > ahora) {
+				if (proximoEnVolver == null || expulsadoHasta < proximoEnVolver.getExpulsadoHasta()) {
+					proximoEnVolver = nodo;
+				}
+				continue;
+			}
+			if (elegido == null || nodo.getEnCurso() < elegido.getEnCurso()) {
+				elegido = nodo;
+				empates = 1;
+			} else if (nodo.getEnCurso() == elegido.getEnCurso()
+					&& ThreadLocalRandom.current().nextInt(++empates) == 0) {
+				elegido = nodo;
+			}
+		}
+		return elegido != null ? elegido : proximoEnVolver;
+	}
+
+	/**
+	 * @param ruta ruta o URL recibida por el cliente
+	 * @return {@code true} si es una ruta que debe resolverse contra un nodo;
+	 *         {@code false} si ya es una URL completa
+	 */
+	static boolean esRuta(String ruta) {
+		return ruta.startsWith("/");
+	}
+
+	private static String quitarBarraFinal(String direccion) {
+		return direccion.endsWith("/") ? direccion.substring(0, direccion.length() - 1) : direccion;
+	}
+}
@@ -0,0 +1,57 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+
+/**
+ * Error al consultar el backend en las operaciones que devuelven datos ya
+ * decodificados, como {@link BackendClient#getList}.
+ * <p>
+ * Conserva el código de estado HTTP cuando el backend respondió con error, o
+ * {@link BackendResponse#SIN_RESPUESTA} cuando no se obtuvo respuesta.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public class BackendException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Código de estado HTTP, o {@link BackendResponse#SIN_RESPUESTA}. */
+	private final int status;
+
+	/**
+	 * @param status  código de estado devuelto por el backend
+	 * @param mensaje descripción del error
+	 */
+	public BackendException(int status, String mensaje) {
+		super(mensaje);
+		this.status = status;
+	}
+
+	/**
+	 * @param status  código de estado devuelto por el backend
+	 * @param mensaje descripción del error
+	 * @param causa   excepción original
+	 */
+	public BackendException(int status, String mensaje, Throwable causa) {
+		super(mensaje, causa);
+		this.status = status;
+	}
+
+	/**
+	 * @param mensaje descripción del error
+	 * @param causa   excepción original
+	 */
+	public BackendException(String mensaje, Throwable causa) {
+		super(mensaje, causa);
+		this.status = BackendResponse.SIN_RESPUESTA;
+	}
+
+	/**
+	 * @return código de estado HTTP, o {@link BackendResponse#SIN_RESPUESTA}
+	 */
+	public int getStatus() {
+		return status;
+	}
+}
@@ -0,0 +1,108 @@
+package co.edu.unbosque.service;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutores usados para la E/S con el backend y el trabajo en segundo plano.
+ * <p>
+ * El modo se elige con la clave {@code backend.ejecutor.modo} de
+ * {@code backend.properties}:
+ * </p>
+ * <ul>
+ * <li>{@code virtual}: cada tarea corre en un hilo virtual. Una descarga lenta
+ * de un PDF deja de ocupar un hilo de plataforma mientras espera al
+ * socket.</li>
+ * <li>{@code plataforma}: pool de hilos de plataforma daemon, el
+ * comportamiento anterior.</li>
+ * </ul>
+ * <p>
+ * El mismo modo se aplica al ejecutor del {@link java.net.http.HttpClient}
+ * compartido, a las continuaciones de los futuros que este completa y a
+ * cualquier ejecutor creado con {@link #nuevo(String)}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendExecutors {
+
+	/**
+	 * Modos de ejecución disponibles.
+	 */
+	public enum Modo {
+		/** Hilos de plataforma en un pool que crece bajo demanda. */
+		PLATAFORMA,
+		/** Un hilo virtual por tarea. */
+		VIRTUAL
+	}
+
+	/** Modo configurado al iniciar la aplicación. */
+	private static final Modo MODO = leerModo();
+
+	/** Ejecutor de la E/S con el backend. */
+	private static final ExecutorService IO = nuevo("backend-io");
+
+	private BackendExecutors() {
+	}
+
+	/**
+	 * @return modo de ejecución configurado
+	 */
+	public static Modo getModo() {
+		return MODO;
+	}
+
+	/**
+	 * @return ejecutor compartido para la E/S con el backend
+	 */
+	public static ExecutorService io() {
+		return IO;
+	}
+
+	/**
+	 * Crea un ejecutor con el modo configurado. Los hilos de plataforma se crean
+	 * como daemon para no retener el apagado del contenedor.
+	 *
+	 * @param nombre prefijo del nombre de los hilos
+	 * @return ejecutor nuevo
+	 */
+	public static ExecutorService nuevo(String nombre) {
+		if (MODO == Modo.VIRTUAL) {
+			return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(nombre + "-", 0).factory());
+		}
+		return Executors.newCachedThreadPool(fabricaDaemon(nombre));
+	}
+
+	/**
+	 * Fábrica de hilos de plataforma daemon con nombre numerado.
+	 *
+	 * @param nombre prefijo del nombre de los hilos
+	 * @return fábrica de hilos
+	 */
+	static ThreadFactory fabricaDaemon(String nombre) {
+		AtomicInteger contador = new AtomicInteger();
+		return r -> {
+			Thread hilo = new Thread(r, nombre + "-" + contador.getAndIncrement());
+			hilo.setDaemon(true);
+			return hilo;
+		};
+	}
+
+	/**
+	 * @return modo leído de la configuración; {@link Modo#PLATAFORMA} si el valor
+	 *         no es válido
+	 */
+	private static Modo leerModo() {
+		String valor = BackendConfig.getString("backend.ejecutor.modo", "plataforma").toUpperCase(Locale.ROOT);
+		try {
+			return Modo.valueOf(valor);
+		} catch (IllegalArgumentException e) {
+			BackendLog.aviso("Modo de ejecutor desconocido: " + valor + "; se usa PLATAFORMA");
+			return Modo.PLATAFORMA;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package co.edu.unbosque.service;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.stream.JsonReader;
+
+import co.edu.unbosque.codec.Binario;
+import co.edu.unbosque.codec.LectorBinario;
+
+/**
+ * Negociación del formato de los listados y los envíos con el backend: JSON o
+ * el formato binario de {@link Binario}.
+ * <p>
+ * Los listados se piden con {@code Accept} ofreciendo primero el formato
+ * binario y después JSON, de modo que un backend que no lo conoce sigue
+ * respondiendo JSON; la respuesta se lee según su {@code Content-Type}. Se
+ * configura por recurso con {@code backend.<recurso>.binario} o para todos con
+ * {@code backend.binario}.
+ * </p>
+ *
+ * <p>
+ * Los envíos binarios requieren saber que el backend los acepta, por lo que se
+ * activan aparte con {@code backend.<recurso>.binario.envio} o
+ * {@code backend.binario.envio}. Si el backend responde {@code 415}, el envío se
+ * repite en JSON y el recurso vuelve a JSON hasta que se reinicie la
+ * aplicación.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendFormato {
+
+	/** Cabecera {@code Accept} de un listado que admite el formato binario. */
+	private static final String ACEPTAR_BINARIO = Binario.TIPO + ", application/json;q=0.9";
+
+	private static final Map<BackendResource, Boolean> CONSULTA = leer("binario", true);
+	/** Recursos con envíos binarios activados. */
+	private static final Set<BackendResource> ENVIO = activados(leer("binario.envio", false));
+
+	/** Recursos cuyo backend rechazó un envío binario. */
+	private static final Set<BackendResource> RECHAZADOS = ConcurrentHashMap.newKeySet();
+
+	private BackendFormato() {
+	}
+
+	private static Map<BackendResource, Boolean> leer(String sufijo, boolean valorDefecto) {
+		boolean general = BackendConfig.getBoolean("backend." + sufijo, valorDefecto);
+		Map<BackendResource, Boolean> valores = new EnumMap<>(BackendResource.class);
+		for (BackendResource recurso : BackendResource.values()) {
+			valores.put(recurso, BackendConfig.getBoolean("backend." + recurso.getClave() + "." + sufijo, general));
+		}
+		return valores;
+	}
+
+	private static Set<BackendResource> activados(Map<BackendResource, Boolean> valores) {
+		Set<BackendResource> activados = ConcurrentHashMap.newKeySet();
+		valores.forEach((recurso, activo) -> {
+			if (activo) {
+				activados.add(recurso);
+			}
+		});
+		return activados;
+	}
+
+	/**
+	 * @param recurso recurso consultado
+	 * @return valor de la cabecera {@code Accept} de sus listados
+	 */
+	static String aceptar(BackendResource recurso) {
+		return CONSULTA.get(recurso) ? ACEPTAR_BINARIO : "application/json";
+	}
+
+	/**
+	 * @param recurso recurso de destino
+	 * @return {@code true} si sus envíos van en formato binario
+	 */
+	static boolean enviarBinario(BackendResource recurso) {
+		return ENVIO.contains(recurso) && !RECHAZADOS.contains(recurso);
+	}
+
+	/**
+	 * Activa los envíos binarios del recurso aunque la configuración no lo haga,
+	 * para las pruebas que no pueden fijar la configuración antes de que se lea.
+	 *
+	 * @param recurso recurso de destino
+	 */
+	static void activarEnvio(BackendResource recurso) {
+		ENVIO.add(recurso);
+	}
+
+	/**
+	 * Registra que el backend no acepta envíos binarios del recurso.
+	 *
+	 * @param recurso recurso de destino
+	 */
+	static void rechazado(BackendResource recurso) {
+		if (RECHAZADOS.add(recurso)) {
+			BackendLog.aviso("El backend no acepta envíos binarios de " + recurso.getClave() + "; se usa JSON");
+		}
+	}
+
+	/**
+	 * @param cabeceras cabeceras de la respuesta
+	 * @param cuerpo    cuerpo descomprimido de la respuesta
+	 * @return lector del cuerpo en el formato que indica su {@code Content-Type}
+	 */
+	static JsonReader lector(HttpHeaders cabeceras, InputStream cuerpo) {
+		if (Binario.es(cabeceras.firstValue("Content-Type").orElse(null))) {
+			return new LectorBinario(cuerpo);
+		}
+		return new JsonReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,87 @@
+package co.edu.unbosque.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registro de los avisos del cliente del backend y de los servlets que sirven
+ * su contenido.
+ * <p>
+ * Todos los avisos pasan por un único {@link Logger} llamado
+ * {@code co.edu.unbosque.service}, de modo que el servidor de aplicaciones
+ * decide su destino y su nivel. Los que pueden repetirse en cada petición, como
+ * un fallo de conexión con un backend caído, se escriben como máximo una vez
+ * por minuto para cada tipo; el siguiente indica cuántos se omitieron.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendLog {
+
+	private static final Logger LOG = Logger.getLogger("co.edu.unbosque.service");
+
+	/** Tiempo mínimo entre dos avisos del mismo tipo. */
+	private static final long INTERVALO = TimeUnit.MINUTES.toNanos(1);
+
+	/** Último aviso escrito de cada tipo. */
+	private static final Map<String, Ventana> VENTANAS = new ConcurrentHashMap<>();
+
+	private BackendLog() {
+	}
+
+	/**
+	 * Escribe un aviso de un cambio de estado o de configuración, que ocurre
+	 * pocas veces.
+	 *
+	 * @param mensaje texto del aviso
+	 */
+	static void aviso(String mensaje) {
+		LOG.warning(mensaje);
+	}
+
+	/**
+	 * Escribe un aviso que puede repetirse con cada petición, salvo que ya se
+	 * haya escrito otro del mismo tipo en el último minuto.
+	 *
+	 * @param tipo    clave que agrupa los avisos iguales, por ejemplo el recurso
+	 * @param mensaje texto del aviso
+	 */
+	public static void repetido(String tipo, String mensaje) {
+		if (!LOG.isLoggable(Level.WARNING)) {
+			return;
+		}
+		int omitidos = VENTANAS.computeIfAbsent(tipo, t -> new Ventana()).pasar(System.nanoTime());
+		if (omitidos >= 0) {
+			LOG.warning(omitidos > 0 ? mensaje + " (" + omitidos + " avisos iguales omitidos)" : mensaje);
+		}
+	}
+
+	/** Control de frecuencia de un tipo de aviso. */
+	private static final class Ventana {
+
+		private long ultimo;
+		private boolean escrito;
+		private int omitidos;
+
+		/**
+		 * @param ahora instante actual, en {@link System#nanoTime()}
+		 * @return avisos omitidos desde el último escrito, o -1 si este también
+		 *         debe omitirse
+		 */
+		synchronized int pasar(long ahora) {
+			if (escrito && ahora - ultimo < INTERVALO) {
+				omitidos++;
+				return -1;
+			}
+			int anteriores = omitidos;
+			escrito = true;
+			ultimo = ahora;
+			omitidos = 0;
+			return anteriores;
+		}
+	}
+}
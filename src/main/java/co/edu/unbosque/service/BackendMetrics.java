@@ -0,0 +1,423 @@
+package co.edu.unbosque.service;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro en memoria de las métricas de las llamadas al backend por endpoint.
+ * <p>
+ * Un endpoint se identifica por la ruta de la URL sin parámetros, por ejemplo
+ * {@code /libro/getall}. Para cada uno se acumulan:
+ * </p>
+ * <ul>
+ * <li>un histograma de latencia (p50, p90, p99 y máximo);</li>
+ * <li>respuestas por código de estado, tiempos agotados, errores de conexión y
+ * peticiones rechazadas por el {@link BackendCircuito} o no enviadas porque
+ * se agotó el plazo de la página ({@link BackendPlazo});</li>
+ * <li>bytes tal como viajan por la red y una vez descomprimidos, en ambos
+ * sentidos;</li>
+ * <li>listados reutilizados sin decodificar o servidos desde la caché al
+ * agotarse el plazo, llamadas colapsadas, reintentos y coberturas.</li>
+ * </ul>
+ * <p>
+ * Todo se registra con contadores atómicos, sin bloqueos, para no convertir la
+ * medición en un nuevo punto de contención. {@link #getTrafico()} entrega los
+ * contadores a quien los publique, como {@code MetricasServlet}, y
+ * {@link #getConcurrencia()} el límite de concurrencia de cada recurso y
+ * {@link #getCarriles()} la ocupación de cada carril de prioridad.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendMetrics {
+
+	/** Contadores por endpoint. */
+	private static final Map<String, Trafico> TRAFICO = new ConcurrentHashMap<>();
+
+	private BackendMetrics() {
+	}
+
+	/**
+	 * Contadores de un endpoint. Se actualizan sin bloqueo desde varios hilos a
+	 * la vez; cada lectura es una foto aproximada del momento.
+	 */
+	public static final class Trafico {
+
+		private final HistogramaLatencia latencias = new HistogramaLatencia(0);
+		private final Map<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+		private final LongAdder timeouts = new LongAdder();
+		private final LongAdder erroresConexion = new LongAdder();
+		private final LongAdder rechazadas = new LongAdder();
+		private final LongAdder agotadas = new LongAdder();
+
+		private final LongAdder recibidosRed = new LongAdder();
+		private final LongAdder recibidos = new LongAdder();
+		private final LongAdder enviadosRed = new LongAdder();
+		private final LongAdder enviados = new LongAdder();
+		private final LongAdder noModificadas = new LongAdder();
+		private final LongAdder cuerposRepetidos = new LongAdder();
+		private final LongAdder respaldos = new LongAdder();
+		private final LongAdder colapsadas = new LongAdder();
+		private final LongAdder reintentos = new LongAdder();
+		private final LongAdder coberturas = new LongAdder();
+
+		private Trafico() {
+		}
+
+		/** @return llamadas que obtuvieron respuesta o fallaron en la red */
+		public long getLlamadas() {
+			return latencias.getTotal();
+		}
+
+		/**
+		 * @param percentil percentil entre 0 y 1, por ejemplo 0.99
+		 * @return latencia del percentil en microsegundos; 0 si no hay llamadas
+		 */
+		public long getLatenciaMicros(double percentil) {
+			return latencias.percentilMicros(percentil);
+		}
+
+		/** @return latencia máxima en microsegundos */
+		public long getLatenciaMaximaMicros() {
+			return latencias.getMaximoMicros();
+		}
+
+		/** @return respuestas recibidas por código de estado HTTP */
+		public Map<Integer, Long> getEstados() {
+			Map<Integer, Long> copia = new TreeMap<>();
+			estados.forEach((status, conteo) -> copia.put(status, conteo.sum()));
+			return copia;
+		}
+
+		/** @return llamadas que agotaron su tiempo de espera */
+		public long getTimeouts() {
+			return timeouts.sum();
+		}
+
+		/** @return llamadas sin respuesta por otros errores de red */
+		public long getErroresConexion() {
+			return erroresConexion.sum();
+		}
+
+		/** @return llamadas rechazadas sin enviarse por el cortocircuito */
+		public long getRechazadas() {
+			return rechazadas.sum();
+		}
+
+		/** @return consultas no enviadas porque se agotó el plazo de la página */
+		public long getAgotadas() {
+			return agotadas.sum();
+		}
+
+		/** @return bytes de respuesta recibidos por la red, comprimidos o no */
+		public long getRecibidosRed() {
+			return recibidosRed.sum();
+		}
+
+		/** @return bytes de respuesta una vez descomprimidos */
+		public long getRecibidos() {
+			return recibidos.sum();
+		}
+
+		/** @return bytes de petición enviados por la red, comprimidos o no */
+		public long getEnviadosRed() {
+			return enviadosRed.sum();
+		}
+
+		/** @return bytes de petición antes de comprimir */
+		public long getEnviados() {
+			return enviados.sum();
+		}
+
+		/** @return listados reutilizados porque el backend respondió 304 */
+		public long getNoModificadas() {
+			return noModificadas.sum();
+		}
+
+		/** @return listados reutilizados porque el cuerpo era idéntico al anterior */
+		public long getCuerposRepetidos() {
+			return cuerposRepetidos.sum();
+		}
+
+		/** @return listados servidos desde la caché porque se agotó el plazo */
+		public long getRespaldos() {
+			return respaldos.sum();
+		}
+
+		/**
+		 * @return llamadas que no enviaron petición porque compartieron una
+		 *         idéntica en curso
+		 */
+		public long getColapsadas() {
+			return colapsadas.sum();
+		}
+
+		/** @return consultas GET repetidas tras un fallo pasajero */
+		public long getReintentos() {
+			return reintentos.sum();
+		}
+
+		/** @return consultas GET duplicadas porque la primera tardaba */
+		public long getCoberturas() {
+			return coberturas.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "llamadas " + getLlamadas() + " p50/p99/max " + getLatenciaMicros(0.5) / 1000 + "/"
+					+ getLatenciaMicros(0.99) / 1000 + "/" + getLatenciaMaximaMicros() / 1000 + " ms, estados "
+					+ getEstados() + ", timeouts " + getTimeouts() + ", errores " + getErroresConexion()
+					+ ", rechazadas " + getRechazadas() + ", agotadas " + getAgotadas() + ", recibidos "
+					+ getRecibidosRed() + "/" + getRecibidos() + " B, enviados " + getEnviadosRed() + "/"
+					+ getEnviados() + " B, reutilizados " + getNoModificadas() + " (304) + " + getCuerposRepetidos()
+					+ " (hash) + " + getRespaldos() + " (plazo), colapsadas " + getColapsadas() + ", reintentos " + getReintentos() + ", coberturas "
+					+ getCoberturas();
+		}
+	}
+
+	/**
+	 * Estado del límite de concurrencia de un recurso en un momento dado.
+	 */
+	public static final class Concurrencia {
+
+		private final int limite;
+		private final int enCurso;
+		private final long descartadas;
+
+		private Concurrencia(BackendCircuito circuito) {
+			this.limite = circuito.getLimite();
+			this.enCurso = circuito.getEnCurso();
+			this.descartadas = circuito.getDescartadas();
+		}
+
+		/** @return límite actual de peticiones en curso */
+		public int getLimite() {
+			return limite;
+		}
+
+		/** @return peticiones en curso */
+		public int getEnCurso() {
+			return enCurso;
+		}
+
+		/** @return peticiones rechazadas por no encontrar lugar bajo el límite */
+		public long getDescartadas() {
+			return descartadas;
+		}
+
+		@Override
+		public String toString() {
+			return "límite " + limite + ", en curso " + enCurso + ", descartadas " + descartadas;
+		}
+	}
+
+	/**
+	 * Ocupación del carril de una {@link BackendPrioridad} en un momento dado.
+	 */
+	public static final class Carril {
+
+		private final int enCurso;
+		private final int enCola;
+
+		private Carril(BackendCarril carril) {
+			this.enCurso = carril.getEnCurso();
+			this.enCola = carril.getEnCola();
+		}
+
+		/** @return envíos del carril en curso */
+		public int getEnCurso() {
+			return enCurso;
+		}
+
+		/** @return envíos del carril esperando turno */
+		public int getEnCola() {
+			return enCola;
+		}
+
+		@Override
+		public String toString() {
+			return "en curso " + enCurso + ", en cola " + enCola;
+		}
+	}
+
+	/**
+	 * @return copia ordenada por endpoint de los contadores actuales
+	 */
+	public static Map<String, Trafico> getTrafico() {
+		return Collections.unmodifiableMap(new TreeMap<>(TRAFICO));
+	}
+
+	/**
+	 * @return estado del límite de concurrencia de cada recurso, por su clave
+	 */
+	public static Map<String, Concurrencia> getConcurrencia() {
+		Map<String, Concurrencia> concurrencia = new TreeMap<>();
+		for (BackendResource recurso : BackendResource.values()) {
+			concurrencia.put(recurso.getClave(), new Concurrencia(BackendCircuito.de(recurso)));
+		}
+		return Collections.unmodifiableMap(concurrencia);
+	}
+
+	/**
+	 * @return ocupación del carril de cada prioridad, por su clave
+	 */
+	public static Map<String, Carril> getCarriles() {
+		Map<String, Carril> carriles = new TreeMap<>();
+		for (BackendPrioridad prioridad : BackendPrioridad.values()) {
+			carriles.put(prioridad.getClave(), new Carril(BackendCarril.de(prioridad)));
+		}
+		return Collections.unmodifiableMap(carriles);
+	}
+
+	/**
+	 * Registra una llamada que obtuvo respuesta.
+	 *
+	 * @param endpoint endpoint consultado
+	 * @param nanos    duración de la llamada
+	 * @param status   código de estado recibido
+	 */
+	static void registrarLlamada(String endpoint, long nanos, int status) {
+		Trafico trafico = trafico(endpoint);
+		trafico.latencias.registrar(nanos);
+		trafico.estados.computeIfAbsent(status, s -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Registra una llamada que no obtuvo respuesta.
+	 *
+	 * @param endpoint endpoint consultado
+	 * @param nanos    tiempo transcurrido hasta el fallo
+	 * @param timeout  {@code true} si se agotó el tiempo de espera
+	 */
+	static void registrarFallo(String endpoint, long nanos, boolean timeout) {
+		Trafico trafico = trafico(endpoint);
+		trafico.latencias.registrar(nanos);
+		if (timeout) {
+			trafico.timeouts.increment();
+		} else {
+			trafico.erroresConexion.increment();
+		}
+	}
+
+	/**
+	 * Registra una llamada rechazada por el cortocircuito sin enviarse.
+	 *
+	 * @param endpoint endpoint consultado
+	 */
+	static void registrarRechazo(String endpoint) {
+		trafico(endpoint).rechazadas.increment();
+	}
+
+	/**
+	 * Registra una consulta que no se envió porque se agotó el plazo.
+	 *
+	 * @param endpoint endpoint consultado
+	 */
+	static void registrarAgotada(String endpoint) {
+		trafico(endpoint).agotadas.increment();
+	}
+
+	/**
+	 * Registra un listado servido desde la caché porque se agotó el plazo de la
+	 * página antes de recibirlo.
+	 *
+	 * @param endpoint endpoint consultado
+	 */
+	static void registrarRespaldo(String endpoint) {
+		trafico(endpoint).respaldos.increment();
+	}
+
+	/**
+	 * Registra los bytes de una respuesta.
+	 *
+	 * @param endpoint    endpoint consultado
+	 * @param bytesRed    bytes leídos del socket
+	 * @param bytesCuerpo bytes del cuerpo descomprimido
+	 */
+	static void registrarRecepcion(String endpoint, long bytesRed, long bytesCuerpo) {
+		Trafico trafico = trafico(endpoint);
+		trafico.recibidosRed.add(bytesRed);
+		trafico.recibidos.add(bytesCuerpo);
+	}
+
+	/**
+	 * Registra los bytes del cuerpo de una petición.
+	 *
+	 * @param endpoint    endpoint de destino
+	 * @param bytesRed    bytes enviados por el socket
+	 * @param bytesCuerpo bytes del cuerpo sin comprimir
+	 */
+	static void registrarEnvio(String endpoint, long bytesRed, long bytesCuerpo) {
+		Trafico trafico = trafico(endpoint);
+		trafico.enviadosRed.add(bytesRed);
+		trafico.enviados.add(bytesCuerpo);
+	}
+
+	/**
+	 * Registra un listado que no se volvió a decodificar.
+	 *
+	 * @param endpoint     endpoint consultado
+	 * @param noModificado {@code true} si el backend respondió 304,
+	 *                     {@code false} si el cuerpo era idéntico al anterior
+	 */
+	static void registrarReutilizacion(String endpoint, boolean noModificado) {
+		if (noModificado) {
+			trafico(endpoint).noModificadas.increment();
+		} else {
+			trafico(endpoint).cuerposRepetidos.increment();
+		}
+	}
+
+	/**
+	 * Registra una llamada que compartió una petición idéntica en curso.
+	 *
+	 * @param endpoint endpoint consultado
+	 */
+	static void registrarColapsada(String endpoint) {
+		trafico(endpoint).colapsadas.increment();
+	}
+
+	/**
+	 * Registra un reintento de una consulta GET.
+	 *
+	 * @param endpoint endpoint consultado
+	 */
+	static void registrarReintento(String endpoint) {
+		trafico(endpoint).reintentos.increment();
+	}
+
+	/**
+	 * Registra una petición de cobertura de una consulta GET.
+	 *
+	 * @param endpoint endpoint consultado
+	 */
+	static void registrarCobertura(String endpoint) {
+		trafico(endpoint).coberturas.increment();
+	}
+
+	/**
+	 * @param url ruta o URL de la petición
+	 * @return endpoint al que pertenece
+	 */
+	static String endpoint(String url) {
+		return endpoint(URI.create(url));
+	}
+
+	/**
+	 * @param uri URI de la petición
+	 * @return endpoint al que pertenece la URI
+	 */
+	static String endpoint(URI uri) {
+		String ruta = uri.getRawPath();
+		return ruta == null || ruta.isEmpty() ? "/" : ruta;
+	}
+
+	private static Trafico trafico(String endpoint) {
+		return TRAFICO.computeIfAbsent(endpoint, e -> new Trafico());
+	}
+}
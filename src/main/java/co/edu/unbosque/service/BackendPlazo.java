@@ -0,0 +1,126 @@
+package co.edu.unbosque.service;
+
+import java.time.Duration;
+
+/**
+ * Plazo total de la página que se está construyendo, compartido por todas las
+ * consultas al backend que hace la petición.
+ * <p>
+ * Sin él, cada consulta tiene su propio tiempo de espera y una página que hace
+ * varias puede tardar la suma de todos. {@code PlazoPaginaFilter} abre el plazo
+ * al recibir la petición, o {@code PlazoRenderListener} al empezar a dibujar la
+ * respuesta de un postback, y el filtro lo cierra al terminar; mientras tanto,
+ * cada GET espera como máximo lo que quede de él, aunque su recurso admita más.
+ * Si el plazo ya se agotó la consulta falla de inmediato sin tocar la red, y un
+ * listado que tenga copia en {@link BackendCache} devuelve esa copia.
+ * </p>
+ *
+ * <p>
+ * El presupuesto de cada vista se configura en {@code backend.properties} con
+ * {@code backend.vista.<vista>.plazo} (por ejemplo
+ * {@code backend.vista.evento.plazo}) o, para todas, con
+ * {@code backend.vista.plazo}, en milisegundos; 0 deja la vista sin plazo. Los
+ * POST y DELETE no lo usan: cortar un envío a medias dejaría al usuario sin
+ * saber si se guardó.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendPlazo {
+
+	/**
+	 * Tiempo mínimo que debe quedar para enviar una consulta; con menos no
+	 * alcanzaría a responder y sólo ocuparía al backend.
+	 */
+	private static final long MINIMO_NANOS = Duration
+			.ofMillis(BackendConfig.getLong("backend.vista.plazo.minimo", 50)).toNanos();
+
+	/** Instante límite de la página del hilo, en {@link System#nanoTime()}. */
+	private static final ThreadLocal<Long> LIMITE = new ThreadLocal<>();
+
+	private BackendPlazo() {
+	}
+
+	/**
+	 * @param vista nombre de la vista, por ejemplo {@code "evento"}
+	 * @return presupuesto configurado para la vista; {@link Duration#ZERO} si no
+	 *         tiene plazo
+	 */
+	public static Duration presupuesto(String vista) {
+		long millis = BackendConfig.getLong("backend.vista." + vista + ".plazo",
+				BackendConfig.getLong("backend.vista.plazo", 0));
+		return Duration.ofMillis(Math.max(0, millis));
+	}
+
+	/**
+	 * Abre el plazo de la página en el hilo actual. Quien lo abre debe cerrarlo
+	 * con {@link #terminar()}.
+	 *
+	 * @param presupuesto tiempo total disponible para las consultas de la página
+	 */
+	public static void iniciar(Duration presupuesto) {
+		LIMITE.set(System.nanoTime() + presupuesto.toNanos());
+	}
+
+	/**
+	 * Cierra el plazo de la página del hilo actual.
+	 */
+	public static void terminar() {
+		LIMITE.remove();
+	}
+
+	/**
+	 * @return {@code true} si el hilo actual está construyendo una página con
+	 *         plazo
+	 */
+	static boolean activo() {
+		return LIMITE.get() != null;
+	}
+
+	/**
+	 * Calcula el instante límite de una consulta que empieza ahora: el plazo del
+	 * recurso, recortado por el de la página si lo hay. Debe llamarse desde el
+	 * hilo que atiende la página, antes de pasar la consulta a otro hilo.
+	 *
+	 * @param recurso recurso consultado
+	 * @return instante límite, en {@link System#nanoTime()}
+	 */
+	static long limite(BackendResource recurso) {
+		long propio = System.nanoTime() + recurso.getPlazoConsulta().toNanos();
+		Long pagina = LIMITE.get();
+		return pagina != null && pagina - propio < 0 ? pagina : propio;
+	}
+
+	/**
+	 * @param limite instante límite, en {@link System#nanoTime()}
+	 * @return nanosegundos que quedan hasta el límite; negativo si ya pasó
+	 */
+	static long restante(long limite) {
+		return limite - System.nanoTime();
+	}
+
+	/**
+	 * @param limite instante límite, en {@link System#nanoTime()}
+	 * @return {@code true} si no queda tiempo suficiente para otra consulta
+	 */
+	static boolean agotado(long limite) {
+		return restante(limite) < MINIMO_NANOS;
+	}
+
+	/**
+	 * @param recurso recurso consultado
+	 * @return mensaje de una consulta que se quedó sin tiempo
+	 */
+	static String mensajeAgotado(BackendResource recurso) {
+		return "Tiempo de espera agotado en " + recurso.getClave();
+	}
+
+	/**
+	 * @param recurso recurso cuya consulta no se envía
+	 * @return error de una consulta que no se envió por falta de tiempo
+	 */
+	static BackendException plazoAgotado(BackendResource recurso) {
+		return new BackendException(BackendResponse.SIN_RESPUESTA, mensajeAgotado(recurso));
+	}
+}
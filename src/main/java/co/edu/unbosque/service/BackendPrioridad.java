@@ -0,0 +1,48 @@
+package co.edu.unbosque.service;
+
+/**
+ * Clases de prioridad de las peticiones al backend.
+ * <p>
+ * Cada prioridad viaja por su propio carril ({@link BackendCarril}): un
+ * {@link java.net.http.HttpClient} con sus conexiones y su ejecutor, y un
+ * máximo propio de peticiones en curso. Así una subida pesada, como el PDF de
+ * un libro, nunca retrasa las consultas con las que se arma una página.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public enum BackendPrioridad {
+
+	/** Consultas y envíos de los que depende la página que ve el usuario. */
+	INTERACTIVA("interactiva"),
+
+	/** Subidas pesadas, refrescos de caché y operaciones masivas. */
+	FONDO("fondo");
+
+	/** Clave usada en la configuración. */
+	private final String clave;
+
+	private BackendPrioridad(String clave) {
+		this.clave = clave;
+	}
+
+	/**
+	 * @return clave de la prioridad (por ejemplo {@code "fondo"})
+	 */
+	public String getClave() {
+		return clave;
+	}
+
+	/**
+	 * Prioridad de un envío sin prioridad explícita: los cuerpos de al menos
+	 * {@code backend.prioridad.fondo.umbral} bytes (1 MiB por defecto) van por
+	 * el carril de fondo.
+	 *
+	 * @param bytes tamaño del cuerpo a enviar
+	 * @return prioridad del envío
+	 */
+	public static BackendPrioridad segunTamanio(long bytes) {
+		return bytes >= BackendConfig.getLong("backend.prioridad.fondo.umbral", 1024 * 1024) ? FONDO : INTERACTIVA;
+	}
+}
@@ -0,0 +1,158 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de reintentos y de peticiones de cobertura (<i>hedging</i>) para
+ * las consultas GET, que son idempotentes. Los POST y DELETE nunca pasan por
+ * aquí: reenviarlos a ciegas podría duplicar un registro o una eliminación.
+ * <p>
+ * Configuración en {@code backend.properties}:
+ * </p>
+ * <ul>
+ * <li>{@code backend.reintentos}: reintentos tras un fallo de transporte o un
+ * 502/503/504 (2 por defecto).</li>
+ * <li>{@code backend.reintentos.espera}: base en milisegundos de la espera
+ * exponencial; cada espera es un valor al azar entre 0 y
+ * {@code base * 2^intento} (<i>full jitter</i>), para que los clientes no
+ * reintenten todos a la vez.</li>
+ * <li>{@code backend.cobertura}: si se envía una segunda petición cuando la
+ * primera tarda más que el percentil 95 observado del recurso.</li>
+ * </ul>
+ * <p>
+ * Todas admiten un valor por recurso, por ejemplo
+ * {@code backend.libro.cobertura}. Ningún reintento ni cobertura se lanza si
+ * ya no cabe en el plazo total de {@link BackendResource#getPlazoConsulta()}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class BackendReintentos {
+
+	/** Muestras mínimas antes de confiar en el percentil 95 para cubrir. */
+	private static final long MUESTRAS_MINIMAS = 20;
+
+	/** Retraso mínimo de una cobertura, para no duplicar respuestas rápidas. */
+	private static final long COBERTURA_MINIMA_MILLIS = 20;
+
+	/** Política de cada recurso. */
+	private static final Map<BackendResource, BackendReintentos> POLITICAS = crearPoliticas();
+
+	private final int reintentos;
+	private final long esperaBaseMillis;
+	private final boolean cobertura;
+
+	/** Latencias de las consultas del recurso que obtuvieron respuesta. */
+	private final HistogramaLatencia latencias = new HistogramaLatencia(2048);
+
+	private BackendReintentos(BackendResource recurso) {
+		String prefijo = "backend." + recurso.getClave() + ".";
+		this.reintentos = Math.max(0,
+				BackendConfig.getInt(prefijo + "reintentos", BackendConfig.getInt("backend.reintentos", 2)));
+		this.esperaBaseMillis = BackendConfig.getLong(prefijo + "reintentos.espera",
+				BackendConfig.getLong("backend.reintentos.espera", 100));
+		this.cobertura = BackendConfig.getBoolean(prefijo + "cobertura",
+				BackendConfig.getBoolean("backend.cobertura", false));
+	}
+
+	private static Map<BackendResource, BackendReintentos> crearPoliticas() {
+		Map<BackendResource, BackendReintentos> politicas = new EnumMap<>(BackendResource.class);
+		for (BackendResource recurso : BackendResource.values()) {
+			politicas.put(recurso, new BackendReintentos(recurso));
+		}
+		return politicas;
+	}
+
+	/**
+	 * @param recurso recurso del backend
+	 * @return política del recurso
+	 */
+	static BackendReintentos de(BackendResource recurso) {
+		return POLITICAS.get(recurso);
+	}
+
+	/**
+	 * Registra la latencia de una consulta que obtuvo respuesta.
+	 *
+	 * @param nanos tiempo hasta recibir la respuesta
+	 */
+	void registrarLatencia(long nanos) {
+		latencias.registrar(nanos);
+	}
+
+	/**
+	 * @param intento número del intento que acaba de fallar, desde 0
+	 * @param limite  instante límite de la consulta, en {@link System#nanoTime()}
+	 * @return milisegundos a esperar antes de reintentar, o -1 si no se debe
+	 *         reintentar porque se agotaron los intentos o el plazo
+	 */
+	long esperaReintento(int intento, long limite) {
+		if (intento >= reintentos) {
+			return -1;
+		}
+		long tope = esperaBaseMillis << Math.min(intento, 20);
+		long espera = ThreadLocalRandom.current().nextLong(tope + 1);
+		// el reintento debe tener tiempo para algo más que esperar
+		long restante = Duration.ofNanos(limite - System.nanoTime()).toMillis();
+		return restante > espera + COBERTURA_MINIMA_MILLIS ? espera : -1;
+	}
+
+	/**
+	 * @param limite instante límite de la consulta, en {@link System#nanoTime()}
+	 * @return milisegundos tras los que se lanza la cobertura, o -1 si no se
+	 *         cubre porque está desactivada, faltan muestras o no cabe en el plazo
+	 */
+	long retrasoCobertura(long limite) {
+		if (!cobertura || latencias.getTotal() < MUESTRAS_MINIMAS) {
+			return -1;
+		}
+		long retraso = Math.max(COBERTURA_MINIMA_MILLIS, latencias.percentilMicros(0.95) / 1000);
+		long restante = Duration.ofNanos(limite - System.nanoTime()).toMillis();
+		return restante > retraso ? retraso : -1;
+	}
+
+	/**
+	 * @param limite  instante límite de la consulta, en {@link System#nanoTime()}
+	 * @param recurso recurso consultado
+	 * @return tiempo de espera de un intento: el del recurso, sin pasar del plazo
+	 *         restante
+	 */
+	static Duration timeoutIntento(long limite, BackendResource recurso) {
+		Duration restante = Duration.ofNanos(Math.max(limite - System.nanoTime(), Duration.ofMillis(1).toNanos()));
+		Duration timeout = recurso.getTimeoutConsulta();
+		return restante.compareTo(timeout) < 0 ? restante : timeout;
+	}
+
+	/**
+	 * @param status estado de una respuesta recibida
+	 * @return {@code true} si el estado indica un fallo pasajero del backend
+	 */
+	static boolean reintentable(int status) {
+		return status == 502 || status == 503 || status == 504;
+	}
+
+	/**
+	 * Indica si un fallo de transporte justifica reintentar. Los rechazos del
+	 * {@link BackendCircuito}, las interrupciones y los tiempos agotados no se
+	 * reintentan: repetirlos sólo alargaría la espera.
+	 *
+	 * @param error excepción recibida, posiblemente envuelta
+	 * @return {@code true} si se puede reintentar
+	 */
+	static boolean reintentable(Throwable error) {
+		Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (causa instanceof BackendException) {
+			BackendException e = (BackendException) causa;
+			return reintentable(e.getStatus()) || e.getStatus() == BackendResponse.SIN_RESPUESTA
+					&& e.getCause() instanceof IOException && !(e.getCause() instanceof HttpTimeoutException);
+		}
+		return causa instanceof IOException && !(causa instanceof HttpTimeoutException);
+	}
+}
@@ -0,0 +1,91 @@
+package co.edu.unbosque.service;
+
+import java.time.Duration;
+
+/**
+ * Recursos del backend consumidos por el frontend de Artemisa.
+ * <p>
+ * Cada recurso define los tiempos de espera por defecto que antes estaban
+ * repartidos entre los distintos servicios. Los valores pueden sobrescribirse
+ * en {@code backend.properties} con las claves
+ * {@code backend.<recurso>.timeout.consulta} y
+ * {@code backend.<recurso>.timeout.envio} (en milisegundos).
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public enum BackendResource {
+
+	/** Operaciones de estudiantes (login, registro e imagen de perfil). */
+	ESTUDIANTE("estudiante", 30000, 30000),
+
+	/** Operaciones de profesores (login, registro e imagen de perfil). */
+	PROFESOR("profesor", 30000, 30000),
+
+	/** Operaciones de administradores (login, registro e imagen de perfil). */
+	ADMINISTRADOR("admin", 30000, 30000),
+
+	/** Temarios de algoritmos. */
+	TEMARIO("temario", 30000, 30000),
+
+	/** Problemas de jueces en línea. */
+	PROBLEMA("problema", 5000, 5000),
+
+	/** Eventos del calendario. */
+	EVENTO("evento", 5000, 5000),
+
+	/** Libros; incluyen portada y PDF, por eso sus tiempos son mayores. */
+	LIBRO("libro", 60000, 120000),
+
+	/** Links valiosos con imagen asociada. */
+	LINK("link", 5000, 5000);
+
+	/** Clave usada en la configuración y en las rutas del backend. */
+	private final String clave;
+
+	/** Tiempo de espera por defecto para GET y DELETE, en milisegundos. */
+	private final long timeoutConsultaPorDefecto;
+
+	/** Tiempo de espera por defecto para POST, en milisegundos. */
+	private final long timeoutEnvioPorDefecto;
+
+	private BackendResource(String clave, long timeoutConsultaPorDefecto, long timeoutEnvioPorDefecto) {
+		this.clave = clave;
+		this.timeoutConsultaPorDefecto = timeoutConsultaPorDefecto;
+		this.timeoutEnvioPorDefecto = timeoutEnvioPorDefecto;
+	}
+
+	/**
+	 * @return clave del recurso (por ejemplo {@code "libro"})
+	 */
+	public String getClave() {
+		return clave;
+	}
+
+	/**
+	 * @return tiempo máximo de espera para consultas (GET y DELETE)
+	 */
+	public Duration getTimeoutConsulta() {
+		return Duration.ofMillis(
+				BackendConfig.getLong("backend." + clave + ".timeout.consulta", timeoutConsultaPorDefecto));
+	}
+
+	/**
+	 * Plazo total de una consulta GET, incluidos sus reintentos y peticiones de
+	 * cobertura. Se configura con {@code backend.<recurso>.plazo}; por defecto
+	 * coincide con {@link #getTimeoutConsulta()}.
+	 *
+	 * @return plazo total de una consulta
+	 */
+	public Duration getPlazoConsulta() {
+		return Duration.ofMillis(BackendConfig.getLong("backend." + clave + ".plazo", getTimeoutConsulta().toMillis()));
+	}
+
+	/**
+	 * @return tiempo máximo de espera para envíos (POST)
+	 */
+	public Duration getTimeoutEnvio() {
+		return Duration.ofMillis(BackendConfig.getLong("backend." + clave + ".timeout.envio", timeoutEnvioPorDefecto));
+	}
+}
@@ -0,0 +1,162 @@
+package co.edu.unbosque.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * Respuesta tipada de una petición al backend.
+ * <p>
+ * Reemplaza el protocolo anterior {@code "<estado>\n<cuerpo>"}: los beans
+ * consultan {@link #getStatus()} o {@link #isExitosa()} sin recorrer ni copiar
+ * el cuerpo. El cuerpo se conserva como bytes y solo se convierte a
+ * {@link String} la primera vez que se pide con {@link #getBody()}; para
+ * decodificar JSON conviene usar {@link #getBodyReader()}, que lee los bytes
+ * directamente sin crear la cadena intermedia.
+ * </p>
+ *
+ * <p>
+ * Cuando no se obtiene respuesta (error de conexión, tiempo agotado o
+ * interrupción) el estado es {@link #SIN_RESPUESTA} y el motivo queda en
+ * {@link #getMensajeError()}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class BackendResponse {
+
+	/** Estado usado cuando el backend no llegó a responder. */
+	public static final int SIN_RESPUESTA = 0;
+
+	/** Cabeceras vacías para las respuestas sin conexión. */
+	private static final HttpHeaders SIN_CABECERAS = HttpHeaders.of(Collections.emptyMap(), (a, b) -> true);
+
+	/** Código de estado HTTP. */
+	private final int status;
+
+	/** Cabeceras de la respuesta. */
+	private final HttpHeaders headers;
+
+	/** Cuerpo sin decodificar. */
+	private final byte[] cuerpo;
+
+	/** Motivo del fallo cuando no hubo respuesta. */
+	private final String mensajeError;
+
+	/**
+	 * Cuerpo decodificado; se calcula al primer acceso. La misma respuesta puede
+	 * llegar a varios hilos (GET compartidos), pero calcularla dos veces da una
+	 * cadena igual, así que no hace falta sincronizar.
+	 */
+	private String cuerpoTexto;
+
+	/**
+	 * @param status  código de estado HTTP
+	 * @param headers cabeceras de la respuesta
+	 * @param cuerpo  cuerpo sin decodificar
+	 */
+	public BackendResponse(int status, HttpHeaders headers, byte[] cuerpo) {
+		this.status = status;
+		this.headers = headers != null ? headers : SIN_CABECERAS;
+		this.cuerpo = cuerpo != null ? cuerpo : new byte[0];
+		this.mensajeError = null;
+	}
+
+	private BackendResponse(String mensajeError) {
+		this.status = SIN_RESPUESTA;
+		this.headers = SIN_CABECERAS;
+		this.cuerpo = new byte[0];
+		this.mensajeError = mensajeError;
+	}
+
+	/**
+	 * Crea una respuesta para una petición que no llegó al backend.
+	 *
+	 * @param mensajeError motivo del fallo
+	 * @return respuesta sin estado HTTP
+	 */
+	public static BackendResponse sinRespuesta(String mensajeError) {
+		return new BackendResponse(mensajeError);
+	}
+
+	/**
+	 * @return código de estado HTTP, o {@link #SIN_RESPUESTA}
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return {@code true} si el estado está entre 200 y 299
+	 */
+	public boolean isExitosa() {
+		return status >= 200 && status < 300;
+	}
+
+	/**
+	 * @return {@code true} si la petición no obtuvo respuesta del backend
+	 */
+	public boolean isSinRespuesta() {
+		return status == SIN_RESPUESTA;
+	}
+
+	/**
+	 * @return cabeceras de la respuesta
+	 */
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return cuerpo de la respuesta como texto UTF-8
+	 */
+	public String getBody() {
+		if (cuerpoTexto == null) {
+			cuerpoTexto = new String(cuerpo, StandardCharsets.UTF_8);
+		}
+		return cuerpoTexto;
+	}
+
+	/**
+	 * @return lector sobre el cuerpo, sin copiarlo a un {@link String}
+	 */
+	public Reader getBodyReader() {
+		return new InputStreamReader(new ByteArrayInputStream(cuerpo), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return tamaño del cuerpo en bytes
+	 */
+	public int getLongitud() {
+		return cuerpo.length;
+	}
+
+	/**
+	 * @return motivo del fallo si no hubo respuesta, o {@code null}
+	 */
+	public String getMensajeError() {
+		return mensajeError;
+	}
+
+	/**
+	 * Describe la respuesta para los mensajes de error de la interfaz. Solo debe
+	 * usarse con respuestas no exitosas, cuyo cuerpo es pequeño.
+	 *
+	 * @return descripción legible del resultado
+	 */
+	public String describir() {
+		if (isSinRespuesta()) {
+			return "Error: " + mensajeError;
+		}
+		return "Error " + status + ": " + getBody();
+	}
+
+	@Override
+	public String toString() {
+		return "BackendResponse [status=" + status + ", bytes=" + cuerpo.length + "]";
+	}
+}
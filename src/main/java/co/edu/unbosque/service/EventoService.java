@@ -1,34 +1,23 @@
 package co.edu.unbosque.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import com.google.gson.TypeAdapter;
 
 /**
  * Servicio que maneja las operaciones HTTP relacionadas con eventos.
  * <p>
  * Proporciona métodos para realizar solicitudes {@code GET}, {@code POST} y
- * {@code DELETE} hacia un backend o API REST utilizando
- * {@link java.net.HttpURLConnection}.
+ * {@code DELETE} hacia un backend o API REST utilizando el cliente compartido
+ * {@link BackendClient}.
  * </p>
  *
  * <p>
- * Los métodos devuelven como respuesta una cadena con el formato:
+ * Los métodos devuelven un {@link BackendResponse} con el código de estado
+ * HTTP, las cabeceras y el cuerpo de la respuesta (JSON o mensaje de error).
  * </p>
- * <ul>
- * <li>Código de estado HTTP.</li>
- * <li>Cuerpo de la respuesta (JSON o mensaje de error).</li>
- * </ul>
- *
- * Ejemplo de respuesta: <br>
- * 
- * <pre>
- * 200
- * {"id":1,"nombre":"Evento de prueba"}
- * </pre>
  *
  * @author
  * @version 1.0
@@ -39,41 +28,28 @@ public class EventoService {
 	 * Realiza una petición HTTP GET a la URL especificada.
 	 *
 	 * @param urlString la URL del recurso al que se desea acceder
-	 * @return una cadena que incluye el código de estado HTTP y el cuerpo de la
-	 *         respuesta; en caso de error, devuelve un mensaje descriptivo con la
-	 *         excepción.
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doGet(String urlString) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			int responseCode = connection.getResponseCode();
-
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-			}
-
-			StringBuilder response = new StringBuilder();
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
-
-			return responseCode + "\n" + response.toString();
+	public static BackendResponse doGet(String urlString) {
+		return BackendClient.get(BackendResource.EVENTO, urlString);
+	}
 
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	/**
+	 * Consulta un listado de eventos y lo decodifica elemento por elemento
+	 * directamente desde la respuesta, sin copiar el cuerpo completo.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return elementos decodificados
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> List<T> doGetList(String urlString, TypeAdapter<T> adaptador, Predicate<? super T> filtro)
+			throws BackendException {
+		return BackendClient.getList(BackendResource.EVENTO, urlString, adaptador, filtro);
 	}
 
 	/**
@@ -83,89 +59,66 @@ public class EventoService {
 	 * @param urlString la URL del recurso al que se desea enviar información
 	 * @param jsonData  el contenido en formato JSON que será enviado en el cuerpo
 	 *                  de la petición
-	 * @return una cadena que incluye el código de estado HTTP y el cuerpo de la
-	 *         respuesta; en caso de error, devuelve un mensaje descriptivo con la
-	 *         excepción.
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doPost(String urlString, String jsonData) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("POST");
-			connection.setRequestProperty("Content-Type", "application/json");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setDoOutput(true);
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
-
-			try (OutputStream os = connection.getOutputStream()) {
-				os.write(input, 0, input.length);
-			}
-
-			int responseCode = connection.getResponseCode();
-
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-			}
-
-			StringBuilder response = new StringBuilder();
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
-
-			return responseCode + "\n" + response.toString();
-
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	public static BackendResponse doPost(String urlString, String jsonData) {
+		return BackendClient.post(BackendResource.EVENTO, urlString, jsonData);
 	}
 
 	/**
 	 * Realiza una petición HTTP DELETE a la URL especificada.
 	 *
 	 * @param urlString la URL del recurso que se desea eliminar
-	 * @return una cadena que incluye el código de estado HTTP y el cuerpo de la
-	 *         respuesta; en caso de error, devuelve un mensaje descriptivo con la
-	 *         excepción.
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doDelete(String urlString) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("DELETE");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			int responseCode = connection.getResponseCode();
+	public static BackendResponse doDelete(String urlString) {
+		return BackendClient.delete(BackendResource.EVENTO, urlString);
+	}
 
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-			}
+	/**
+	 * Versión asíncrona de {@link #doGet(String)}.
+	 *
+	 * @param urlString la URL del recurso a consultar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doGetAsync(String urlString) {
+		return BackendClient.getAsync(BackendResource.EVENTO, urlString);
+	}
 
-			StringBuilder response = new StringBuilder();
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
+	/**
+	 * Versión asíncrona de {@link #doPost(String, String)}.
+	 *
+	 * @param urlString la URL de destino
+	 * @param json      el contenido JSON a enviar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doPostAsync(String urlString, String json) {
+		return BackendClient.postAsync(BackendResource.EVENTO, urlString, json);
+	}
 
-			return responseCode + "\n" + response.toString();
+	/**
+	 * Versión asíncrona de {@link #doDelete(String)}.
+	 *
+	 * @param urlString la URL del recurso a eliminar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doDeleteAsync(String urlString) {
+		return BackendClient.deleteAsync(BackendResource.EVENTO, urlString);
+	}
 
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	/**
+	 * Versión asíncrona de {@link #doGetList(String, TypeAdapter, Predicate)}.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return futuro con los elementos decodificados
+	 */
+	public static <T> CompletableFuture<List<T>> doGetListAsync(String urlString, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro) {
+		return BackendClient.getListAsync(BackendResource.EVENTO, urlString, adaptador, filtro);
 	}
 }
@@ -0,0 +1,127 @@
+package co.edu.unbosque.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias sin bloqueos.
+ * <p>
+ * Las muestras se agrupan en intervalos que crecen un 20 % cada uno, desde un
+ * microsegundo hasta varios minutos, así que un percentil se conoce con un
+ * error relativo menor al 20 % usando un arreglo fijo de contadores. Registrar
+ * una muestra es un incremento atómico, sin sincronización entre hilos.
+ * </p>
+ *
+ * <p>
+ * Si se crea con una ventana, cada vez que se acumulan esa cantidad de
+ * muestras todos los contadores se reducen a la mitad, de modo que los
+ * percentiles siguen la latencia reciente y no la de toda la vida de la
+ * aplicación.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class HistogramaLatencia {
+
+	/** Factor de crecimiento entre intervalos consecutivos. */
+	private static final double CRECIMIENTO = 1.2;
+
+	/** Cantidad de intervalos: 1.2^112 µs supera los 12 minutos. */
+	private static final int INTERVALOS = 112;
+
+	private static final double LOG_CRECIMIENTO = Math.log(CRECIMIENTO);
+
+	private final AtomicLongArray conteos = new AtomicLongArray(INTERVALOS);
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong maximo = new AtomicLong();
+	private final long ventana;
+
+	/**
+	 * @param ventana muestras tras las que se reducen los contadores a la mitad, o
+	 *                0 para acumular sin olvidar
+	 */
+	HistogramaLatencia(long ventana) {
+		this.ventana = ventana;
+	}
+
+	/**
+	 * Registra una muestra.
+	 *
+	 * @param nanos duración en nanosegundos
+	 */
+	void registrar(long nanos) {
+		long micros = Math.max(1, nanos / 1000);
+		conteos.incrementAndGet(intervalo(micros));
+		maximo.accumulateAndGet(micros, Math::max);
+		if (total.incrementAndGet() == ventana) {
+			olvidarMitad();
+		}
+	}
+
+	/**
+	 * @return muestras registradas (tras las reducciones de la ventana)
+	 */
+	long getTotal() {
+		return total.get();
+	}
+
+	/**
+	 * @return latencia máxima registrada, en microsegundos
+	 */
+	long getMaximoMicros() {
+		return maximo.get();
+	}
+
+	/**
+	 * Calcula un percentil.
+	 *
+	 * @param fraccion percentil entre 0 y 1, por ejemplo 0.95
+	 * @return límite superior, en microsegundos, del intervalo que contiene el
+	 *         percentil; 0 si no hay muestras
+	 */
+	long percentilMicros(double fraccion) {
+		long[] copia = new long[INTERVALOS];
+		long suma = 0;
+		for (int i = 0; i < INTERVALOS; i++) {
+			copia[i] = conteos.get(i);
+			suma += copia[i];
+		}
+		if (suma == 0) {
+			return 0;
+		}
+
+		long objetivo = (long) Math.ceil(suma * fraccion);
+		long acumulado = 0;
+		for (int i = 0; i < INTERVALOS; i++) {
+			acumulado += copia[i];
+			if (acumulado >= objetivo) {
+				return Math.min(limiteSuperior(i), maximo.get());
+			}
+		}
+		return maximo.get();
+	}
+
+	/**
+	 * Reduce todos los contadores a la mitad. Una muestra que llegue a la vez
+	 * puede perderse o contarse doble; para un percentil aproximado no importa.
+	 */
+	private void olvidarMitad() {
+		long restante = 0;
+		for (int i = 0; i < INTERVALOS; i++) {
+			long mitad = conteos.get(i) / 2;
+			conteos.set(i, mitad);
+			restante += mitad;
+		}
+		total.set(restante);
+	}
+
+	private static int intervalo(long micros) {
+		int i = (int) (Math.log(micros) / LOG_CRECIMIENTO);
+		return Math.min(Math.max(i, 0), INTERVALOS - 1);
+	}
+
+	private static long limiteSuperior(int intervalo) {
+		return (long) Math.ceil(Math.pow(CRECIMIENTO, intervalo + 1));
+	}
+}
@@ -0,0 +1,134 @@
+package co.edu.unbosque.service;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.google.gson.TypeAdapter;
+
+import co.edu.unbosque.dto.LibroDTO;
+
+/**
+ * Búsqueda de un libro por identificador, con vuelta al listado completo
+ * cuando el backend no tiene esa consulta.
+ * <p>
+ * El listado completo lleva la portada y el PDF de todos los libros, así que
+ * solo se recorre si la consulta por id no existe: si responde {@code 400},
+ * {@code 405} o {@code 501}, o {@code 404} antes de haber respondido alguna vez
+ * por un libro que el resumen del catálogo sí tiene. Una vez que la consulta
+ * respondió, un {@code 404} es un libro que no existe.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class LibroBusqueda {
+
+	/**
+	 * Consulta de un libro en una URL del backend, leída en flujo hasta
+	 * encontrarlo.
+	 */
+	@FunctionalInterface
+	interface Consulta {
+
+		/**
+		 * @param url       URL del libro o del listado
+		 * @param adaptador adaptador que decodifica lo necesario del libro
+		 * @param filtro    condición que identifica al libro buscado
+		 * @return libro encontrado, o {@code null} si no está
+		 * @throws BackendException si no hay respuesta, el estado no es 2xx o el
+		 *                          JSON es inválido
+		 */
+		LibroDTO buscar(String url, TypeAdapter<LibroDTO> adaptador, Predicate<LibroDTO> filtro)
+				throws BackendException;
+	}
+
+	/**
+	 * Resumen del catálogo, sin portadas ni PDF.
+	 */
+	@FunctionalInterface
+	interface Resumen {
+
+		/**
+		 * @return libros del catálogo
+		 * @throws BackendException si el resumen no se pudo consultar
+		 */
+		List<LibroDTO> libros() throws BackendException;
+	}
+
+	private final String porId;
+	private final String listado;
+	private final Consulta consulta;
+	private final Resumen resumen;
+
+	/**
+	 * {@code false} cuando se comprobó que el backend no tiene la consulta por
+	 * identificador; desde entonces los libros se buscan en el listado.
+	 */
+	private volatile boolean disponible;
+
+	/** {@code true} cuando la consulta por identificador ya respondió un libro. */
+	private volatile boolean comprobada;
+
+	/**
+	 * @param porId    consulta por identificador, a la que se agrega el id; vacía
+	 *                 si el backend no la tiene
+	 * @param listado  listado completo del catálogo
+	 * @param consulta consulta de un libro en el backend
+	 * @param resumen  resumen del catálogo, que debe estar en caché
+	 */
+	LibroBusqueda(String porId, String listado, Consulta consulta, Resumen resumen) {
+		this.porId = porId;
+		this.listado = listado;
+		this.consulta = consulta;
+		this.resumen = resumen;
+		this.disponible = !porId.isEmpty();
+	}
+
+	/**
+	 * Busca un libro por identificador y, si el backend no tiene esa consulta,
+	 * en el listado completo.
+	 *
+	 * @param id        identificador del libro
+	 * @param campos    parámetros que se agregan a la consulta por id
+	 * @param adaptador adaptador que decodifica lo necesario del libro buscado
+	 * @return libro encontrado, o {@code null} si no existe
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	LibroDTO buscar(long id, String campos, TypeAdapter<LibroDTO> adaptador) throws BackendException {
+		Predicate<LibroDTO> esElLibro = libro -> libro.getId() != null && libro.getId() == id;
+		int status = 0;
+		if (disponible) {
+			try {
+				LibroDTO libro = consulta.buscar(porId + id + campos, adaptador, esElLibro);
+				comprobada = true;
+				return libro;
+			} catch (BackendException e) {
+				status = e.getStatus();
+				if (status == 404) {
+					if (comprobada || !enResumen(id)) {
+						return null;
+					}
+				} else if (status != 400 && status != 405 && status != 501) {
+					throw e;
+				}
+			}
+		}
+
+		LibroDTO libro = consulta.buscar(listado, adaptador, esElLibro);
+		// un 404 del libro que sí está en el listado es un 404 de la ruta
+		if (status != 0 && (status != 404 || libro != null)) {
+			disponible = false;
+		}
+		return libro;
+	}
+
+	private boolean enResumen(long id) throws BackendException {
+		for (LibroDTO libro : resumen.libros()) {
+			if (libro.getId() != null && libro.getId() == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
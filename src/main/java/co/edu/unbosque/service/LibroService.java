@@ -1,144 +1,214 @@
 package co.edu.unbosque.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import com.google.gson.TypeAdapter;
+
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.codec.CuerpoJson;
+import co.edu.unbosque.codec.FuenteFlujo;
+import co.edu.unbosque.dto.LibroDTO;
 
 /**
  * Servicio que maneja las operaciones HTTP relacionadas con libros.
  * <p>
  * Esta clase proporciona métodos estáticos para realizar peticiones
- * {@code GET}, {@code POST} y {@code DELETE} a un backend o API REST,
- * utilizando {@link java.net.HttpURLConnection}.
+ * {@code GET}, {@code POST} y {@code DELETE} a un backend o API REST, a través
+ * del cliente compartido {@link BackendClient} con los tiempos de espera de
+ * {@link BackendResource#LIBRO}.
  * </p>
  *
  * <p>
- * Los métodos retornan una cadena que incluye:
- * <ul>
- * <li>El código de estado HTTP.</li>
- * <li>El cuerpo de la respuesta en formato JSON o el mensaje de error.</li>
- * </ul>
+ * Los métodos retornan un {@link BackendResponse} con el código de estado, las
+ * cabeceras y el cuerpo de la respuesta. El cuerpo, que en {@code /libro/getall}
+ * contiene portadas y PDFs en base64, no se recorre para saber si hubo error.
  * </p>
  *
- * Ejemplo de respuesta:
- * 
- * <pre>
- * 200
- * {"id":1,"titulo":"Introducción a Java"}
- * </pre>
+ * <p>
+ * Las vistas del catálogo piden un resumen sin los PDF con
+ * {@link #doGetResumen()}, y el PDF de un libro se pide por separado con
+ * {@link #doGetCompleto(long)} cuando se descarga o se abre en el visor. Ambas
+ * rutas se configuran con {@code backend.libro.resumen} y
+ * {@code backend.libro.porid}; si el backend no las admite, se usa el listado
+ * completo sin que las vistas lo noten.
+ * </p>
  *
  * @author
  * @version 1.0
  */
 public class LibroService {
 
+	/** Listado completo de libros, con portadas y PDFs. */
+	private static final String LISTADO = "/libro/getall";
+
+	/**
+	 * Resumen del catálogo: solo los campos de texto que muestra la vista, con
+	 * {@code tienePortada} y {@code tienePdf} en lugar de la portada y el PDF.
+	 * Un backend que ignore {@code campos} devuelve el listado completo, y ambos
+	 * se saltan al decodificarlo.
+	 */
+	private static final String RESUMEN = BackendConfig.getString("backend.libro.resumen",
+			LISTADO + "?campos=id,titulo,author,descripcion,enlace,tienePortada,tienePdf");
+
+	/** Campos que se piden junto con la consulta por id de una portada. */
+	private static final String CAMPOS_PORTADA = "&campos=id,titulo,imagenBase64";
+
+	/** Consulta de un libro completo; se le agrega el identificador. */
+	private static final String POR_ID = BackendConfig.getString("backend.libro.porid", "/libro/getbyid?id=");
+
+	/** Búsqueda de un libro por id, o en el listado si el backend no la tiene. */
+	private static final LibroBusqueda BUSQUEDA = new LibroBusqueda(POR_ID, LISTADO, LibroService::doGetElemento,
+			LibroService::doGetResumen);
+
+	/**
+	 * Consulta el resumen del catálogo, sin portadas ni PDF. Cada libro que los
+	 * tiene queda marcado con {@link LibroDTO#isPortadaDiferida()} y
+	 * {@link LibroDTO#isPdfDiferido()}.
+	 *
+	 * @return libros del catálogo, compartidos con la caché de listados; no
+	 *         deben modificarse
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static List<LibroDTO> doGetResumen() throws BackendException {
+		return doGetList(RESUMEN, Codecs.ligero(LibroDTO.class), libro -> true);
+	}
+
+	/**
+	 * Consulta un libro con su portada y su PDF. Se pide por identificador y,
+	 * si el backend no tiene esa consulta, se busca en el listado completo
+	 * decodificando solo la portada y el PDF de ese libro (ver
+	 * {@link LibroBusqueda}).
+	 *
+	 * @param id identificador del libro
+	 * @return libro completo, o {@code null} si no existe
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static LibroDTO doGetCompleto(long id) throws BackendException {
+		return BUSQUEDA.buscar(id, "", Codecs.libroConPdf(id));
+	}
+
+	/**
+	 * Consulta un libro con su portada y sin su PDF, de la misma forma que
+	 * {@link #doGetCompleto(long)}. A la consulta por identificador se le pide
+	 * solo la portada; si el backend lo ignora, el PDF llega pero se salta.
+	 *
+	 * @param id identificador del libro
+	 * @return libro con la portada, o {@code null} si no existe
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static LibroDTO doGetConPortada(long id) throws BackendException {
+		return BUSQUEDA.buscar(id, CAMPOS_PORTADA, Codecs.libroConPortada(id));
+	}
+
 	/**
 	 * Realiza una petición HTTP GET a la URL especificada para obtener información
 	 * de libros.
 	 *
 	 * @param urlString la URL del recurso a consultar
-	 * @return una cadena con el código de estado y la respuesta del servidor; en
-	 *         caso de error, devuelve un mensaje descriptivo
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doGet(String urlString) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("Accept", "application/json");
-
-			// Tiempos de espera extendidos para manejar archivos grandes
-			connection.setConnectTimeout(15000);
-			connection.setReadTimeout(60000);
-
-			int responseCode = connection.getResponseCode();
-
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8));
-			}
-
-			StringBuilder response = new StringBuilder();
-			response.append(responseCode).append("\n");
-
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
-
-			return response.toString();
-
-		} catch (java.net.SocketTimeoutException e) {
-			return "Error: Timeout - archivos demasiado grandes";
-		} catch (Exception e) {
-			e.printStackTrace();
-			return "Error: " + e.getMessage();
-		}
+	public static BackendResponse doGet(String urlString) {
+		return BackendClient.get(BackendResource.LIBRO, urlString);
+	}
+
+	/**
+	 * Consulta un listado de libros y lo decodifica elemento por elemento
+	 * directamente desde la respuesta, sin copiar el cuerpo completo.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return elementos decodificados
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> List<T> doGetList(String urlString, TypeAdapter<T> adaptador, Predicate<? super T> filtro)
+			throws BackendException {
+		return BackendClient.getList(BackendResource.LIBRO, urlString, adaptador, filtro);
+	}
+
+	/**
+	 * Busca un libro dentro de un listado, leyéndolo en flujo hasta encontrarlo.
+	 * Se usa para cargar bajo demanda el PDF de un libro cuyo listado se
+	 * decodificó sin él.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que identifica al libro buscado
+	 * @return libro encontrado, o {@code null} si no está en el listado
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> T doGetElemento(String urlString, TypeAdapter<T> adaptador, Predicate<? super T> filtro)
+			throws BackendException {
+		return BackendClient.getElemento(BackendResource.LIBRO, urlString, adaptador, filtro);
 	}
 
 	/**
 	 * Realiza una petición HTTP POST a la URL especificada enviando datos en
-	 * formato JSON.
+	 * formato JSON. Los libros llevan su portada y su PDF, así que se envían por
+	 * el carril de {@link BackendPrioridad#FONDO} para no demorar las consultas
+	 * de las páginas.
 	 *
 	 * @param urlString la URL del recurso al que se desea enviar la información
 	 * @param jsonData  el contenido en formato JSON que será enviado en el cuerpo
 	 *                  de la petición
-	 * @return una cadena con el código de estado y la respuesta del servidor; en
-	 *         caso de error, devuelve un mensaje descriptivo
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doPost(String urlString, String jsonData) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("POST");
-			connection.setRequestProperty("Content-Type", "application/json");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setDoOutput(true);
-
-			// Tiempo extra para manejar archivos grandes
-			connection.setConnectTimeout(15000);
-			connection.setReadTimeout(120000);
-
-			try (OutputStream os = connection.getOutputStream()) {
-				byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
-				os.write(input, 0, input.length);
-				os.flush();
-			}
-
-			int responseCode = connection.getResponseCode();
-
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8));
-			}
-
-			StringBuilder response = new StringBuilder();
-			response.append(responseCode).append("\n");
-
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
-
-			return response.toString();
-
-		} catch (java.net.SocketTimeoutException e) {
-			return "Error: Timeout - archivo demasiado grande";
-		} catch (Exception e) {
-			e.printStackTrace();
-			return "Error: " + e.getMessage();
-		}
+	public static BackendResponse doPost(String urlString, String jsonData) {
+		return BackendClient.post(BackendResource.LIBRO, urlString, jsonData, BackendPrioridad.FONDO);
+	}
+
+	/**
+	 * Realiza una petición HTTP POST enviando un libro, en formato binario si el
+	 * backend lo acepta, con la portada y el PDF como bytes crudos, o en JSON (ver
+	 * {@link BackendClient#post(BackendResource, String, Object, TypeAdapter, BackendPrioridad)}).
+	 * Viaja por el carril de {@link BackendPrioridad#FONDO}.
+	 *
+	 * @param <T>       tipo del DTO
+	 * @param urlString la URL del recurso al que se desea enviar el libro
+	 * @param cuerpo    el libro a enviar
+	 * @param adaptador adaptador que codifica el libro
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
+	 */
+	public static <T> BackendResponse doPost(String urlString, T cuerpo, TypeAdapter<T> adaptador) {
+		return BackendClient.post(BackendResource.LIBRO, urlString, cuerpo, adaptador, BackendPrioridad.FONDO);
+	}
+
+	/**
+	 * Realiza una petición HTTP POST enviando un libro cuya portada y PDF se leen
+	 * de flujos mientras se envían, en JSON con ambos en base64 (ver
+	 * {@link CuerpoJson}). Ni los archivos ni el JSON se cargan completos en
+	 * memoria. Viaja por el carril de {@link BackendPrioridad#FONDO}.
+	 *
+	 * @param urlString la URL del recurso al que se desea enviar el libro
+	 * @param libro     el libro con los campos de texto; la portada y el PDF
+	 *                  deben quedar en {@code null}
+	 * @param portada   contenido de la portada, o {@code null} si no tiene
+	 * @param pdf       contenido del PDF, o {@code null} si no tiene
+	 * @return respuesta del backend; si no hubo conexión o un archivo no se pudo
+	 *         leer su estado es {@link BackendResponse#SIN_RESPUESTA}
+	 */
+	public static BackendResponse doPostFlujo(String urlString, LibroDTO libro, FuenteFlujo portada,
+			FuenteFlujo pdf) {
+		Map<String, FuenteFlujo> adjuntos = new LinkedHashMap<>();
+		adjuntos.put("imagenBase64", portada);
+		adjuntos.put("pdfBase64", pdf);
+		return BackendClient.postFlujo(BackendResource.LIBRO, urlString,
+				CuerpoJson.conAdjuntos(Codecs.de(LibroDTO.class), libro, adjuntos), CuerpoJson.TIPO,
+				BackendPrioridad.FONDO);
 	}
 
 	/**
@@ -146,33 +216,55 @@ public class LibroService {
 	 * recurso de libro.
 	 *
 	 * @param urlString la URL del recurso que se desea eliminar
-	 * @return una cadena con el código de estado y la respuesta del servidor; en
-	 *         caso de error, devuelve un mensaje descriptivo
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
+	 */
+	public static BackendResponse doDelete(String urlString) {
+		return BackendClient.delete(BackendResource.LIBRO, urlString);
+	}
+
+	/**
+	 * Versión asíncrona de {@link #doGet(String)}.
+	 *
+	 * @param urlString la URL del recurso a consultar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doGetAsync(String urlString) {
+		return BackendClient.getAsync(BackendResource.LIBRO, urlString);
+	}
+
+	/**
+	 * Versión asíncrona de {@link #doPost(String, String)}.
+	 *
+	 * @param urlString la URL de destino
+	 * @param json      el contenido JSON a enviar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doPostAsync(String urlString, String json) {
+		return BackendClient.postAsync(BackendResource.LIBRO, urlString, json, BackendPrioridad.FONDO);
+	}
+
+	/**
+	 * Versión asíncrona de {@link #doDelete(String)}.
+	 *
+	 * @param urlString la URL del recurso a eliminar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doDeleteAsync(String urlString) {
+		return BackendClient.deleteAsync(BackendResource.LIBRO, urlString);
+	}
+
+	/**
+	 * Versión asíncrona de {@link #doGetList(String, TypeAdapter, Predicate)}.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return futuro con los elementos decodificados
 	 */
-	public static String doDelete(String urlString) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("DELETE");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			int responseCode = connection.getResponseCode();
-			BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			StringBuilder response = new StringBuilder();
-			response.append(responseCode).append("\n");
-
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-
-			return response.toString();
-
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	public static <T> CompletableFuture<List<T>> doGetListAsync(String urlString, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro) {
+		return BackendClient.getListAsync(BackendResource.LIBRO, urlString, adaptador, filtro);
 	}
 }
@@ -0,0 +1,187 @@
+package co.edu.unbosque.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de peticiones en curso que se ajusta solo según la latencia observada,
+ * al estilo de TCP Vegas.
+ * <p>
+ * Se recuerda la latencia mínima reciente, que es la del backend sin carga. Si
+ * la latencia de una respuesta la supera, la diferencia indica cuántas
+ * peticiones están haciendo cola en el backend: con poca cola el límite crece,
+ * con mucha se reduce, y una petición sin respuesta o con 5xx lo recorta un
+ * 10 %. Así el límite baja en cuanto el backend se degrada, antes de que los
+ * tiempos de espera lleguen a agotarse, y vuelve a subir cuando se recupera.
+ * </p>
+ *
+ * <p>
+ * Una petición que encuentra el límite ocupado espera un momento a que se
+ * libere un lugar; si no se libera, se descarta.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class LimiteAdaptativo {
+
+	/** Factor que se aplica al límite cuando una petición falla. */
+	private static final double RECORTE_FALLO = 0.9;
+
+	/**
+	 * Muestras, por unidad de límite, tras las que se vuelve a medir la latencia
+	 * sin carga, por si el backend cambió.
+	 */
+	private static final int MUESTRAS_POR_SONDEO = 20;
+
+	private final ReentrantLock cerrojo = new ReentrantLock();
+	private final Condition liberado = cerrojo.newCondition();
+	private final LongAdder descartadas = new LongAdder();
+
+	private final int minimo;
+	private final int maximo;
+	private final boolean adaptativo;
+	private final long esperaNanos;
+
+	private double limite;
+	private int enCurso;
+	private long rttSinCarga;
+	private long muestras;
+
+	/**
+	 * @param inicial      límite inicial
+	 * @param minimo       límite mínimo
+	 * @param maximo       límite máximo
+	 * @param adaptativo   {@code false} para mantener fijo el límite inicial
+	 * @param esperaMillis milisegundos que una petición espera un lugar libre
+	 */
+	LimiteAdaptativo(int inicial, int minimo, int maximo, boolean adaptativo, long esperaMillis) {
+		this.minimo = Math.max(1, minimo);
+		this.maximo = Math.max(this.minimo, maximo);
+		this.limite = Math.min(Math.max(inicial, this.minimo), this.maximo);
+		this.adaptativo = adaptativo;
+		this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMillis);
+	}
+
+	/**
+	 * Ocupa un lugar, esperando como máximo el tiempo configurado. Si lo
+	 * consigue, quien llama debe liberarlo con {@link #liberar(long, boolean)}
+	 * exactamente una vez.
+	 *
+	 * @return {@code false} si no se liberó ningún lugar a tiempo
+	 */
+	boolean adquirir() {
+		cerrojo.lock();
+		try {
+			long restante = esperaNanos;
+			while (enCurso >= (int) limite) {
+				if (restante <= 0) {
+					descartadas.increment();
+					return false;
+				}
+				restante = liberado.awaitNanos(restante);
+			}
+			enCurso++;
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			descartadas.increment();
+			return false;
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * Libera un lugar y ajusta el límite con la muestra recibida.
+	 *
+	 * @param rttNanos tiempo hasta la respuesta, o -1 si la petición no dice nada
+	 *                 de la salud del backend y no debe contarse
+	 * @param fallo    {@code true} si no hubo respuesta o fue 5xx
+	 */
+	void liberar(long rttNanos, boolean fallo) {
+		cerrojo.lock();
+		try {
+			int enCursoMuestra = enCurso--;
+			double anterior = limite;
+			if (adaptativo && rttNanos >= 0) {
+				ajustar(Math.max(1, rttNanos), fallo, enCursoMuestra);
+			}
+			if ((int) limite > (int) anterior) {
+				liberado.signalAll();
+			} else {
+				liberado.signal();
+			}
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * Aplica una muestra al límite. Se llama con el cerrojo tomado.
+	 *
+	 * @param rtt            latencia de la muestra
+	 * @param fallo          {@code true} si la petición falló
+	 * @param enCursoMuestra peticiones en curso cuando terminó la muestra
+	 */
+	private void ajustar(long rtt, boolean fallo, int enCursoMuestra) {
+		if (fallo) {
+			limite = Math.max(minimo, limite * RECORTE_FALLO);
+			return;
+		}
+		if (++muestras >= MUESTRAS_POR_SONDEO * (long) limite) {
+			muestras = 0;
+			rttSinCarga = 0;
+		}
+		if (rttSinCarga == 0 || rtt < rttSinCarga) {
+			rttSinCarga = rtt;
+			return;
+		}
+		// con menos de la mitad del límite en uso, la latencia no dice si cabe más
+		if (enCursoMuestra * 2 < limite) {
+			return;
+		}
+
+		double escala = Math.max(1, Math.log10(limite));
+		double cola = Math.ceil(limite * (1 - (double) rttSinCarga / rtt));
+		if (cola < 3 * escala) {
+			limite += escala / limite * 4;
+		} else if (cola > 6 * escala) {
+			limite -= escala;
+		}
+		limite = Math.min(Math.max(limite, minimo), maximo);
+	}
+
+	/**
+	 * @return límite actual
+	 */
+	int getLimite() {
+		cerrojo.lock();
+		try {
+			return (int) limite;
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * @return peticiones en curso
+	 */
+	int getEnCurso() {
+		cerrojo.lock();
+		try {
+			return enCurso;
+		} finally {
+			cerrojo.unlock();
+		}
+	}
+
+	/**
+	 * @return peticiones descartadas por no encontrar lugar
+	 */
+	long getDescartadas() {
+		return descartadas.sum();
+	}
+}
@@ -0,0 +1,337 @@
+package co.edu.unbosque.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contenido binario listo para servirse al navegador: la portada o el PDF de
+ * un libro, ya decodificados de base64.
+ * <p>
+ * El contenido está en el heap, recién decodificado; fuera del heap, en un
+ * {@link MediaBloque} de {@link MediaCache}; o en un archivo de
+ * {@link MediaDisco}, que {@link #escribir(long, long, OutputStream)} envía con
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)} sin cargarlo
+ * en el heap. Es inmutable; quien recibe {@link #getBytes()} no debe
+ * modificarlos.
+ * </p>
+ *
+ * <p>
+ * Un contenido fuera del heap se mantiene reservado mientras el {@link Media}
+ * esté abierto, así que quien lo obtiene de {@link MediaService} debe
+ * cerrarlo al terminar de enviarlo; en los demás casos cerrarlo no hace nada.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public final class Media implements AutoCloseable {
+
+	private final byte[] bytes;
+	private final MediaBloque bloque;
+	private final Path archivo;
+	private final long longitud;
+	private final String hash;
+	private final String tipo;
+	private final String nombre;
+
+	private final AtomicBoolean cerrado = new AtomicBoolean();
+
+	/**
+	 * @param bytes  contenido
+	 * @param tipo   tipo de contenido, por ejemplo {@code application/pdf}
+	 * @param nombre nombre de archivo sugerido al descargarlo
+	 */
+	Media(byte[] bytes, String tipo, String nombre) {
+		this(bytes, HexFormat.of().formatHex(sha256(bytes)), tipo, nombre);
+	}
+
+	private Media(byte[] bytes, String hash, String tipo, String nombre) {
+		this.bytes = bytes;
+		this.bloque = null;
+		this.archivo = null;
+		this.longitud = bytes.length;
+		this.hash = hash;
+		this.tipo = tipo;
+		this.nombre = nombre;
+	}
+
+	/**
+	 * @param archivo  archivo con el contenido
+	 * @param longitud tamaño del archivo
+	 * @param hash     SHA-256 del contenido, en hexadecimal
+	 * @param tipo     tipo de contenido
+	 * @param nombre   nombre de archivo sugerido al descargarlo
+	 */
+	Media(Path archivo, long longitud, String hash, String tipo, String nombre) {
+		this.bytes = null;
+		this.bloque = null;
+		this.archivo = archivo;
+		this.longitud = longitud;
+		this.hash = hash;
+		this.tipo = tipo;
+		this.nombre = nombre;
+	}
+
+	/**
+	 * @param bloque contenido fuera del heap, ya retenido para este objeto
+	 * @param hash   SHA-256 del contenido, en hexadecimal
+	 * @param tipo   tipo de contenido
+	 * @param nombre nombre de archivo sugerido al descargarlo
+	 */
+	Media(MediaBloque bloque, String hash, String tipo, String nombre) {
+		this.bytes = null;
+		this.bloque = bloque;
+		this.archivo = null;
+		this.longitud = bloque.getLongitud();
+		this.hash = hash;
+		this.tipo = tipo;
+		this.nombre = nombre;
+	}
+
+	/**
+	 * Deduce el tipo de una imagen por sus primeros bytes.
+	 *
+	 * @param bytes imagen
+	 * @return tipo de contenido; {@code image/jpeg} si no se reconoce, que es el
+	 *         que se usaba antes para todas las portadas
+	 */
+	static String tipoImagen(byte[] bytes) {
+		if (empieza(bytes, 0x89, 'P', 'N', 'G')) {
+			return "image/png";
+		}
+		if (empieza(bytes, 'G', 'I', 'F', '8')) {
+			return "image/gif";
+		}
+		if (empieza(bytes, 'R', 'I', 'F', 'F') && bytes.length >= 12 && bytes[8] == 'W' && bytes[9] == 'E'
+				&& bytes[10] == 'B' && bytes[11] == 'P') {
+			return "image/webp";
+		}
+		return "image/jpeg";
+	}
+
+	private static boolean empieza(byte[] bytes, int... prefijo) {
+		if (bytes.length < prefijo.length) {
+			return false;
+		}
+		for (int i = 0; i < prefijo.length; i++) {
+			if ((bytes[i] & 0xFF) != prefijo[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] sha256(byte[] bytes) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(bytes);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 no disponible", e);
+		}
+	}
+
+	/**
+	 * @return contenido; no debe modificarse. Si está en disco se lee completo
+	 * @throws UncheckedIOException si el archivo ya no se puede leer
+	 */
+	public byte[] getBytes() {
+		if (bytes != null) {
+			return bytes;
+		}
+		if (bloque != null) {
+			return bloque.getSegmento().toArray(ValueLayout.JAVA_BYTE);
+		}
+		try {
+			return Files.readAllBytes(archivo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Abre el contenido para leerlo. Si está fuera del heap, el flujo lo
+	 * mantiene reservado hasta cerrarse, aunque este {@link Media} se cierre
+	 * antes.
+	 *
+	 * @return flujo con el contenido
+	 * @throws IOException si el archivo ya no se puede abrir o el contenido ya
+	 *                     se liberó
+	 */
+	public InputStream abrir() throws IOException {
+		if (bytes != null) {
+			return new ByteArrayInputStream(bytes);
+		}
+		if (bloque != null) {
+			if (!bloque.retener()) {
+				throw new IOException("El contenido " + nombre + " ya se liberó");
+			}
+			return new FlujoBloque(bloque);
+		}
+		return Files.newInputStream(archivo);
+	}
+
+	/**
+	 * Escribe un tramo del contenido. Desde un archivo, el tramo pasa por
+	 * {@link FileChannel#transferTo(long, long, WritableByteChannel)} y no se
+	 * copia al heap completo.
+	 *
+	 * @param inicio   primer byte del tramo
+	 * @param cantidad bytes del tramo
+	 * @param salida   destino
+	 * @throws IOException si no se puede leer el archivo o escribir en la salida
+	 */
+	public void escribir(long inicio, long cantidad, OutputStream salida) throws IOException {
+		if (bytes != null) {
+			salida.write(bytes, (int) inicio, (int) cantidad);
+			return;
+		}
+		if (bloque != null) {
+			ByteBuffer tramo = bloque.getSegmento().asSlice(inicio, cantidad).asByteBuffer();
+			WritableByteChannel destino = Channels.newChannel(salida);
+			while (tramo.hasRemaining()) {
+				destino.write(tramo);
+			}
+			return;
+		}
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			WritableByteChannel destino = Channels.newChannel(salida);
+			long enviados = 0;
+			while (enviados < cantidad) {
+				long n = canal.transferTo(inicio + enviados, cantidad - enviados, destino);
+				if (n <= 0) {
+					throw new IOException("El archivo " + archivo + " terminó antes de lo esperado");
+				}
+				enviados += n;
+			}
+		}
+	}
+
+	/**
+	 * @return tamaño del contenido en bytes
+	 */
+	public long getLongitud() {
+		return longitud;
+	}
+
+	/**
+	 * @return este mismo contenido si está en el heap, o una copia en el heap
+	 *         que sigue siendo válida después de cerrar este objeto
+	 */
+	Media enHeap() {
+		return bytes != null ? this : new Media(getBytes(), hash, tipo, nombre);
+	}
+
+	/**
+	 * Copia el contenido fuera del heap. Desde un archivo se lee directamente
+	 * al bloque.
+	 *
+	 * @return bloque con una referencia, la de quien lo pidió
+	 * @throws IOException si el archivo no se puede leer
+	 */
+	MediaBloque copiarFueraDelHeap() throws IOException {
+		if (archivo != null) {
+			return MediaBloque.de(archivo, longitud);
+		}
+		return MediaBloque.de(getBytes());
+	}
+
+	/**
+	 * Suelta el contenido fuera del heap, si lo hay. Cerrarlo más de una vez no
+	 * tiene efecto.
+	 */
+	@Override
+	public void close() {
+		if (bloque != null && cerrado.compareAndSet(false, true)) {
+			bloque.soltar();
+		}
+	}
+
+	/**
+	 * @return SHA-256 del contenido, en hexadecimal
+	 */
+	String getHash() {
+		return hash;
+	}
+
+	/**
+	 * @return tipo de contenido
+	 */
+	public String getTipo() {
+		return tipo;
+	}
+
+	/**
+	 * @return nombre de archivo sugerido al descargarlo
+	 */
+	public String getNombre() {
+		return nombre;
+	}
+
+	/**
+	 * @return validador fuerte del contenido, entre comillas, derivado de su
+	 *         SHA-256
+	 */
+	public String getEtag() {
+		return "\"" + hash.substring(0, 32) + "\"";
+	}
+
+	/**
+	 * Flujo sobre un contenido fuera del heap que suelta su referencia al
+	 * cerrarse.
+	 */
+	private static final class FlujoBloque extends InputStream {
+
+		private final MediaBloque bloque;
+		private final ByteBuffer datos;
+		private final AtomicBoolean cerrado = new AtomicBoolean();
+
+		FlujoBloque(MediaBloque bloque) {
+			this.bloque = bloque;
+			this.datos = bloque.getSegmento().asByteBuffer();
+		}
+
+		@Override
+		public int read() {
+			return datos.hasRemaining() ? datos.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] destino, int desde, int cantidad) {
+			if (cantidad == 0) {
+				return 0;
+			}
+			if (!datos.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(cantidad, datos.remaining());
+			datos.get(destino, desde, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return datos.remaining();
+		}
+
+		@Override
+		public void close() {
+			if (cerrado.compareAndSet(false, true)) {
+				bloque.soltar();
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copia fuera del heap de un contenido de {@link MediaCache}, reservada con
+ * su propia {@link Arena} compartida.
+ * <p>
+ * Los PDF y portadas que se sirven a menudo ocupan megabytes y viven mucho
+ * tiempo; en el heap pasarían a la generación vieja y alargarían las pausas
+ * del recolector. Fuera del heap el recolector solo ve este objeto.
+ * </p>
+ *
+ * <p>
+ * La memoria se libera cuando se suelta la última referencia: la de la caché,
+ * al descartar el contenido, y la de cada {@link Media} que lo está sirviendo,
+ * al cerrarse. Así un contenido descartado mientras se envía sigue siendo
+ * válido hasta que termina el envío.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class MediaBloque {
+
+	private final Arena arena;
+	private final MemorySegment segmento;
+
+	/** Referencias vivas; empieza con la de quien lo crea. */
+	private final AtomicInteger referencias = new AtomicInteger(1);
+
+	private MediaBloque(long longitud) {
+		this.arena = Arena.ofShared();
+		this.segmento = arena.allocate(longitud, 1);
+	}
+
+	/**
+	 * Copia un contenido del heap fuera del heap.
+	 *
+	 * @param bytes contenido
+	 * @return bloque con una referencia, la de quien lo pidió
+	 */
+	static MediaBloque de(byte[] bytes) {
+		MediaBloque bloque = new MediaBloque(bytes.length);
+		MemorySegment.copy(bytes, 0, bloque.segmento, ValueLayout.JAVA_BYTE, 0, bytes.length);
+		return bloque;
+	}
+
+	/**
+	 * Lee un archivo directamente fuera del heap, sin pasar por un arreglo.
+	 *
+	 * @param archivo  archivo con el contenido
+	 * @param longitud tamaño del archivo
+	 * @return bloque con una referencia, la de quien lo pidió
+	 * @throws IOException si el archivo no se puede leer completo
+	 */
+	static MediaBloque de(Path archivo, long longitud) throws IOException {
+		MediaBloque bloque = new MediaBloque(longitud);
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			ByteBuffer destino = bloque.segmento.asByteBuffer();
+			while (destino.hasRemaining()) {
+				if (canal.read(destino) < 0) {
+					throw new IOException("El archivo " + archivo + " terminó antes de lo esperado");
+				}
+			}
+			return bloque;
+		} catch (IOException | RuntimeException e) {
+			bloque.soltar();
+			throw e;
+		}
+	}
+
+	/**
+	 * Agrega una referencia, salvo que la memoria ya se haya liberado.
+	 *
+	 * @return {@code false} si la memoria ya se liberó
+	 */
+	boolean retener() {
+		int actuales;
+		do {
+			actuales = referencias.get();
+			if (actuales == 0) {
+				return false;
+			}
+		} while (!referencias.compareAndSet(actuales, actuales + 1));
+		return true;
+	}
+
+	/**
+	 * Suelta una referencia; con la última se libera la memoria.
+	 */
+	void soltar() {
+		if (referencias.decrementAndGet() == 0) {
+			arena.close();
+		}
+	}
+
+	/**
+	 * @return contenido; solo es válido mientras se tenga una referencia
+	 */
+	MemorySegment getSegmento() {
+		return segmento;
+	}
+
+	/**
+	 * @return tamaño del contenido en bytes
+	 */
+	long getLongitud() {
+		return segmento.byteSize();
+	}
+}
@@ -0,0 +1,115 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Últimos {@link Media} servidos, guardados fuera del heap con un presupuesto
+ * total de bytes.
+ * <p>
+ * Un navegador pide un PDF en varios tramos ({@code Range}) y cada portada una
+ * vez por página; sin esta caché cada petición volvería a leer el contenido
+ * del disco o del backend. Cada contenido se copia a un {@link MediaBloque},
+ * de modo que los megabytes de los PDF no cuentan para el recolector. Al
+ * superar {@code backend.media.cache.bytes} se descarta el contenido usado
+ * hace más tiempo; los que superan la mitad del presupuesto no se guardan.
+ * Un contenido descartado mientras se envía se libera al cerrarse su
+ * {@link Media}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class MediaCache {
+
+	private static final long PRESUPUESTO = BackendConfig.getLong("backend.media.cache.bytes", 64L * 1024 * 1024);
+
+	/** Contenido por clave, en orden de acceso. */
+	private static final Map<String, Entrada> ENTRADAS = new LinkedHashMap<>(16, 0.75f, true);
+
+	private static long ocupados;
+
+	private MediaCache() {
+	}
+
+	/**
+	 * Contenido guardado y sus datos.
+	 */
+	private record Entrada(MediaBloque bloque, String hash, String tipo, String nombre) {
+	}
+
+	/**
+	 * @param clave clave del contenido, por ejemplo {@code libro/7/pdf}
+	 * @return contenido guardado, que debe cerrarse al terminar de usarlo, o
+	 *         {@code null}
+	 */
+	static synchronized Media obtener(String clave) {
+		Entrada entrada = ENTRADAS.get(clave);
+		if (entrada == null || !entrada.bloque().retener()) {
+			return null;
+		}
+		return new Media(entrada.bloque(), entrada.hash(), entrada.tipo(), entrada.nombre());
+	}
+
+	/**
+	 * Copia un contenido fuera del heap, descartando los usados hace más tiempo
+	 * si no cabe.
+	 *
+	 * @param clave clave del contenido
+	 * @param media contenido recién decodificado o leído del disco
+	 */
+	static void guardar(String clave, Media media) {
+		if (PRESUPUESTO <= 0 || media.getLongitud() > PRESUPUESTO / 2) {
+			return;
+		}
+		// la copia se hace fuera del monitor
+		MediaBloque bloque;
+		try {
+			bloque = media.copiarFueraDelHeap();
+		} catch (IOException e) {
+			return;
+		}
+		Entrada entrada = new Entrada(bloque, media.getHash(), media.getTipo(), media.getNombre());
+
+		synchronized (MediaCache.class) {
+			Entrada anterior = ENTRADAS.put(clave, entrada);
+			if (anterior != null) {
+				descartar(anterior);
+			}
+			ocupados += bloque.getLongitud();
+
+			Iterator<Entrada> antiguas = ENTRADAS.values().iterator();
+			while (ocupados > PRESUPUESTO && antiguas.hasNext()) {
+				descartar(antiguas.next());
+				antiguas.remove();
+			}
+		}
+	}
+
+	/**
+	 * Descarta los contenidos cuya clave empieza con el prefijo.
+	 *
+	 * @param prefijo prefijo de las claves, por ejemplo {@code libro/7/}
+	 */
+	static synchronized void olvidar(String prefijo) {
+		Iterator<Map.Entry<String, Entrada>> entradas = ENTRADAS.entrySet().iterator();
+		while (entradas.hasNext()) {
+			Map.Entry<String, Entrada> entrada = entradas.next();
+			if (entrada.getKey().startsWith(prefijo)) {
+				descartar(entrada.getValue());
+				entradas.remove();
+			}
+		}
+	}
+
+	/**
+	 * Suelta la referencia de la caché a un contenido. Se llama con el monitor
+	 * de la clase tomado.
+	 */
+	private static void descartar(Entrada entrada) {
+		ocupados -= entrada.bloque().getLongitud();
+		entrada.bloque().soltar();
+	}
+}
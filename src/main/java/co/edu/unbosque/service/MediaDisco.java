@@ -0,0 +1,326 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Almacén en disco de los {@link Media}, direccionado por el SHA-256 de su
+ * contenido, que sobrevive a los reinicios de la aplicación.
+ * <p>
+ * Cada contenido se guarda una sola vez en {@code blobs/<xx>/<sha256>}, aunque
+ * lo compartan varias claves, y cada clave ({@code libro/7/pdf}) se anota en
+ * un archivo de {@code claves/} con el hash, el tipo y el nombre del
+ * contenido. Al arrancar se leen ambos directorios, así que tras un despliegue
+ * los PDF no se vuelven a pedir al backend.
+ * </p>
+ *
+ * <p>
+ * Los contenidos ocupan como máximo {@code backend.media.disco.bytes} (0
+ * desactiva el almacén); al superarlo se borran los usados hace más tiempo.
+ * El último uso se guarda en la fecha de modificación del archivo, para que
+ * el orden se conserve entre reinicios. Una clave cuyo contenido se borró
+ * deja de encontrarse. El directorio se configura con
+ * {@code backend.media.disco.dir}.
+ * </p>
+ *
+ * <p>
+ * Las claves solo se olvidan al borrar un libro o un link desde esta
+ * aplicación, así que un contenido reemplazado o borrado en el backend por
+ * otro medio seguiría sirviéndose. Por eso cada clave vale
+ * {@code backend.media.disco.edad} segundos desde que se anotó, contados con
+ * la fecha de modificación de su archivo; después se vuelve a pedir al backend
+ * y, si el contenido no cambió, solo se anota de nuevo.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class MediaDisco {
+
+	private static final long PRESUPUESTO = BackendConfig.getLong("backend.media.disco.bytes", 1024L * 1024 * 1024);
+
+	/** Milisegundos que vale una clave; 0 si no vence. */
+	private static final long EDAD_MAXIMA = TimeUnit.SECONDS
+			.toMillis(Math.max(0, BackendConfig.getLong("backend.media.disco.edad", 86400)));
+
+	private static final Path DIRECTORIO = Path.of(BackendConfig.getString("backend.media.disco.dir",
+			Path.of(System.getProperty("java.io.tmpdir"), "artemisa-media").toString()));
+
+	private static final Path BLOBS = DIRECTORIO.resolve("blobs");
+	private static final Path CLAVES = DIRECTORIO.resolve("claves");
+	private static final Path TEMPORALES = DIRECTORIO.resolve("tmp");
+
+	/** Tamaño de cada contenido por hash, en orden de uso. */
+	private static final Map<String, Long> CONTENIDOS = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Contenido anotado para cada clave. */
+	private static final Map<String, Anotacion> ANOTACIONES = new HashMap<>();
+
+	private static long ocupados;
+
+	/** {@code false} si el almacén está desactivado o no se pudo abrir. */
+	private static final boolean ACTIVO = abrir();
+
+	private MediaDisco() {
+	}
+
+	/**
+	 * Lo que dice el archivo de una clave, y cuándo se escribió.
+	 */
+	private record Anotacion(String hash, String tipo, String nombre, long anotada) {
+
+		/**
+		 * @param ahora instante actual, en milisegundos
+		 * @return {@code true} si la clave ya no vale y debe pedirse de nuevo
+		 */
+		boolean vencida(long ahora) {
+			return EDAD_MAXIMA > 0 && ahora - anotada >= EDAD_MAXIMA;
+		}
+	}
+
+	/**
+	 * Crea los directorios y carga los contenidos y claves que quedaron de la
+	 * ejecución anterior.
+	 *
+	 * @return {@code true} si el almacén se puede usar
+	 */
+	private static boolean abrir() {
+		if (PRESUPUESTO <= 0) {
+			return false;
+		}
+		try {
+			Files.createDirectories(BLOBS);
+			Files.createDirectories(CLAVES);
+			Files.createDirectories(TEMPORALES);
+			try (Stream<Path> restos = Files.list(TEMPORALES)) {
+				for (Path resto : (Iterable<Path>) restos::iterator) {
+					Files.deleteIfExists(resto);
+				}
+			}
+
+			List<Path> archivos = new ArrayList<>();
+			Map<Path, BasicFileAttributes> atributos = new HashMap<>();
+			try (Stream<Path> blobs = Files.find(BLOBS, 2, (ruta, attr) -> attr.isRegularFile())) {
+				blobs.forEach(ruta -> {
+					try {
+						atributos.put(ruta, Files.readAttributes(ruta, BasicFileAttributes.class));
+						archivos.add(ruta);
+					} catch (IOException e) {
+						// borrado mientras se recorría
+					}
+				});
+			}
+			archivos.sort(Comparator.comparing(ruta -> atributos.get(ruta).lastModifiedTime()));
+			for (Path archivo : archivos) {
+				long tamanio = atributos.get(archivo).size();
+				CONTENIDOS.put(archivo.getFileName().toString(), tamanio);
+				ocupados += tamanio;
+			}
+
+			try (DirectoryStream<Path> claves = Files.newDirectoryStream(CLAVES)) {
+				long ahora = System.currentTimeMillis();
+				for (Path archivo : claves) {
+					List<String> lineas = Files.readAllLines(archivo, StandardCharsets.UTF_8);
+					Anotacion anotacion = lineas.size() == 4
+							? new Anotacion(lineas.get(1), lineas.get(2), lineas.get(3),
+									Files.getLastModifiedTime(archivo).toMillis())
+							: null;
+					if (anotacion != null && CONTENIDOS.containsKey(anotacion.hash()) && !anotacion.vencida(ahora)) {
+						ANOTACIONES.put(lineas.get(0), anotacion);
+					} else {
+						Files.deleteIfExists(archivo);
+					}
+				}
+			}
+			synchronized (MediaDisco.class) {
+				liberar();
+			}
+			return true;
+		} catch (IOException | UncheckedIOException e) {
+			BackendLog.aviso("Almacén de media en disco desactivado (" + DIRECTORIO + "): " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * @param clave clave del contenido, por ejemplo {@code libro/7/pdf}
+	 * @return contenido en disco, o {@code null} si no está o su clave venció
+	 */
+	static Media obtener(String clave) {
+		if (!ACTIVO) {
+			return null;
+		}
+		Anotacion anotacion;
+		Long tamanio;
+		synchronized (MediaDisco.class) {
+			anotacion = ANOTACIONES.get(clave);
+			if (anotacion == null) {
+				return null;
+			}
+			tamanio = anotacion.vencida(System.currentTimeMillis()) ? null : CONTENIDOS.get(anotacion.hash());
+			if (tamanio == null) {
+				ANOTACIONES.remove(clave);
+			}
+		}
+		if (tamanio == null) {
+			borrar(archivoClave(clave));
+			return null;
+		}
+
+		Path archivo = archivoBlob(anotacion.hash());
+		try {
+			Files.setLastModifiedTime(archivo, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			// el orden de uso solo se pierde al reiniciar
+		}
+		return new Media(archivo, tamanio, anotacion.hash(), anotacion.tipo(), anotacion.nombre());
+	}
+
+	/**
+	 * Guarda un contenido bajo una clave. Si otro contenido idéntico ya está en
+	 * disco, solo se anota la clave.
+	 *
+	 * @param clave clave del contenido
+	 * @param media contenido en memoria
+	 * @return el mismo contenido leído desde disco, o {@code null} si no se
+	 *         guardó
+	 */
+	static Media guardar(String clave, Media media) {
+		if (!ACTIVO || media.getLongitud() > PRESUPUESTO) {
+			return null;
+		}
+		String hash = media.getHash();
+		Path archivo = archivoBlob(hash);
+		try {
+			boolean existe;
+			synchronized (MediaDisco.class) {
+				existe = CONTENIDOS.get(hash) != null;
+			}
+			if (!existe) {
+				Path temporal = Files.createTempFile(TEMPORALES, hash, null);
+				try {
+					Files.write(temporal, media.getBytes());
+					Files.createDirectories(archivo.getParent());
+					Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				} finally {
+					Files.deleteIfExists(temporal);
+				}
+			}
+
+			Anotacion anotacion = new Anotacion(hash, media.getTipo(), media.getNombre(), System.currentTimeMillis());
+			synchronized (MediaDisco.class) {
+				if (!existe) {
+					if (CONTENIDOS.put(hash, media.getLongitud()) == null) {
+						ocupados += media.getLongitud();
+					}
+					liberar();
+				}
+				if (!CONTENIDOS.containsKey(hash)) {
+					return null;
+				}
+				ANOTACIONES.put(clave, anotacion);
+			}
+			// también si no cambió: la fecha del archivo renueva la clave
+			anotar(clave, anotacion);
+			return new Media(archivo, media.getLongitud(), hash, media.getTipo(), media.getNombre());
+		} catch (IOException e) {
+			// un disco lleno falla en cada guardado
+			BackendLog.repetido("disco.guardar", "No se pudo guardar " + clave + " en disco: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Olvida las claves que empiezan con el prefijo. Sus contenidos quedan en
+	 * disco, porque otras claves pueden compartirlos, hasta que se descarten por
+	 * falta de espacio.
+	 *
+	 * @param prefijo prefijo de las claves, por ejemplo {@code libro/7/}
+	 */
+	static void olvidar(String prefijo) {
+		if (!ACTIVO) {
+			return;
+		}
+		List<String> olvidadas = new ArrayList<>();
+		synchronized (MediaDisco.class) {
+			Iterator<String> claves = ANOTACIONES.keySet().iterator();
+			while (claves.hasNext()) {
+				String clave = claves.next();
+				if (clave.startsWith(prefijo)) {
+					olvidadas.add(clave);
+					claves.remove();
+				}
+			}
+		}
+		for (String clave : olvidadas) {
+			borrar(archivoClave(clave));
+		}
+	}
+
+	/**
+	 * Borra los contenidos usados hace más tiempo hasta quedar dentro del
+	 * presupuesto. Se llama con el monitor de la clase tomado.
+	 */
+	private static void liberar() {
+		Iterator<Map.Entry<String, Long>> antiguos = CONTENIDOS.entrySet().iterator();
+		while (ocupados > PRESUPUESTO && antiguos.hasNext()) {
+			Map.Entry<String, Long> antiguo = antiguos.next();
+			ocupados -= antiguo.getValue();
+			antiguos.remove();
+			// un lector que ya abrió el archivo lo sigue leyendo completo
+			borrar(archivoBlob(antiguo.getKey()));
+		}
+	}
+
+	/**
+	 * Escribe el archivo de una clave reemplazando el anterior de una vez.
+	 */
+	private static void anotar(String clave, Anotacion anotacion) throws IOException {
+		Path temporal = Files.createTempFile(TEMPORALES, "clave", null);
+		try {
+			String nombre = Objects.toString(anotacion.nombre(), "").replace('\n', ' ').replace('\r', ' ');
+			Files.write(temporal, List.of(clave, anotacion.hash(), anotacion.tipo(), nombre), StandardCharsets.UTF_8);
+			Files.move(temporal, archivoClave(clave), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temporal);
+		}
+	}
+
+	private static Path archivoBlob(String hash) {
+		return BLOBS.resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	private static Path archivoClave(String clave) {
+		return CLAVES.resolve(URLEncoder.encode(clave, StandardCharsets.UTF_8));
+	}
+
+	private static void borrar(Path archivo) {
+		try {
+			Files.deleteIfExists(archivo);
+		} catch (IOException e) {
+			BackendLog.repetido("disco.borrar", "No se pudo borrar " + archivo + ": " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package co.edu.unbosque.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Genera las miniaturas de las portadas y de las imágenes de los links con
+ * {@link ImageIO}, sin bibliotecas nativas.
+ * <p>
+ * Las imágenes subidas suelen ser fotos de varios megabytes, y las vistas las
+ * muestran en un recuadro fijo. Cada {@link Variante} tiene el tamaño de ese
+ * recuadro. La imagen se decodifica ya submuestreada, leyendo solo las filas
+ * y columnas necesarias, así que una foto grande no se carga completa en
+ * memoria. Las imágenes con transparencia se guardan en PNG y las demás en
+ * JPEG. Si la imagen no es más grande que el recuadro o {@link ImageIO} no
+ * conoce su formato, la miniatura es la imagen original.
+ * </p>
+ *
+ * <p>
+ * Las miniaturas se generan en un ejecutor de fondo con
+ * {@code backend.media.miniatura.hilos} hilos y una cola de
+ * {@code backend.media.miniatura.cola} tareas; las que no caben se descartan y
+ * se vuelven a pedir la próxima vez que se muestre la imagen.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+final class MediaMiniaturas {
+
+	/**
+	 * Tamaños de miniatura, uno por recuadro de las vistas.
+	 */
+	enum Variante {
+		/** Portada de libro.xhtml, 160x220. */
+		PORTADA("portada", 160, 220),
+		/** Imagen de links.xhtml, 280 de ancho con el alto proporcional. */
+		LINK("link", 280, 0);
+
+		private final String clave;
+		private final int ancho;
+		private final int alto;
+
+		Variante(String clave, int ancho, int alto) {
+			this.clave = clave;
+			this.ancho = ancho;
+			this.alto = alto;
+		}
+
+		/**
+		 * @return nombre de la variante en las claves de {@link MediaCache} y
+		 *         {@link MediaDisco}
+		 */
+		String getClave() {
+			return clave;
+		}
+	}
+
+	/** Ejecutor de fondo con hilos y cola acotados. */
+	private static final ExecutorService EJECUTOR = crearEjecutor();
+
+	private MediaMiniaturas() {
+	}
+
+	private static ExecutorService crearEjecutor() {
+		int hilos = Math.max(1, BackendConfig.getInt("backend.media.miniatura.hilos", 2));
+		int cola = Math.max(1, BackendConfig.getInt("backend.media.miniatura.cola", 256));
+		ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(hilos, hilos, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(cola), BackendExecutors.fabricaDaemon("media-miniatura"));
+		ejecutor.allowCoreThreadTimeOut(true);
+		return ejecutor;
+	}
+
+	/**
+	 * @return ejecutor de fondo de las miniaturas; rechaza con
+	 *         {@link java.util.concurrent.RejectedExecutionException} las
+	 *         tareas que no caben en la cola
+	 */
+	static ExecutorService ejecutor() {
+		return EJECUTOR;
+	}
+
+	/**
+	 * Reduce una imagen al tamaño de la variante.
+	 *
+	 * @param original imagen original
+	 * @param variante tamaño de la miniatura
+	 * @return miniatura, o la misma imagen original si no hace falta o no se
+	 *         puede reducir
+	 * @throws IOException si la imagen está dañada
+	 */
+	static Media reducir(Media original, Variante variante) throws IOException {
+		BufferedImage imagen;
+		try (ImageInputStream entrada = ImageIO
+				.createImageInputStream(new ByteArrayInputStream(original.getBytes()))) {
+			Iterator<ImageReader> lectores = ImageIO.getImageReaders(entrada);
+			if (!lectores.hasNext()) {
+				return original;
+			}
+			ImageReader lector = lectores.next();
+			try {
+				lector.setInput(entrada, true, true);
+				int ancho = lector.getWidth(0);
+				int alto = lector.getHeight(0);
+				if (ancho <= variante.ancho && (variante.alto == 0 || alto <= variante.alto)) {
+					return original;
+				}
+
+				// se leen como mucho dos píxeles por píxel de la miniatura; el resto
+				// del detalle lo aporta el suavizado al escalar
+				int paso = ancho / (2 * variante.ancho);
+				if (variante.alto > 0) {
+					paso = Math.min(paso, alto / (2 * variante.alto));
+				}
+				ImageReadParam parametros = lector.getDefaultReadParam();
+				if (paso > 1) {
+					parametros.setSourceSubsampling(paso, paso, 0, 0);
+				}
+				imagen = lector.read(0, parametros);
+			} finally {
+				lector.dispose();
+			}
+		}
+
+		int ancho = variante.ancho;
+		int alto = variante.alto > 0 ? variante.alto
+				: Math.max(1, (int) Math.round((double) imagen.getHeight() * ancho / imagen.getWidth()));
+		boolean transparente = imagen.getColorModel().hasAlpha();
+		BufferedImage miniatura = escalar(imagen, ancho, alto, transparente);
+
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		String formato = transparente ? "png" : "jpg";
+		if (!ImageIO.write(miniatura, formato, salida)) {
+			return original;
+		}
+		return new Media(salida.toByteArray(), transparente ? "image/png" : "image/jpeg", original.getNombre());
+	}
+
+	/**
+	 * Escala en pasos de la mitad, con interpolación bilineal, para que una
+	 * reducción grande no pierda detalle de golpe.
+	 */
+	private static BufferedImage escalar(BufferedImage imagen, int ancho, int alto, boolean transparente) {
+		int tipo = transparente ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage actual = imagen;
+		int anchoActual = imagen.getWidth();
+		int altoActual = imagen.getHeight();
+		do {
+			anchoActual = Math.max(ancho, anchoActual / 2);
+			altoActual = Math.max(alto, altoActual / 2);
+			BufferedImage siguiente = new BufferedImage(anchoActual, altoActual, tipo);
+			Graphics2D grafico = siguiente.createGraphics();
+			try {
+				grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				grafico.drawImage(actual, 0, 0, anchoActual, altoActual, null);
+			} finally {
+				grafico.dispose();
+			}
+			actual = siguiente;
+		} while (anchoActual != ancho || altoActual != alto);
+		return actual;
+	}
+}
@@ -0,0 +1,323 @@
+package co.edu.unbosque.service;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.dto.LibroDTO;
+import co.edu.unbosque.dto.LinkDTO;
+import co.edu.unbosque.service.MediaMiniaturas.Variante;
+
+/**
+ * Servicio que obtiene del backend el contenido binario de los libros y los
+ * links, la portada, el PDF y la imagen, para servirlo por URL en lugar de
+ * incrustarlo en base64 en cada página.
+ * <p>
+ * Cada contenido se busca primero en {@link MediaCache}, fuera del heap,
+ * luego en {@link MediaDisco}, que sobrevive a los reinicios, y solo después
+ * en el backend. Las portadas se piden una por una con
+ * {@link LibroService#doGetConPortada(long)}, sin el PDF, y los PDF con
+ * {@link LibroService#doGetCompleto(long)}; las imágenes de los links se
+ * buscan en su listado decodificando solo la del link pedido. Las peticiones
+ * simultáneas del mismo contenido, como los tramos que pide un visor,
+ * comparten una sola consulta.
+ * </p>
+ *
+ * <p>
+ * Las vistas muestran miniaturas de las portadas y de las imágenes
+ * ({@link MediaMiniaturas}). Se generan en segundo plano la primera vez que
+ * se ve una imagen y al subirla, y se guardan por el SHA-256 de la imagen
+ * original, de modo que la miniatura de una portada recién subida ya está
+ * lista cuando el backend le asigna un identificador.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public class MediaService {
+
+	/** Listado de links, donde se busca la imagen de cada uno. */
+	private static final String LINKS = "/link/getall";
+
+	/** Búsquedas en el backend en curso, por clave. */
+	private static final BackendEnCurso<Media> EN_CURSO = new BackendEnCurso<>();
+
+	/** Miniaturas en la cola o generándose, por clave. */
+	private static final Set<String> MINIATURAS_EN_CURSO = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Obtiene la portada de un libro.
+	 *
+	 * @param id identificador del libro
+	 * @return portada, que debe cerrarse al terminar de enviarla, o {@code null}
+	 *         si el libro no existe o no tiene portada
+	 * @throws BackendException si no se pudo consultar el backend
+	 */
+	public static Media getPortadaLibro(long id) throws BackendException {
+		String clave = clave("libro", id, "portada");
+		Media media = buscar(clave);
+		if (media != null) {
+			return media;
+		}
+
+		long limite = BackendPlazo.limite(BackendResource.LIBRO);
+		return EN_CURSO.ejecutar(clave, limite, () -> {
+			LibroDTO libro = LibroService.doGetConPortada(id);
+			Media portada = libro != null ? decodificar(libro.getImagenBase64(), null, libro.getTitulo()) : null;
+			if (portada != null) {
+				guardar(clave, portada);
+				programar(portada, Variante.PORTADA);
+			}
+			return portada;
+		});
+	}
+
+	/**
+	 * Obtiene la miniatura de 160x220 de la portada de un libro. Si todavía no
+	 * está, se pide al ejecutor de fondo.
+	 *
+	 * @param id identificador del libro
+	 * @return miniatura, que debe cerrarse al terminar de enviarla, o
+	 *         {@code null} si el libro no tiene portada o la miniatura no está
+	 *         lista
+	 * @throws BackendException si no se pudo consultar el backend
+	 */
+	public static Media getMiniaturaPortada(long id) throws BackendException {
+		return miniatura(getPortadaLibro(id), Variante.PORTADA);
+	}
+
+	/**
+	 * Obtiene el PDF de un libro.
+	 *
+	 * @param id identificador del libro
+	 * @return PDF, que debe cerrarse al terminar de enviarlo, o {@code null} si el
+	 *         libro no existe o no tiene PDF
+	 * @throws BackendException si no se pudo consultar el backend
+	 */
+	public static Media getPdfLibro(long id) throws BackendException {
+		String clave = clave("libro", id, "pdf");
+		Media media = buscar(clave);
+		if (media != null) {
+			return media;
+		}
+
+		long limite = BackendPlazo.limite(BackendResource.LIBRO);
+		return EN_CURSO.ejecutar(clave, limite, () -> {
+			LibroDTO libro = LibroService.doGetCompleto(id);
+			Media pdf = libro != null ? decodificar(libro.getPdfBase64(), "application/pdf", libro.getTitulo() + ".pdf")
+					: null;
+			if (pdf != null) {
+				guardar(clave, pdf);
+			}
+			return pdf;
+		});
+	}
+
+	/**
+	 * Obtiene la imagen de un link.
+	 *
+	 * @param id identificador del link
+	 * @return imagen, que debe cerrarse al terminar de enviarla, o {@code null}
+	 *         si el link no existe o no tiene imagen
+	 * @throws BackendException si no se pudo consultar el backend
+	 */
+	public static Media getImagenLink(long id) throws BackendException {
+		String clave = clave("link", id, "imagen");
+		Media media = buscar(clave);
+		if (media != null) {
+			return media;
+		}
+
+		long limite = BackendPlazo.limite(BackendResource.LINK);
+		return EN_CURSO.ejecutar(clave, limite, () -> {
+			LinkDTO link = LinkService.doGetElemento(LINKS, Codecs.linkConImagen(id),
+					l -> l.getId() != null && l.getId() == id);
+			Media imagen = link != null ? decodificar(link.getImagenBase64(), null, link.getTitulo()) : null;
+			if (imagen != null) {
+				guardar(clave, imagen);
+				programar(imagen, Variante.LINK);
+			}
+			return imagen;
+		});
+	}
+
+	/**
+	 * Obtiene la miniatura de 280 de ancho de la imagen de un link. Si todavía
+	 * no está, se pide al ejecutor de fondo.
+	 *
+	 * @param id identificador del link
+	 * @return miniatura, que debe cerrarse al terminar de enviarla, o
+	 *         {@code null} si el link no tiene imagen o la miniatura no está
+	 *         lista
+	 * @throws BackendException si no se pudo consultar el backend
+	 */
+	public static Media getMiniaturaLink(long id) throws BackendException {
+		return miniatura(getImagenLink(id), Variante.LINK);
+	}
+
+	/**
+	 * Genera en segundo plano la miniatura de una portada recién subida, para
+	 * que esté lista cuando la vista la pida.
+	 *
+	 * @param imagen portada subida
+	 */
+	public static void programarMiniaturaPortada(byte[] imagen) {
+		if (imagen != null && imagen.length > 0) {
+			programar(new Media(imagen, Media.tipoImagen(imagen), "portada"), Variante.PORTADA);
+		}
+	}
+
+	/**
+	 * Genera en segundo plano la miniatura de la imagen de un link recién
+	 * subida.
+	 *
+	 * @param imagen imagen subida
+	 */
+	public static void programarMiniaturaLink(byte[] imagen) {
+		if (imagen != null && imagen.length > 0) {
+			programar(new Media(imagen, Media.tipoImagen(imagen), "imagen"), Variante.LINK);
+		}
+	}
+
+	/**
+	 * Descarta el contenido guardado de un libro, por ejemplo al eliminarlo.
+	 *
+	 * @param id identificador del libro
+	 */
+	public static void olvidarLibro(long id) {
+		olvidar("libro/" + id + "/");
+	}
+
+	/**
+	 * Descarta la imagen guardada de un link, por ejemplo al eliminarlo.
+	 *
+	 * @param id identificador del link
+	 */
+	public static void olvidarLink(long id) {
+		olvidar("link/" + id + "/");
+	}
+
+	private static String clave(String recurso, Long id, String tipo) {
+		return recurso + "/" + id + "/" + tipo;
+	}
+
+	/**
+	 * Busca un contenido en memoria y, si no está, en disco; lo que se encuentra
+	 * en disco se sube a memoria para las próximas peticiones.
+	 */
+	private static Media buscar(String clave) {
+		Media media = MediaCache.obtener(clave);
+		if (media != null) {
+			return media;
+		}
+		media = MediaDisco.obtener(clave);
+		if (media != null) {
+			MediaCache.guardar(clave, media);
+		}
+		return media;
+	}
+
+	/**
+	 * Guarda en memoria y en disco un contenido recién traído del backend.
+	 */
+	private static void guardar(String clave, Media media) {
+		MediaCache.guardar(clave, media);
+		MediaDisco.guardar(clave, media);
+	}
+
+	/**
+	 * Busca la miniatura de una imagen y, si no está, la pide.
+	 *
+	 * @param original imagen original, que se cierra aquí
+	 * @param variante tamaño de la miniatura
+	 * @return miniatura, o {@code null} si no hay imagen o no está lista
+	 */
+	private static Media miniatura(Media original, Variante variante) {
+		if (original == null) {
+			return null;
+		}
+		try (original) {
+			Media miniatura = buscar(claveMiniatura(variante, original.getHash()));
+			if (miniatura == null) {
+				programar(original, variante);
+			}
+			return miniatura;
+		}
+	}
+
+	/**
+	 * Pide al ejecutor de fondo la miniatura de una imagen, salvo que ya exista
+	 * o ya esté pedida. Si la imagen no se puede reducir, su miniatura es la
+	 * imagen original, para no volver a intentarlo.
+	 */
+	private static void programar(Media original, Variante variante) {
+		String clave = claveMiniatura(variante, original.getHash());
+		if (!MINIATURAS_EN_CURSO.add(clave)) {
+			return;
+		}
+		Media fuente = original.enHeap();
+		try {
+			MediaMiniaturas.ejecutor().execute(() -> {
+				try {
+					if (!existe(clave)) {
+						guardar(clave, MediaMiniaturas.reducir(fuente, variante));
+					}
+				} catch (IOException | RuntimeException e) {
+					guardar(clave, fuente);
+				} finally {
+					MINIATURAS_EN_CURSO.remove(clave);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// cola llena: se vuelve a pedir la próxima vez que se muestre
+			MINIATURAS_EN_CURSO.remove(clave);
+		}
+	}
+
+	private static String claveMiniatura(Variante variante, String hash) {
+		return "miniatura/" + variante.getClave() + "/" + hash;
+	}
+
+	/**
+	 * @return {@code true} si el contenido está en memoria o en disco, sin
+	 *         subirlo a memoria
+	 */
+	private static boolean existe(String clave) {
+		try (Media media = MediaCache.obtener(clave)) {
+			if (media != null) {
+				return true;
+			}
+		}
+		return MediaDisco.obtener(clave) != null;
+	}
+
+	private static void olvidar(String prefijo) {
+		MediaCache.olvidar(prefijo);
+		MediaDisco.olvidar(prefijo);
+	}
+
+	/**
+	 * @param base64 contenido en base64
+	 * @param tipo   tipo de contenido, o {@code null} para deducirlo de una
+	 *               imagen
+	 * @param nombre nombre de archivo sugerido
+	 * @return contenido decodificado, o {@code null} si está vacío o no es base64
+	 */
+	private static Media decodificar(String base64, String tipo, String nombre) {
+		if (base64 == null || base64.isEmpty()) {
+			return null;
+		}
+		// algunos clientes guardan la imagen como URI data:...;base64,...
+		int coma = base64.startsWith("data:") ? base64.indexOf(',') : -1;
+		byte[] bytes;
+		try {
+			bytes = Base64.getDecoder().decode(coma >= 0 ? base64.substring(coma + 1) : base64);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		return new Media(bytes, tipo != null ? tipo : Media.tipoImagen(bytes), nombre);
+	}
+}
@@ -1,11 +1,10 @@
 package co.edu.unbosque.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import com.google.gson.TypeAdapter;
 
 /**
  * Servicio para realizar peticiones HTTP (GET, POST, DELETE) hacia recursos
@@ -13,7 +12,7 @@ import java.nio.charset.StandardCharsets;
  * 
  * <p>
  * Este servicio está pensado para consumir y enviar datos en formato JSON,
- * utilizando la clase {@link HttpURLConnection}.
+ * utilizando el cliente compartido {@link BackendClient}.
  * </p>
  *
  * <p>
@@ -24,8 +23,8 @@ import java.nio.charset.StandardCharsets;
  * Ejemplo de uso:
  * 
  * <pre>{@code
- * String respuesta = ProblemaService.doGet("http://localhost:8080/api/problemas");
- * System.out.println(respuesta);
+ * BackendResponse respuesta = ProblemaService.doGet("http://localhost:8080/api/problemas");
+ * System.out.println(respuesta.getStatus());
  * }</pre>
  *
  * @author
@@ -37,40 +36,28 @@ public class ProblemaService {
 	 * Realiza una petición HTTP GET hacia la URL indicada.
 	 *
 	 * @param urlString la URL del recurso al que se realizará la petición
-	 * @return la respuesta del servidor en formato {@code String}, incluyendo el
-	 *         código de estado; o un mensaje de error si ocurre una excepción
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doGet(String urlString) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("GET");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			int responseCode = connection.getResponseCode();
-
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8));
-			}
-
-			StringBuilder response = new StringBuilder();
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
-
-			return responseCode + "\n" + response.toString();
+	public static BackendResponse doGet(String urlString) {
+		return BackendClient.get(BackendResource.PROBLEMA, urlString);
+	}
 
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	/**
+	 * Consulta un listado de problemas y lo decodifica elemento por elemento
+	 * directamente desde la respuesta, sin copiar el cuerpo completo.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return elementos decodificados
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> List<T> doGetList(String urlString, TypeAdapter<T> adaptador, Predicate<? super T> filtro)
+			throws BackendException {
+		return BackendClient.getList(BackendResource.PROBLEMA, urlString, adaptador, filtro);
 	}
 
 	/**
@@ -80,87 +67,66 @@ public class ProblemaService {
 	 * @param urlString la URL del recurso destino
 	 * @param jsonData  los datos en formato JSON que se enviarán en el cuerpo de la
 	 *                  petición
-	 * @return la respuesta del servidor en formato {@code String}, incluyendo el
-	 *         código de estado; o un mensaje de error si ocurre una excepción
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doPost(String urlString, String jsonData) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("POST");
-			connection.setRequestProperty("Content-Type", "application/json");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setDoOutput(true);
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			byte[] input = jsonData.getBytes(StandardCharsets.UTF_8);
-
-			try (OutputStream os = connection.getOutputStream()) {
-				os.write(input, 0, input.length);
-			}
-
-			int responseCode = connection.getResponseCode();
-
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8));
-			}
-
-			StringBuilder response = new StringBuilder();
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
-
-			return responseCode + "\n" + response.toString();
-
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	public static BackendResponse doPost(String urlString, String jsonData) {
+		return BackendClient.post(BackendResource.PROBLEMA, urlString, jsonData);
 	}
 
 	/**
 	 * Realiza una petición HTTP DELETE hacia la URL indicada.
 	 *
 	 * @param urlString la URL del recurso destino
-	 * @return la respuesta del servidor en formato {@code String}, incluyendo el
-	 *         código de estado; o un mensaje de error si ocurre una excepción
+	 * @return respuesta del backend; si no hubo conexión su estado es
+	 *         {@link BackendResponse#SIN_RESPUESTA}
 	 */
-	public static String doDelete(String urlString) {
-		try {
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("DELETE");
-			connection.setRequestProperty("Accept", "application/json");
-			connection.setConnectTimeout(5000);
-			connection.setReadTimeout(5000);
-
-			int responseCode = connection.getResponseCode();
+	public static BackendResponse doDelete(String urlString) {
+		return BackendClient.delete(BackendResource.PROBLEMA, urlString);
+	}
 
-			BufferedReader reader;
-			if (responseCode >= 200 && responseCode < 300) {
-				reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-			} else {
-				reader = new BufferedReader(new InputStreamReader(connection.getErrorStream(), StandardCharsets.UTF_8));
-			}
+	/**
+	 * Versión asíncrona de {@link #doGet(String)}.
+	 *
+	 * @param urlString la URL del recurso a consultar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doGetAsync(String urlString) {
+		return BackendClient.getAsync(BackendResource.PROBLEMA, urlString);
+	}
 
-			StringBuilder response = new StringBuilder();
-			String line;
-			while ((line = reader.readLine()) != null) {
-				response.append(line);
-			}
-			reader.close();
-			connection.disconnect();
+	/**
+	 * Versión asíncrona de {@link #doPost(String, String)}.
+	 *
+	 * @param urlString la URL de destino
+	 * @param json      el contenido JSON a enviar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doPostAsync(String urlString, String json) {
+		return BackendClient.postAsync(BackendResource.PROBLEMA, urlString, json);
+	}
 
-			return responseCode + "\n" + response.toString();
+	/**
+	 * Versión asíncrona de {@link #doDelete(String)}.
+	 *
+	 * @param urlString la URL del recurso a eliminar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doDeleteAsync(String urlString) {
+		return BackendClient.deleteAsync(BackendResource.PROBLEMA, urlString);
+	}
 
-		} catch (Exception e) {
-			return "Error: " + e.getMessage();
-		}
+	/**
+	 * Versión asíncrona de {@link #doGetList(String, TypeAdapter, Predicate)}.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return futuro con los elementos decodificados
+	 */
+	public static <T> CompletableFuture<List<T>> doGetListAsync(String urlString, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro) {
+		return BackendClient.getListAsync(BackendResource.PROBLEMA, urlString, adaptador, filtro);
 	}
 }
@@ -1,20 +1,14 @@
 package co.edu.unbosque.service;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpClient.Version;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Servicio para realizar peticiones HTTP (GET y POST) hacia recursos externos
  * relacionados con profesores.
  *
  * <p>
- * Utiliza la API {@link HttpClient} de Java 11+ para manejar las conexiones
- * HTTP, configurada con soporte para HTTP/2 y tiempos de espera.
+ * Delega las conexiones HTTP en el cliente compartido {@link BackendClient},
+ * que reutiliza conexiones y aplica los tiempos de espera del recurso.
  * </p>
  *
  * <p>
@@ -25,8 +19,8 @@ import java.time.Duration;
  * Ejemplo de uso:
  * 
  * <pre>{@code
- * String respuesta = ProfesorService.doGet("http://localhost:8080/api/profesores");
- * System.out.println(respuesta);
+ * BackendResponse respuesta = ProfesorService.doGet("http://localhost:8080/api/profesores");
+ * System.out.println(respuesta.getStatus());
  * }</pre>
  *
  * @author
@@ -34,36 +28,14 @@ import java.time.Duration;
  */
 public class ProfesorService {
 
-	/** Cliente HTTP reutilizable para todas las solicitudes */
-	private static final HttpClient CLIENTE = HttpClient.newBuilder().version(Version.HTTP_2)
-			.connectTimeout(Duration.ofSeconds(10)).build();
-
 	/**
 	 * Realiza una petición HTTP GET hacia la URL indicada.
 	 *
 	 * @param url la URL del recurso al que se realizará la petición
-	 * @return la respuesta del servidor en formato {@code String}, incluyendo el
-	 *         código de estado; o un mensaje de error si ocurre una excepción
+	 * @return respuesta del backend; el bean decide según el código de estado
 	 */
-	public static String doGet(String url) {
-		HttpRequest solicitud = HttpRequest.newBuilder().GET().uri(URI.create(url))
-				.header("Content-Type", "application/json").timeout(Duration.ofSeconds(30)).build();
-
-		HttpResponse<String> respuesta = null;
-		try {
-			respuesta = CLIENTE.send(solicitud, HttpResponse.BodyHandlers.ofString());
-		} catch (IOException e) {
-			System.out.println("Error al solicitar: " + e.getMessage());
-			return "Error de conexión: " + e.getMessage();
-		} catch (InterruptedException e) {
-			System.out.println("Error de interrupción: " + e.getMessage());
-			return "Error de interrupción: " + e.getMessage();
-		}
-
-		String statusCode = String.valueOf(respuesta.statusCode());
-		String body = respuesta.body();
-
-		return statusCode + "\n" + body;
+	public static BackendResponse doGet(String url) {
+		return BackendClient.get(BackendResource.PROFESOR, url);
 	}
 
 	/**
@@ -73,48 +45,30 @@ public class ProfesorService {
 	 * @param url  la URL del recurso destino
 	 * @param json los datos en formato JSON que se enviarán en el cuerpo de la
 	 *             petición
-	 * @return la respuesta del servidor en formato {@code String}.
-	 *         <ul>
-	 *         <li>Si el código es 2xx, devuelve el cuerpo de la respuesta.</li>
-	 *         <li>Si es 404, devuelve "Usuario no encontrado".</li>
-	 *         <li>Si es 401, devuelve "Credenciales incorrectas".</li>
-	 *         <li>Si es 409, devuelve "Usuario ya existe".</li>
-	 *         <li>Si es 406, devuelve "Error: datos no aceptables".</li>
-	 *         <li>Si es otro código, devuelve "Error [código]: [respuesta]".</li>
-	 *         </ul>
+	 * @return respuesta del backend; el bean decide según el código de estado
 	 */
-	public static String doPost(String url, String json) {
-		HttpRequest request = HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.ofString(json))
-				.uri(URI.create(url)).header("User-Agent", "Java 11 HttpClient Bot")
-				.header("Content-Type", "application/json").header("Accept", "application/json")
-				.timeout(Duration.ofSeconds(30)).build();
-
-		HttpResponse<String> response = null;
-		try {
-			response = CLIENTE.send(request, HttpResponse.BodyHandlers.ofString());
-		} catch (InterruptedException e) {
-			System.err.println("Error de interrupción: " + e.getMessage());
-			return "Error de interrupción: " + e.getMessage();
-		} catch (IOException e) {
-			System.err.println("Error de conexión: " + e.getMessage());
-			return "Error de conexión: " + e.getMessage();
-		}
+	public static BackendResponse doPost(String url, String json) {
+		return BackendClient.post(BackendResource.PROFESOR, url, json);
+	}
 
-		int statusCode = response.statusCode();
-		String body = response.body();
+	/**
+	 * Versión asíncrona de {@link #doGet(String)}.
+	 *
+	 * @param url la URL del recurso a consultar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doGetAsync(String url) {
+		return BackendClient.getAsync(BackendResource.PROFESOR, url);
+	}
 
-		if (statusCode >= 200 && statusCode < 300) {
-			return body;
-		} else if (statusCode == 404) {
-			return "Usuario no encontrado";
-		} else if (statusCode == 401) {
-			return "Credenciales incorrectas";
-		} else if (statusCode == 409) {
-			return "Usuario ya existe";
-		} else if (statusCode == 406) {
-			return "Error: datos no aceptables";
-		} else {
-			return "Error " + statusCode + ": " + body;
-		}
+	/**
+	 * Versión asíncrona de {@link #doPost(String, String)}.
+	 *
+	 * @param url  la URL de destino
+	 * @param json el contenido JSON a enviar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doPostAsync(String url, String json) {
+		return BackendClient.postAsync(BackendResource.PROFESOR, url, json);
 	}
 }
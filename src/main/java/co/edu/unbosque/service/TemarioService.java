@@ -1,20 +1,18 @@
 package co.edu.unbosque.service;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpClient.Version;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import com.google.gson.TypeAdapter;
 
 /**
  * Servicio encargado de realizar peticiones HTTP (GET, POST y DELETE) hacia
  * recursos relacionados con {@code Temario}.
  *
  * <p>
- * Utiliza {@link HttpClient} de Java 11+ para establecer la conexión con los
- * endpoints externos, soportando HTTP/2 y manejo de tiempos de espera.
+ * Utiliza el cliente compartido {@link BackendClient} para establecer la
+ * conexión con los endpoints externos y aplicar los tiempos de espera.
  * </p>
  *
  * <p>
@@ -25,8 +23,8 @@ import java.time.Duration;
  * Ejemplo de uso:
  * 
  * <pre>{@code
- * String resultado = TemarioService.doGet("http://localhost:8080/api/temarios");
- * System.out.println(resultado);
+ * BackendResponse resultado = TemarioService.doGet("http://localhost:8080/api/temarios");
+ * System.out.println(resultado.getStatus());
  * }</pre>
  *
  * @author
@@ -34,35 +32,31 @@ import java.time.Duration;
  */
 public class TemarioService {
 
-	/** Cliente HTTP reutilizable para todas las solicitudes */
-	private static final HttpClient CLIENTE = HttpClient.newBuilder().version(Version.HTTP_2)
-			.connectTimeout(Duration.ofSeconds(10)).build();
-
 	/**
 	 * Realiza una petición HTTP GET hacia la URL indicada.
 	 *
 	 * @param url la URL del recurso a consultar
-	 * @return la respuesta del servidor en formato {@code String}, incluyendo
-	 *         código de estado y cuerpo; o un mensaje de error en caso de fallo de
-	 *         conexión o interrupción
+	 * @return respuesta del backend; el bean decide según el código de estado
 	 */
-	public static String doGet(String url) {
-		HttpRequest solicitud = HttpRequest.newBuilder().GET().uri(URI.create(url))
-				.header("Content-Type", "application/json").timeout(Duration.ofSeconds(30)).build();
-
-		HttpResponse<String> respuesta = null;
-		try {
-			respuesta = CLIENTE.send(solicitud, HttpResponse.BodyHandlers.ofString());
-		} catch (IOException e) {
-			return "Error de conexión: " + e.getMessage();
-		} catch (InterruptedException e) {
-			return "Error de interrupción: " + e.getMessage();
-		}
-
-		String statusCode = String.valueOf(respuesta.statusCode());
-		String body = respuesta.body();
+	public static BackendResponse doGet(String url) {
+		return BackendClient.get(BackendResource.TEMARIO, url);
+	}
 
-		return statusCode + "\n" + body;
+	/**
+	 * Consulta un listado de temarios y lo decodifica elemento por elemento
+	 * directamente desde la respuesta, sin copiar el cuerpo completo.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param urlString la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return elementos decodificados
+	 * @throws BackendException si no hay respuesta, el estado no es 2xx o el JSON
+	 *                          es inválido
+	 */
+	public static <T> List<T> doGetList(String urlString, TypeAdapter<T> adaptador, Predicate<? super T> filtro)
+			throws BackendException {
+		return BackendClient.getList(BackendResource.TEMARIO, urlString, adaptador, filtro);
 	}
 
 	/**
@@ -70,83 +64,64 @@ public class TemarioService {
 	 *
 	 * @param url  la URL del recurso destino
 	 * @param json datos en formato JSON que se enviarán en el cuerpo de la petición
-	 * @return la respuesta del servidor en formato {@code String}.
-	 *         <ul>
-	 *         <li>Si el código es 2xx, devuelve el cuerpo de la respuesta.</li>
-	 *         <li>Si es 404, devuelve "Temario no encontrado".</li>
-	 *         <li>Si es 401, devuelve "No autorizado".</li>
-	 *         <li>Si es 409, devuelve "Temario ya existe".</li>
-	 *         <li>Si es 406, devuelve "Error: datos no aceptables".</li>
-	 *         <li>Si es otro código, devuelve "Error [código]: [respuesta]".</li>
-	 *         </ul>
+	 * @return respuesta del backend; el bean decide según el código de estado
 	 */
-	public static String doPost(String url, String json) {
-		HttpRequest request = HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.ofString(json))
-				.uri(URI.create(url)).header("User-Agent", "Java 11 HttpClient Bot")
-				.header("Content-Type", "application/json").header("Accept", "application/json")
-				.timeout(Duration.ofSeconds(30)).build();
-
-		HttpResponse<String> response = null;
-		try {
-			response = CLIENTE.send(request, HttpResponse.BodyHandlers.ofString());
-		} catch (InterruptedException e) {
-			return "Error de interrupción: " + e.getMessage();
-		} catch (IOException e) {
-			return "Error de conexión: " + e.getMessage();
-		}
-
-		int statusCode = response.statusCode();
-		String body = response.body();
-
-		if (statusCode >= 200 && statusCode < 300) {
-			return body;
-		} else if (statusCode == 404) {
-			return "Temario no encontrado";
-		} else if (statusCode == 401) {
-			return "No autorizado";
-		} else if (statusCode == 409) {
-			return "Temario ya existe";
-		} else if (statusCode == 406) {
-			return "Error: datos no aceptables";
-		} else {
-			return "Error " + statusCode + ": " + body;
-		}
+	public static BackendResponse doPost(String url, String json) {
+		return BackendClient.post(BackendResource.TEMARIO, url, json);
 	}
 
 	/**
 	 * Realiza una petición HTTP DELETE hacia la URL indicada.
 	 *
 	 * @param url la URL del recurso a eliminar
-	 * @return la respuesta del servidor en formato {@code String}.
-	 *         <ul>
-	 *         <li>Si el código es 2xx, devuelve el cuerpo de la respuesta.</li>
-	 *         <li>Si es 404, devuelve "Temario no encontrado".</li>
-	 *         <li>Si es otro código, devuelve "Error [código]: [respuesta]".</li>
-	 *         </ul>
+	 * @return respuesta del backend; el bean decide según el código de estado
+	 */
+	public static BackendResponse doDelete(String url) {
+		return BackendClient.delete(BackendResource.TEMARIO, url);
+	}
+
+	/**
+	 * Versión asíncrona de {@link #doGet(String)}.
+	 *
+	 * @param url la URL del recurso a consultar
+	 * @return futuro con la respuesta del backend
 	 */
-	public static String doDelete(String url) {
-		HttpRequest request = HttpRequest.newBuilder().DELETE().uri(URI.create(url))
-				.header("User-Agent", "Java 11 HttpClient Bot").header("Content-Type", "application/json")
-				.header("Accept", "application/json").timeout(Duration.ofSeconds(30)).build();
+	public static CompletableFuture<BackendResponse> doGetAsync(String url) {
+		return BackendClient.getAsync(BackendResource.TEMARIO, url);
+	}
 
-		HttpResponse<String> response = null;
-		try {
-			response = CLIENTE.send(request, HttpResponse.BodyHandlers.ofString());
-		} catch (InterruptedException e) {
-			return "Error de interrupción: " + e.getMessage();
-		} catch (IOException e) {
-			return "Error de conexión: " + e.getMessage();
-		}
+	/**
+	 * Versión asíncrona de {@link #doPost(String, String)}.
+	 *
+	 * @param url  la URL de destino
+	 * @param json el contenido JSON a enviar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doPostAsync(String url, String json) {
+		return BackendClient.postAsync(BackendResource.TEMARIO, url, json);
+	}
 
-		int statusCode = response.statusCode();
-		String body = response.body();
+	/**
+	 * Versión asíncrona de {@link #doDelete(String)}.
+	 *
+	 * @param url la URL del recurso a eliminar
+	 * @return futuro con la respuesta del backend
+	 */
+	public static CompletableFuture<BackendResponse> doDeleteAsync(String url) {
+		return BackendClient.deleteAsync(BackendResource.TEMARIO, url);
+	}
 
-		if (statusCode >= 200 && statusCode < 300) {
-			return body;
-		} else if (statusCode == 404) {
-			return "Temario no encontrado";
-		} else {
-			return "Error " + statusCode + ": " + body;
-		}
+	/**
+	 * Versión asíncrona de {@link #doGetList(String, TypeAdapter, Predicate)}.
+	 *
+	 * @param <T>       tipo de los elementos
+	 * @param url       la URL del listado
+	 * @param adaptador adaptador Gson que decodifica un elemento
+	 * @param filtro    condición que debe cumplir un elemento para conservarse
+	 * @return futuro con los elementos decodificados
+	 */
+	public static <T> CompletableFuture<List<T>> doGetListAsync(String url, TypeAdapter<T> adaptador,
+			Predicate<? super T> filtro) {
+		return BackendClient.getListAsync(BackendResource.TEMARIO, url, adaptador, filtro);
 	}
 }
@@ -0,0 +1,238 @@
+package co.edu.unbosque.servlet;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import co.edu.unbosque.service.BackendConfig;
+import co.edu.unbosque.service.BackendException;
+import co.edu.unbosque.service.BackendLog;
+import co.edu.unbosque.service.BackendResponse;
+import co.edu.unbosque.service.Media;
+import co.edu.unbosque.service.MediaService;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sirve la portada y el PDF de los libros y la imagen de los links por URL,
+ * para que las páginas no los incrusten en base64.
+ * <p>
+ * Rutas: {@code /media/libro/<id>/cover}, {@code /media/libro/<id>/pdf} y
+ * {@code /media/link/<id>/imagen}; con el parámetro {@code descarga} el
+ * contenido se descarga en lugar de abrirse. Las respuestas llevan
+ * {@code ETag} y {@code Cache-Control}, de modo que el navegador no vuelve a
+ * pedir un contenido que ya tiene, y admiten {@code Range} para que el visor de
+ * PDF muestre las primeras páginas sin esperar el archivo completo.
+ * </p>
+ *
+ * <p>
+ * Las vistas usan las miniaturas, en {@code /media/libro/<id>/miniatura} y
+ * {@code /media/link/<id>/miniatura}. Mientras una miniatura se genera se
+ * envía la imagen original con {@code max-age=0}, y el navegador la revalida
+ * en la siguiente visita; la miniatura ya lista lleva otro {@code ETag}.
+ * </p>
+ *
+ * <p>
+ * Los segundos que el navegador guarda el contenido se configuran con
+ * {@code backend.media.maxage}, y los de las miniaturas con
+ * {@code backend.media.miniatura.maxage}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public class MediaServlet extends HttpServlet {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final long MAX_AGE = BackendConfig.getLong("backend.media.maxage", 86400);
+
+	private static final long MAX_AGE_MINIATURA = BackendConfig.getLong("backend.media.miniatura.maxage", 2592000);
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String[] partes = request.getPathInfo() != null ? request.getPathInfo().split("/") : new String[0];
+		if (partes.length != 4) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		long id;
+		try {
+			id = Long.parseLong(partes[2]);
+		} catch (NumberFormatException e) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		Media media;
+		long maxAge = MAX_AGE;
+		try {
+			switch (partes[1] + "/" + partes[3]) {
+			case "libro/cover":
+				media = MediaService.getPortadaLibro(id);
+				break;
+			case "libro/pdf":
+				media = MediaService.getPdfLibro(id);
+				break;
+			case "link/imagen":
+				media = MediaService.getImagenLink(id);
+				break;
+			case "libro/miniatura":
+				media = MediaService.getMiniaturaPortada(id);
+				maxAge = MAX_AGE_MINIATURA;
+				if (media == null) {
+					// mientras se genera, la original sin guardarla en el navegador
+					media = MediaService.getPortadaLibro(id);
+					maxAge = 0;
+				}
+				break;
+			case "link/miniatura":
+				media = MediaService.getMiniaturaLink(id);
+				maxAge = MAX_AGE_MINIATURA;
+				if (media == null) {
+					media = MediaService.getImagenLink(id);
+					maxAge = 0;
+				}
+				break;
+			default:
+				media = null;
+			}
+		} catch (BackendException e) {
+			// el detalle nombra recursos y errores internos: solo va al registro
+			BackendLog.repetido("media." + partes[1],
+					"No se pudo servir " + request.getPathInfo() + ": " + e.getMessage());
+			response.sendError(e.getStatus() == BackendResponse.SIN_RESPUESTA ? HttpServletResponse.SC_GATEWAY_TIMEOUT
+					: HttpServletResponse.SC_BAD_GATEWAY);
+			return;
+		}
+		if (media == null) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		try (Media contenido = media) {
+			enviar(request, response, contenido, maxAge);
+		}
+	}
+
+	/**
+	 * Envía el contenido completo, un tramo o un {@code 304}.
+	 */
+	private static void enviar(HttpServletRequest request, HttpServletResponse response, Media media, long maxAge)
+			throws IOException {
+		response.setHeader("ETag", media.getEtag());
+		response.setHeader("Cache-Control", "private, max-age=" + maxAge);
+		response.setHeader("Accept-Ranges", "bytes");
+		if (coincide(request.getHeader("If-None-Match"), media.getEtag())) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		response.setContentType(media.getTipo());
+		if (request.getParameter("descarga") != null) {
+			response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''"
+					+ URLEncoder.encode(media.getNombre(), StandardCharsets.UTF_8).replace("+", "%20"));
+		}
+
+		long longitud = media.getLongitud();
+		long[] tramo = tramo(request.getHeader("Range"), request.getHeader("If-Range"), media.getEtag(), longitud);
+		if (tramo == null) {
+			response.setContentLengthLong(longitud);
+			media.escribir(0, longitud, response.getOutputStream());
+			return;
+		}
+		if (tramo.length == 0) {
+			response.setHeader("Content-Range", "bytes */" + longitud);
+			response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return;
+		}
+
+		long inicio = tramo[0];
+		long fin = tramo[1];
+		response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		response.setHeader("Content-Range", "bytes " + inicio + "-" + fin + "/" + longitud);
+		response.setContentLengthLong(fin - inicio + 1);
+		media.escribir(inicio, fin - inicio + 1, response.getOutputStream());
+	}
+
+	/**
+	 * Interpreta la cabecera {@code Range}. Solo se atiende un tramo; varios
+	 * tramos, un tramo mal escrito, o un {@code If-Range} que no coincide, se
+	 * responden con el contenido completo, como permite HTTP.
+	 *
+	 * @param rango    valor de {@code Range}, o {@code null}
+	 * @param siRango  valor de {@code If-Range}, o {@code null}
+	 * @param etag     validador del contenido
+	 * @param longitud tamaño del contenido en bytes
+	 * @return {@code null} para enviar el contenido completo, un arreglo vacío si
+	 *         el tramo no es satisfacible, o el primer y el último byte del tramo
+	 */
+	static long[] tramo(String rango, String siRango, String etag, long longitud) {
+		if (rango == null || !rango.startsWith("bytes=") || rango.indexOf(',') >= 0) {
+			return null;
+		}
+		if (siRango != null && !siRango.equals(etag)) {
+			return null;
+		}
+
+		String especificacion = rango.substring("bytes=".length()).trim();
+		int guion = especificacion.indexOf('-');
+		if (guion < 0) {
+			return null;
+		}
+		try {
+			long inicio;
+			long fin;
+			if (guion == 0) {
+				// sufijo: los últimos N bytes
+				long sufijo = Long.parseLong(especificacion.substring(1));
+				if (sufijo < 0) {
+					return null;
+				}
+				if (sufijo == 0) {
+					return new long[0];
+				}
+				inicio = Math.max(0, longitud - sufijo);
+				fin = longitud - 1;
+			} else {
+				inicio = Long.parseLong(especificacion.substring(0, guion));
+				fin = guion == especificacion.length() - 1 ? Long.MAX_VALUE
+						: Long.parseLong(especificacion.substring(guion + 1));
+				if (inicio < 0 || fin < inicio) {
+					// un tramo inválido se ignora; no es lo mismo que uno fuera del contenido
+					return null;
+				}
+				fin = Math.min(fin, longitud - 1);
+			}
+			if (inicio >= longitud) {
+				return new long[0];
+			}
+			return new long[] { inicio, fin };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param siNoCoincide valor de {@code If-None-Match}, o {@code null}
+	 * @param etag         validador del contenido
+	 * @return {@code true} si el navegador ya tiene el contenido
+	 */
+	private static boolean coincide(String siNoCoincide, String etag) {
+		if (siNoCoincide == null) {
+			return false;
+		}
+		for (String valor : siNoCoincide.split(",")) {
+			String candidato = valor.trim();
+			if (candidato.startsWith("W/")) {
+				candidato = candidato.substring(2);
+			}
+			if (candidato.equals("*") || candidato.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
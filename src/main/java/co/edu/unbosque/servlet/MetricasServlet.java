@@ -0,0 +1,157 @@
+package co.edu.unbosque.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import co.edu.unbosque.service.BackendConfig;
+import co.edu.unbosque.service.BackendMetrics;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Publica las métricas de {@link BackendMetrics} en el formato de texto de
+ * Prometheus, para que un recolector las lea periódicamente.
+ * <p>
+ * Por cada endpoint del backend se publican las llamadas, la latencia (p50,
+ * p90, p99 y máximo, en segundos), las respuestas por código de estado, los
+ * tiempos agotados, los errores de conexión, los rechazos del cortocircuito,
+ * las consultas que no se enviaron por falta de plazo y los bytes enviados y
+ * recibidos antes y después de la compresión. Por cada recurso se publica su
+ * límite de concurrencia actual, las peticiones en curso y las descartadas, y
+ * por cada carril de prioridad los envíos en curso y en cola.
+ * </p>
+ *
+ * <p>
+ * Solo responde a peticiones desde la misma máquina, salvo que
+ * {@code backend.metricas.remoto} sea {@code true}.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public class MetricasServlet extends HttpServlet {
+
+	private static final long serialVersionUID = 1L;
+
+	/** Prefijo de todas las métricas publicadas. */
+	private static final String PREFIJO = "artemisa_backend_";
+
+	/** Percentiles de latencia publicados. */
+	private static final double[] PERCENTILES = { 0.5, 0.9, 0.99 };
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (!BackendConfig.getBoolean("backend.metricas.remoto", false)
+				&& !InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress()) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+
+		response.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+		Map<String, BackendMetrics.Trafico> trafico = BackendMetrics.getTrafico();
+		PrintWriter salida = response.getWriter();
+
+		tipo(salida, "llamadas_total", "counter");
+		trafico.forEach((endpoint, t) -> valor(salida, "llamadas_total", endpoint, null, t.getLlamadas()));
+
+		tipo(salida, "latencia_segundos", "summary");
+		trafico.forEach((endpoint, t) -> {
+			for (double percentil : PERCENTILES) {
+				valor(salida, "latencia_segundos", endpoint, "quantile=\"" + percentil + "\"",
+						t.getLatenciaMicros(percentil) / 1e6);
+			}
+		});
+		tipo(salida, "latencia_maxima_segundos", "gauge");
+		trafico.forEach((endpoint, t) -> valor(salida, "latencia_maxima_segundos", endpoint, null,
+				t.getLatenciaMaximaMicros() / 1e6));
+
+		tipo(salida, "respuestas_total", "counter");
+		trafico.forEach((endpoint, t) -> t.getEstados()
+				.forEach((status, conteo) -> valor(salida, "respuestas_total", endpoint, "status=\"" + status + "\"",
+						conteo)));
+
+		contador(salida, trafico, "timeouts_total", BackendMetrics.Trafico::getTimeouts);
+		contador(salida, trafico, "errores_conexion_total", BackendMetrics.Trafico::getErroresConexion);
+		contador(salida, trafico, "rechazadas_total", BackendMetrics.Trafico::getRechazadas);
+		contador(salida, trafico, "agotadas_total", BackendMetrics.Trafico::getAgotadas);
+
+		tipo(salida, "bytes_recibidos_total", "counter");
+		trafico.forEach((endpoint, t) -> {
+			valor(salida, "bytes_recibidos_total", endpoint, "capa=\"red\"", t.getRecibidosRed());
+			valor(salida, "bytes_recibidos_total", endpoint, "capa=\"cuerpo\"", t.getRecibidos());
+		});
+		tipo(salida, "bytes_enviados_total", "counter");
+		trafico.forEach((endpoint, t) -> {
+			valor(salida, "bytes_enviados_total", endpoint, "capa=\"red\"", t.getEnviadosRed());
+			valor(salida, "bytes_enviados_total", endpoint, "capa=\"cuerpo\"", t.getEnviados());
+		});
+
+		tipo(salida, "reutilizadas_total", "counter");
+		trafico.forEach((endpoint, t) -> {
+			valor(salida, "reutilizadas_total", endpoint, "motivo=\"304\"", t.getNoModificadas());
+			valor(salida, "reutilizadas_total", endpoint, "motivo=\"hash\"", t.getCuerposRepetidos());
+			valor(salida, "reutilizadas_total", endpoint, "motivo=\"plazo\"", t.getRespaldos());
+		});
+		contador(salida, trafico, "colapsadas_total", BackendMetrics.Trafico::getColapsadas);
+		contador(salida, trafico, "reintentos_total", BackendMetrics.Trafico::getReintentos);
+		contador(salida, trafico, "coberturas_total", BackendMetrics.Trafico::getCoberturas);
+
+		Map<String, BackendMetrics.Concurrencia> concurrencia = BackendMetrics.getConcurrencia();
+		tipo(salida, "concurrencia_limite", "gauge");
+		concurrencia.forEach(
+				(recurso, c) -> valor(salida, "concurrencia_limite", "recurso", recurso, null, c.getLimite()));
+		tipo(salida, "concurrencia_en_curso", "gauge");
+		concurrencia.forEach(
+				(recurso, c) -> valor(salida, "concurrencia_en_curso", "recurso", recurso, null, c.getEnCurso()));
+		tipo(salida, "concurrencia_descartadas_total", "counter");
+		concurrencia.forEach((recurso, c) -> valor(salida, "concurrencia_descartadas_total", "recurso", recurso,
+				null, c.getDescartadas()));
+
+		Map<String, BackendMetrics.Carril> carriles = BackendMetrics.getCarriles();
+		tipo(salida, "carril_en_curso", "gauge");
+		carriles.forEach((carril, c) -> valor(salida, "carril_en_curso", "carril", carril, null, c.getEnCurso()));
+		tipo(salida, "carril_en_cola", "gauge");
+		carriles.forEach((carril, c) -> valor(salida, "carril_en_cola", "carril", carril, null, c.getEnCola()));
+		salida.flush();
+	}
+
+	private static void contador(PrintWriter salida, Map<String, BackendMetrics.Trafico> trafico, String nombre,
+			ToLongFunction<BackendMetrics.Trafico> lectura) {
+		tipo(salida, nombre, "counter");
+		trafico.forEach((endpoint, t) -> valor(salida, nombre, endpoint, null, lectura.applyAsLong(t)));
+	}
+
+	private static void tipo(PrintWriter salida, String nombre, String tipo) {
+		salida.print("# TYPE ");
+		salida.print(PREFIJO);
+		salida.print(nombre);
+		salida.print(' ');
+		salida.println(tipo);
+	}
+
+	private static void valor(PrintWriter salida, String nombre, String endpoint, String etiqueta, Number valor) {
+		valor(salida, nombre, "endpoint", endpoint, etiqueta, valor);
+	}
+
+	private static void valor(PrintWriter salida, String nombre, String clave, String dueno, String etiqueta,
+			Number valor) {
+		salida.print(PREFIJO);
+		salida.print(nombre);
+		salida.print('{');
+		salida.print(clave);
+		salida.print("=\"");
+		salida.print(dueno.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+		salida.print('"');
+		if (etiqueta != null) {
+			salida.print(',');
+			salida.print(etiqueta);
+		}
+		salida.print("} ");
+		salida.println(valor);
+	}
+}
@@ -0,0 +1,78 @@
+package co.edu.unbosque.servlet;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import co.edu.unbosque.service.BackendPlazo;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Abre el plazo total de cada página JSF antes de construirla, para que sus
+ * consultas al backend no sumen sus tiempos de espera.
+ * <p>
+ * La vista se deduce de la ruta pedida ({@code /evento.xhtml} es
+ * {@code evento}) y su presupuesto se lee con
+ * {@link BackendPlazo#presupuesto(String)}. Las vistas sin plazo configurado se
+ * atienden como antes.
+ * </p>
+ *
+ * <p>
+ * Aquí solo se abre el plazo de las peticiones GET. En un POST el tiempo de la
+ * página incluye la subida de los archivos y la acción, como el envío de un PDF
+ * en {@code LibroBean.addBook}; si el plazo corriera desde el principio, el
+ * listado que se recarga después lo encontraría agotado y mostraría la copia
+ * anterior, sin el libro recién creado. El plazo de un postback lo abre
+ * {@link PlazoRenderListener} al empezar a dibujar la respuesta. En ambos casos
+ * este filtro lo cierra al terminar la petición.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public class PlazoPaginaFilter extends HttpFilter {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+		if ("GET".equals(request.getMethod())) {
+			Duration presupuesto = BackendPlazo.presupuesto(vista(ruta(request)));
+			if (!presupuesto.isZero()) {
+				BackendPlazo.iniciar(presupuesto);
+			}
+		}
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			BackendPlazo.terminar();
+		}
+	}
+
+	/**
+	 * @param request petición recibida
+	 * @return ruta pedida dentro de la aplicación
+	 */
+	private static String ruta(HttpServletRequest request) {
+		String ruta = request.getServletPath();
+		if (request.getPathInfo() != null) {
+			ruta += request.getPathInfo();
+		}
+		return ruta;
+	}
+
+	/**
+	 * @param ruta ruta o identificador de la vista, por ejemplo
+	 *             {@code /evento.xhtml}
+	 * @return nombre de la vista, sin carpeta ni extensión
+	 */
+	static String vista(String ruta) {
+		String nombre = ruta.substring(ruta.lastIndexOf('/') + 1);
+		int punto = nombre.lastIndexOf('.');
+		return punto >= 0 ? nombre.substring(0, punto) : nombre;
+	}
+}
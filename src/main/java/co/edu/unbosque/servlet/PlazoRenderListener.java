@@ -0,0 +1,51 @@
+package co.edu.unbosque.servlet;
+
+import java.time.Duration;
+
+import co.edu.unbosque.service.BackendPlazo;
+import jakarta.faces.component.UIViewRoot;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.PhaseEvent;
+import jakarta.faces.event.PhaseId;
+import jakarta.faces.event.PhaseListener;
+
+/**
+ * Abre el plazo total de la página de un postback justo antes de dibujar la
+ * respuesta.
+ * <p>
+ * La subida de los archivos y la acción ya terminaron, así que no gastan el
+ * presupuesto, pero los listados que las vistas recargan al dibujarse siguen
+ * teniendo un plazo común. El presupuesto es el de la vista que se dibuja, que
+ * puede no ser la del formulario si la acción navegó a otra. Lo cierra
+ * {@link PlazoPaginaFilter} al terminar la petición.
+ * </p>
+ *
+ * @author
+ * @version 1.0
+ */
+public class PlazoRenderListener implements PhaseListener {
+
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public PhaseId getPhaseId() {
+		return PhaseId.RENDER_RESPONSE;
+	}
+
+	@Override
+	public void beforePhase(PhaseEvent event) {
+		FacesContext contexto = event.getFacesContext();
+		UIViewRoot vista = contexto.getViewRoot();
+		if (!contexto.isPostback() || vista == null || vista.getViewId() == null) {
+			return;
+		}
+		Duration presupuesto = BackendPlazo.presupuesto(PlazoPaginaFilter.vista(vista.getViewId()));
+		if (!presupuesto.isZero()) {
+			BackendPlazo.iniciar(presupuesto);
+		}
+	}
+
+	@Override
+	public void afterPhase(PhaseEvent event) {
+	}
+}
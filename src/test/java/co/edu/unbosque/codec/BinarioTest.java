@@ -0,0 +1,193 @@
+package co.edu.unbosque.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonToken;
+
+import co.edu.unbosque.dto.AdministradorDTO;
+import co.edu.unbosque.dto.EstudianteDTO;
+import co.edu.unbosque.dto.EventoDTO;
+import co.edu.unbosque.dto.LibroDTO;
+import co.edu.unbosque.dto.LinkDTO;
+import co.edu.unbosque.dto.ProblemaDTO;
+import co.edu.unbosque.dto.ProfesorDTO;
+import co.edu.unbosque.dto.TemarioDTO;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de ida y vuelta del formato de {@link Binario}: cada DTO escrito con
+ * {@link EscritorBinario} y leído con {@link LectorBinario} debe quedar igual,
+ * comparando su JSON.
+ *
+ * @author
+ * @version 1.0
+ */
+public class BinarioTest {
+
+	private static final String PORTADA = Base64.getEncoder().encodeToString(new byte[] { (byte) 0x89, 'P', 'N', 'G',
+			0, -1, 42 });
+	private static final String PDF = Base64.getEncoder().encodeToString("%PDF-1.4 ñ".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	public void administrador() throws IOException {
+		idaYVuelta(AdministradorDTO.class, new AdministradorDTO(1L, "admin", "clave", "total", "2000-01-31"));
+	}
+
+	@Test
+	public void estudiante() throws IOException {
+		idaYVuelta(EstudianteDTO.class, new EstudianteDTO(2L, "estudiante", "clave", "basico", "2004-12-01"));
+	}
+
+	@Test
+	public void profesor() throws IOException {
+		idaYVuelta(ProfesorDTO.class, new ProfesorDTO(3L, "profesora", "clave", "docente", "1980-06-15"));
+	}
+
+	@Test
+	public void evento() throws IOException {
+		idaYVuelta(EventoDTO.class, new EventoDTO(4L, "Maratón", "Programación competitiva", "concurso",
+				LocalDateTime.of(2026, 10, 18, 9, 30, 15), "https://ejemplo.org/maraton", "Bloque C"));
+	}
+
+	@Test
+	public void problema() throws IOException {
+		idaYVuelta(ProblemaDTO.class, new ProblemaDTO(Long.MAX_VALUE, "A + B", -7, "sumas", "Codeforces",
+				"https://codeforces.com/problemset/problem/1/A"));
+	}
+
+	@Test
+	public void temario() throws IOException {
+		idaYVuelta(TemarioDTO.class, new TemarioDTO(6L, "Dijkstra", "grafos", "Caminos más cortos\n\t\"pesos\"",
+				"int main() { return 0; }"));
+	}
+
+	@Test
+	public void libro() throws IOException {
+		LibroDTO libro = idaYVuelta(LibroDTO.class,
+				new LibroDTO(7L, "Cálculo", "Stewart", "Séptima edición", "https://ejemplo.org", PORTADA, PDF));
+		assertEquals(PORTADA, libro.getImagenBase64());
+		assertEquals(PDF, libro.getPdfBase64());
+	}
+
+	@Test
+	public void link() throws IOException {
+		LinkDTO link = new LinkDTO("Juez", "Problemas en línea", "https://ejemplo.org", new byte[] { 1, 2, -3 });
+		link.setId(8L);
+		link.setImagenBase64(PORTADA);
+		LinkDTO leido = idaYVuelta(LinkDTO.class, link);
+		assertArrayEquals(new byte[] { 1, 2, -3 }, leido.getImagen());
+	}
+
+	@Test
+	public void losCamposNulosNoSeEscriben() throws IOException {
+		ProblemaDTO problema = new ProblemaDTO(null, "Problema", null, null, null, null);
+		byte[] bytes = Binario.codificar(Codecs.de(ProblemaDTO.class), problema);
+		assertFalse(new String(bytes, StandardCharsets.UTF_8).contains("id"));
+		ProblemaDTO leido = leer(Codecs.de(ProblemaDTO.class), bytes);
+		assertNull(leido.getId());
+		assertEquals("Problema", leido.getTitulo());
+	}
+
+	@Test
+	public void losAdjuntosViajanSinBase64() {
+		LibroDTO libro = new LibroDTO(null, "t", null, null, null, null, PDF);
+		byte[] binario = Binario.codificar(Codecs.de(LibroDTO.class), libro);
+		byte[] json = Codecs.json(Codecs.de(LibroDTO.class), libro).getBytes(StandardCharsets.UTF_8);
+		assertTrue(binario.length < json.length);
+		assertFalse(new String(binario, StandardCharsets.ISO_8859_1).contains(PDF));
+	}
+
+	@Test
+	public void unListadoLigeroSaltaLosAdjuntos() throws IOException {
+		LibroDTO primero = new LibroDTO(1L, "Uno", "A", null, null, PORTADA, PDF);
+		LibroDTO segundo = new LibroDTO(2L, "Dos", "B", null, null, null, PDF);
+		TypeAdapter<List<LibroDTO>> completo = Codecs.gson().getAdapter(new TypeToken<List<LibroDTO>>() {
+		});
+		byte[] bytes = Binario.codificar(completo, List.of(primero, segundo));
+
+		LectorBinario lector = new LectorBinario(new ByteArrayInputStream(bytes));
+		lector.beginArray();
+		LibroDTO uno = Codecs.ligero(LibroDTO.class).read(lector);
+		LibroDTO dos = Codecs.ligero(LibroDTO.class).read(lector);
+		lector.endArray();
+		assertEquals(JsonToken.END_DOCUMENT, lector.peek());
+
+		assertEquals("Uno", uno.getTitulo());
+		assertNull(uno.getPdfBase64());
+		assertTrue(uno.isPdfDiferido());
+		assertTrue(uno.isConPortada());
+		assertEquals("Dos", dos.getTitulo());
+		assertFalse(dos.isConPortada());
+	}
+
+	@Test
+	public void losCamposDesconocidosSeSaltan() throws IOException {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		try (EscritorBinario escritor = new EscritorBinario(salida)) {
+			escritor.beginObject();
+			escritor.name("id").value(9L);
+			escritor.name("extra").beginObject();
+			escritor.name("lista").beginArray().value(1.5).value(true).nullValue().value("x").endArray();
+			escritor.name("bytes");
+			escritor.value(new byte[] { 1, 2, 3 });
+			escritor.endObject();
+			escritor.name("titulo").value("Conocido");
+			escritor.endObject();
+		}
+		ProblemaDTO leido = leer(Codecs.de(ProblemaDTO.class), salida.toByteArray());
+		assertEquals(Long.valueOf(9), leido.getId());
+		assertEquals("Conocido", leido.getTitulo());
+	}
+
+	@Test
+	public void varintEnLosExtremos() throws IOException {
+		for (long valor : new long[] { 0, 1, 127, 128, 16383, 16384, Long.MAX_VALUE, -1 }) {
+			ByteArrayOutputStream salida = new ByteArrayOutputStream();
+			Binario.escribirVarint(salida, valor);
+			assertEquals(valor, Binario.leerVarint(new ByteArrayInputStream(salida.toByteArray())));
+		}
+	}
+
+	@Test
+	public void reconoceElTipoDeContenido() {
+		assertTrue(Binario.es(Binario.TIPO));
+		assertTrue(Binario.es(Binario.TIPO.toUpperCase() + "; charset=binary"));
+		assertFalse(Binario.es("application/json"));
+		assertFalse(Binario.es(null));
+	}
+
+	/**
+	 * Escribe el DTO en binario, lo vuelve a leer y compara ambos en JSON.
+	 *
+	 * @return DTO leído
+	 */
+	private static <T> T idaYVuelta(Class<T> tipo, T dto) throws IOException {
+		TypeAdapter<T> adaptador = Codecs.de(tipo);
+		T leido = leer(adaptador, Binario.codificar(adaptador, dto));
+		assertEquals(Codecs.json(adaptador, dto), Codecs.json(adaptador, leido));
+		return leido;
+	}
+
+	private static <T> T leer(TypeAdapter<T> adaptador, byte[] bytes) throws IOException {
+		try (LectorBinario lector = new LectorBinario(new ByteArrayInputStream(bytes))) {
+			T leido = adaptador.read(lector);
+			assertEquals(JsonToken.END_DOCUMENT, lector.peek());
+			return leido;
+		}
+	}
+}
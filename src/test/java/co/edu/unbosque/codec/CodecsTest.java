@@ -0,0 +1,110 @@
+package co.edu.unbosque.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+
+import co.edu.unbosque.dto.AdministradorDTO;
+import co.edu.unbosque.dto.EstudianteDTO;
+import co.edu.unbosque.dto.LibroDTO;
+import co.edu.unbosque.dto.LinkDTO;
+import co.edu.unbosque.dto.ProblemaDTO;
+import co.edu.unbosque.dto.ProfesorDTO;
+import co.edu.unbosque.dto.TemarioDTO;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de los adaptadores de {@link Codecs}: el JSON que escriben debe ser
+ * el mismo que escribía {@link Gson} por reflexión, sin los campos
+ * {@code null}, y deben leer lo que este escribe.
+ *
+ * @author
+ * @version 1.0
+ */
+public class CodecsTest {
+
+	/**
+	 * Gson sin adaptadores, como se usaba antes de {@link Codecs}; sin escapar
+	 * HTML, que solo cambia la forma de escribir el mismo texto.
+	 */
+	private static final Gson REFLEXION = new GsonBuilder().disableHtmlEscaping().create();
+
+	private static final String PDF = Base64.getEncoder().encodeToString("%PDF-1.4".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	public void escribenIgualQueLaReflexion() {
+		igual(AdministradorDTO.class, new AdministradorDTO(1L, "admin", "clave", "total", "2000-01-31"));
+		igual(EstudianteDTO.class, new EstudianteDTO(2L, "est", "clave", "basico", "2004-12-01"));
+		igual(ProfesorDTO.class, new ProfesorDTO(3L, "prof", "clave", "docente", "1980-06-15"));
+		igual(ProblemaDTO.class, new ProblemaDTO(4L, "A + B", 800, "sumas", "Codeforces", "https://cf.com"));
+		igual(TemarioDTO.class, new TemarioDTO(5L, "Dijkstra", "grafos", "línea 1\nlínea \"2\"", "int x;"));
+		igual(LibroDTO.class, new LibroDTO(6L, "Cálculo", "Stewart", "7.ª ed.", "https://e.org", PDF, PDF));
+		LinkDTO link = new LinkDTO("Juez", "En línea", "https://e.org", new byte[] { 1, -2, 127 });
+		link.setId(7L);
+		link.setImagenBase64(PDF);
+		igual(LinkDTO.class, link);
+	}
+
+	@Test
+	public void losCamposNulosNoSeEscriben() {
+		igual(ProblemaDTO.class, new ProblemaDTO(null, "Nuevo", null, null, null, null));
+		igual(LibroDTO.class, new LibroDTO(null, "Nuevo", null, null, null, null, null));
+		igual(LinkDTO.class, new LinkDTO("Nuevo", null, null, null));
+		String json = Codecs.json(Codecs.de(LinkDTO.class), new LinkDTO("Nuevo", null, null, null));
+		assertFalse(json, json.contains("null"));
+	}
+
+	@Test
+	public void leenLoQueEscribeLaReflexion() {
+		LinkDTO link = new LinkDTO("Juez", null, "https://e.org", new byte[] { 1, -2, 127 });
+		link.setId(7L);
+		LinkDTO leido = Codecs.de(LinkDTO.class).fromJsonTree(REFLEXION.toJsonTree(link));
+		assertEquals(REFLEXION.toJson(link), REFLEXION.toJson(leido));
+	}
+
+	@Test
+	public void losCamposDesconocidosSeIgnoran() throws IOException {
+		ProblemaDTO problema = Codecs.de(ProblemaDTO.class)
+				.fromJson("{\"id\":1,\"nuevo\":{\"a\":[1,2]},\"titulo\":\"X\",\"otro\":null}");
+		assertEquals(Long.valueOf(1), problema.getId());
+		assertEquals("X", problema.getTitulo());
+	}
+
+	@Test
+	public void unCuerpoConAdjuntosEsElMismoJson() throws IOException {
+		LibroDTO libro = new LibroDTO(null, "Cálculo", "Stewart", null, null, null, null);
+		byte[] portada = { (byte) 0x89, 'P', 'N', 'G' };
+		byte[] pdf = "%PDF-1.4".getBytes(StandardCharsets.UTF_8);
+		Map<String, FuenteFlujo> adjuntos = new LinkedHashMap<>();
+		adjuntos.put("imagenBase64", () -> new ByteArrayInputStream(portada));
+		adjuntos.put("pdfBase64", () -> new ByteArrayInputStream(pdf));
+
+		String cuerpo;
+		try (InputStream flujo = CuerpoJson.conAdjuntos(Codecs.de(LibroDTO.class), libro, adjuntos).abrir()) {
+			cuerpo = new String(flujo.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		libro.setImagenBase64(Base64.getEncoder().encodeToString(portada));
+		libro.setPdfBase64(Base64.getEncoder().encodeToString(pdf));
+		assertEquals(REFLEXION.toJson(libro), cuerpo);
+	}
+
+	private static <T> void igual(Class<T> tipo, T dto) {
+		TypeAdapter<T> adaptador = Codecs.de(tipo);
+		String json = Codecs.json(adaptador, dto);
+		assertEquals(REFLEXION.toJson(dto), json);
+		assertEquals(json, Codecs.json(adaptador, Codecs.gson().fromJson(json, tipo)));
+	}
+}
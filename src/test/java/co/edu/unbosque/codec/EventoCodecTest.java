@@ -0,0 +1,74 @@
+package co.edu.unbosque.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.google.gson.TypeAdapter;
+
+import co.edu.unbosque.dto.EventoDTO;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de la lectura y escritura de {@link EventoDTO#getFecha()} en
+ * {@link EventoCodec}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class EventoCodecTest {
+
+	private static final TypeAdapter<EventoDTO> ADAPTADOR = Codecs.de(EventoDTO.class);
+
+	private static final LocalDateTime FECHA = LocalDateTime.of(2025, 5, 10, 18, 30, 5);
+
+	@Test
+	public void leeElFormatoDelBackend() throws IOException {
+		assertEquals(FECHA, fecha("\"2025-05-10 18:30:05\""));
+	}
+
+	@Test
+	public void leeIso() throws IOException {
+		assertEquals(FECHA, fecha("\"2025-05-10T18:30:05\""));
+		assertEquals(FECHA.withNano(123_000_000), fecha("\"2025-05-10T18:30:05.123\""));
+		assertEquals(FECHA, fecha("\"2025-05-10T18:30:05-05:00\""));
+	}
+
+	@Test
+	public void leeSoloElDia() throws IOException {
+		assertEquals(FECHA.toLocalDate().atStartOfDay(), fecha("\"2025-05-10\""));
+		assertEquals(FECHA.toLocalDate().atStartOfDay(), fecha("\" 2025-05-10 \""));
+	}
+
+	@Test
+	public void leeMilisegundosDesdeLaEpoca() throws IOException {
+		long millis = FECHA.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()),
+				fecha(Long.toString(millis)));
+	}
+
+	@Test
+	public void unaFechaQueNoSeReconoceQuedaNula() throws IOException {
+		assertNull(fecha("\"ayer\""));
+		assertNull(fecha("\"\""));
+		assertNull(fecha("null"));
+		assertNull(fecha("\"2025-AB-10\""));
+		assertNull(fecha("\"2025-13-40 00:00:00\""));
+	}
+
+	@Test
+	public void escribeElFormatoDelBackend() {
+		EventoDTO evento = new EventoDTO(1L, "Maratón", null, null, FECHA, null, null);
+		assertEquals("{\"id\":1,\"titulo\":\"Maratón\",\"fecha\":\"2025-05-10 18:30:05\"}",
+				Codecs.json(ADAPTADOR, evento));
+	}
+
+	private static LocalDateTime fecha(String valor) throws IOException {
+		return ADAPTADOR.fromJson("{\"titulo\":\"x\",\"fecha\":" + valor + "}").getFecha();
+	}
+}
@@ -0,0 +1,107 @@
+package co.edu.unbosque.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link FlujoBase64}: el resultado debe ser igual al de
+ * {@link Base64.Encoder#encode(byte[])} para cualquier longitud, en especial
+ * en los bordes de un bloque.
+ *
+ * @author
+ * @version 1.0
+ */
+public class FlujoBase64Test {
+
+	private static final int BLOQUE = 3 * 4096;
+
+	private static final int[] LONGITUDES = { 0, 1, 2, 3, BLOQUE - 1, BLOQUE, BLOQUE + 1, 2 * BLOQUE + 2,
+			5 * BLOQUE + 7 };
+
+	@Test
+	public void codificaIgualQueElCodificadorDeLaJdk() throws IOException {
+		for (int longitud : LONGITUDES) {
+			byte[] original = aleatorios(longitud);
+			byte[] codificado;
+			try (InputStream flujo = new FlujoBase64(new ByteArrayInputStream(original))) {
+				codificado = flujo.readAllBytes();
+			}
+			assertArrayEquals("longitud " + longitud, Base64.getEncoder().encode(original), codificado);
+		}
+	}
+
+	@Test
+	public void codificaLeyendoDeAUnByte() throws IOException {
+		for (int longitud : LONGITUDES) {
+			byte[] original = aleatorios(longitud);
+			ByteArrayOutputStream codificado = new ByteArrayOutputStream();
+			try (InputStream flujo = new FlujoBase64(new ByteArrayInputStream(original))) {
+				int b;
+				while ((b = flujo.read()) >= 0) {
+					codificado.write(b);
+				}
+				assertEquals(-1, flujo.read());
+			}
+			assertArrayEquals("longitud " + longitud, Base64.getEncoder().encode(original),
+					codificado.toByteArray());
+		}
+	}
+
+	@Test
+	public void codificaConUnOriginalQueEntregaPocoACada() throws IOException {
+		byte[] original = aleatorios(BLOQUE + 1);
+		// un flujo de red puede entregar menos bytes de los pedidos en cada lectura
+		InputStream datos = new ByteArrayInputStream(original);
+		InputStream lento = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				return datos.read();
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				return datos.read(b, off, Math.min(len, 7));
+			}
+		};
+		try (InputStream flujo = new FlujoBase64(lento)) {
+			assertArrayEquals(Base64.getEncoder().encode(original), flujo.readAllBytes());
+		}
+	}
+
+	@Test
+	public void leerCeroBytesNoConsumeNada() throws IOException {
+		try (InputStream flujo = new FlujoBase64(new ByteArrayInputStream(new byte[] { 'a' }))) {
+			assertEquals(0, flujo.read(new byte[4], 0, 0));
+			assertEquals("YQ==", new String(flujo.readAllBytes(), "US-ASCII"));
+		}
+	}
+
+	@Test
+	public void cerrarloCierraElOriginal() throws IOException {
+		boolean[] cerrado = { false };
+		InputStream original = new ByteArrayInputStream(new byte[0]) {
+			@Override
+			public void close() {
+				cerrado[0] = true;
+			}
+		};
+		new FlujoBase64(original).close();
+		assertTrue(cerrado[0]);
+	}
+
+	private static byte[] aleatorios(int longitud) {
+		byte[] bytes = new byte[longitud];
+		new Random(longitud).nextBytes(bytes);
+		return bytes;
+	}
+}
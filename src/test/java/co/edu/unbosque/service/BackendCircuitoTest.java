@@ -0,0 +1,142 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link BackendCircuito}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class BackendCircuitoTest {
+
+	private static final BackendPrioridad INTERACTIVA = BackendPrioridad.INTERACTIVA;
+	private static final BackendPrioridad FONDO = BackendPrioridad.FONDO;
+
+	@Test
+	public void seAbreTrasLosFallosSeguidos() throws Exception {
+		BackendCircuito circuito = circuito(3, 60000, 10);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(BackendCircuito.Estado.CERRADO, circuito.getEstado());
+			circuito.entrar(INTERACTIVA);
+			circuito.salir(INTERACTIVA, false, 1000);
+		}
+		assertEquals(BackendCircuito.Estado.ABIERTO, circuito.getEstado());
+		rechazada(circuito, INTERACTIVA);
+		rechazada(circuito, FONDO);
+		assertEquals("el rechazo no debe retener lugares", 0, circuito.getEnCurso());
+	}
+
+	@Test
+	public void unExitoReiniciaLaCuentaDeFallos() throws Exception {
+		BackendCircuito circuito = circuito(2, 60000, 10);
+		circuito.entrar(INTERACTIVA);
+		circuito.salir(INTERACTIVA, false, 1000);
+		circuito.entrar(INTERACTIVA);
+		circuito.salir(INTERACTIVA, true, 1000);
+		circuito.entrar(INTERACTIVA);
+		circuito.salir(INTERACTIVA, false, 1000);
+		assertEquals(BackendCircuito.Estado.CERRADO, circuito.getEstado());
+	}
+
+	@Test
+	public void semiabiertoAdmiteUnaSolaPrueba() throws Exception {
+		BackendCircuito circuito = abierto();
+		circuito.entrar(INTERACTIVA);
+		assertEquals(BackendCircuito.Estado.SEMIABIERTO, circuito.getEstado());
+		rechazada(circuito, INTERACTIVA);
+		circuito.salir(INTERACTIVA, true, 1000);
+		assertEquals(BackendCircuito.Estado.CERRADO, circuito.getEstado());
+	}
+
+	@Test
+	public void unaPruebaFallidaVuelveAAbrirlo() throws Exception {
+		BackendCircuito circuito = abierto();
+		circuito.entrar(INTERACTIVA);
+		circuito.salir(INTERACTIVA, false, 1000);
+		assertEquals(BackendCircuito.Estado.ABIERTO, circuito.getEstado());
+	}
+
+	@Test
+	public void liberarSinResultadoNoCierraElCircuito() throws Exception {
+		BackendCircuito circuito = abierto();
+		circuito.entrar(INTERACTIVA);
+		circuito.liberar(INTERACTIVA);
+		assertEquals(BackendCircuito.Estado.ABIERTO, circuito.getEstado());
+		assertEquals(0, circuito.getEnCurso());
+	}
+
+	@Test
+	public void rechazaLasInteractivasConElLimiteOcupado() throws Exception {
+		BackendCircuito circuito = circuito(5, 60000, 1);
+		circuito.entrar(INTERACTIVA);
+		rechazada(circuito, INTERACTIVA);
+		assertEquals(1, circuito.getDescartadas());
+		circuito.salir(INTERACTIVA, true, -1);
+		circuito.entrar(INTERACTIVA);
+		assertEquals(1, circuito.getEnCurso());
+	}
+
+	@Test
+	public void elFondoNoOcupaElLimiteInteractivo() throws Exception {
+		BackendCircuito circuito = circuito(5, 60000, 1);
+		circuito.entrar(FONDO);
+		circuito.entrar(FONDO);
+		assertEquals(0, circuito.getEnCurso());
+		circuito.entrar(INTERACTIVA);
+		assertEquals(1, circuito.getEnCurso());
+		circuito.salir(FONDO, true, -1);
+		circuito.liberar(FONDO);
+		assertEquals("el fondo no debe liberar lugares interactivos", 1, circuito.getEnCurso());
+	}
+
+	@Test
+	public void losFallosDelFondoTambienAbrenElCircuito() throws Exception {
+		BackendCircuito circuito = circuito(2, 60000, 1);
+		for (int i = 0; i < 2; i++) {
+			circuito.entrar(FONDO);
+			circuito.salir(FONDO, false, -1);
+		}
+		assertEquals(BackendCircuito.Estado.ABIERTO, circuito.getEstado());
+		rechazada(circuito, INTERACTIVA);
+	}
+
+	@Test
+	public void esExitoCuentaSoloLaFaltaDeRespuestaYLos5xx() {
+		assertTrue(BackendCircuito.esExito(200));
+		assertTrue(BackendCircuito.esExito(404));
+		assertFalse(BackendCircuito.esExito(500));
+		assertFalse(BackendCircuito.esExito(BackendResponse.SIN_RESPUESTA));
+	}
+
+	/**
+	 * @return circuito abierto con una espera ya cumplida, que admite la
+	 *         siguiente petición como prueba
+	 */
+	private static BackendCircuito abierto() throws BackendException {
+		BackendCircuito circuito = circuito(1, 0, 10);
+		circuito.entrar(INTERACTIVA);
+		circuito.salir(INTERACTIVA, false, 1000);
+		assertEquals(BackendCircuito.Estado.ABIERTO, circuito.getEstado());
+		return circuito;
+	}
+
+	private static BackendCircuito circuito(int umbral, long esperaMillis, int limite) {
+		return new BackendCircuito(BackendResource.EVENTO, umbral, esperaMillis,
+				new LimiteAdaptativo(limite, limite, limite, false, 0));
+	}
+
+	private static void rechazada(BackendCircuito circuito, BackendPrioridad prioridad) {
+		try {
+			circuito.entrar(prioridad);
+			fail("la petición debía rechazarse");
+		} catch (BackendException e) {
+			assertEquals(BackendResponse.SIN_RESPUESTA, e.getStatus());
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.dto.ProblemaDTO;
+import co.edu.unbosque.dto.ProfesorDTO;
+
+/**
+ * Pruebas de {@link BackendClient} contra un backend simulado con
+ * {@link HttpServer}. Las URL son completas para no depender de los nodos
+ * configurados.
+ *
+ * @author
+ * @version 1.0
+ */
+public class BackendClientTest {
+
+	private static final String LISTADO = "[{\"id\":1,\"titulo\":\"A\"},{\"id\":2,\"titulo\":\"B\"}]";
+
+	/** Peticiones recibidas por ruta. */
+	private static final Map<String, AtomicInteger> RECIBIDAS = new ConcurrentHashMap<>();
+
+	private static final Map<String, byte[]> CUERPOS = new ConcurrentHashMap<>();
+
+	/** Puertos de origen de las consultas de {@code /libro/pagina}, uno por conexión. */
+	private static final Set<Integer> PUERTOS = ConcurrentHashMap.newKeySet();
+
+	private static HttpServer servidor;
+	private static String base;
+
+	@BeforeClass
+	public static void iniciar() throws IOException {
+		servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		servidor.setExecutor(BackendExecutors.nuevo("backend-simulado"));
+		servidor.createContext("/", BackendClientTest::responder);
+		servidor.start();
+		base = "http://localhost:" + servidor.getAddress().getPort();
+	}
+
+	@AfterClass
+	public static void detener() {
+		servidor.stop(0);
+	}
+
+	@Test
+	public void getDevuelveElCuerpo() {
+		BackendResponse respuesta = BackendClient.get(BackendResource.PROBLEMA, base + "/problema/getbyid?id=1");
+		assertEquals(200, respuesta.getStatus());
+		assertEquals("{\"id\":1,\"titulo\":\"A\"}", respuesta.getBody());
+	}
+
+	@Test
+	public void unEstadoDeErrorSeDevuelveSinExcepcion() {
+		BackendResponse respuesta = BackendClient.get(BackendResource.PROBLEMA, base + "/problema/no-existe");
+		assertEquals(404, respuesta.getStatus());
+		assertEquals("un 4xx no se reintenta", 1, RECIBIDAS.get("/problema/no-existe").get());
+	}
+
+	@Test
+	public void sinConexionDevuelveSinRespuesta() throws IOException {
+		int puerto;
+		try (ServerSocket libre = new ServerSocket(0)) {
+			puerto = libre.getLocalPort();
+		}
+		BackendResponse respuesta = BackendClient.get(BackendResource.TEMARIO,
+				"http://localhost:" + puerto + "/temario/getall");
+		assertEquals(BackendResponse.SIN_RESPUESTA, respuesta.getStatus());
+		assertTrue(respuesta.getMensajeError(), respuesta.getMensajeError().startsWith("Error de conexión"));
+	}
+
+	@Test
+	public void getListDecodificaYFiltra() throws BackendException {
+		List<ProblemaDTO> problemas = BackendClient.getList(BackendResource.PROBLEMA, base + "/problema/getall",
+				Codecs.de(ProblemaDTO.class), problema -> problema.getId() > 1);
+		assertEquals(1, problemas.size());
+		assertEquals("B", problemas.get(0).getTitulo());
+	}
+
+	@Test
+	public void getElementoSeDetieneEnElPrimero() throws BackendException {
+		ProblemaDTO problema = BackendClient.getElemento(BackendResource.PROBLEMA, base + "/problema/getall",
+				Codecs.de(ProblemaDTO.class), p -> p.getId() == 2);
+		assertEquals("B", problema.getTitulo());
+		assertNull(BackendClient.getElemento(BackendResource.PROBLEMA, base + "/problema/getall",
+				Codecs.de(ProblemaDTO.class), p -> p.getId() == 3));
+	}
+
+	@Test
+	public void getListFallaConUnEstadoDeError() {
+		try {
+			BackendClient.getList(BackendResource.PROBLEMA, base + "/problema/no-existe-listado",
+					Codecs.de(ProblemaDTO.class), p -> true);
+			fail("debía fallar con 404");
+		} catch (BackendException e) {
+			assertEquals(404, e.getStatus());
+		}
+	}
+
+	@Test
+	public void unCuerpoInvalidoNoCuentaComoFallo() throws BackendException {
+		// más respuestas inválidas que fallos seguidos abren el circuito
+		for (int i = 0; i < 6; i++) {
+			invalida(base + "/profesor/objeto");
+			invalida(base + "/profesor/numero");
+		}
+		assertEquals(2, BackendClient.getList(BackendResource.PROFESOR, base + "/profesor/getall",
+				Codecs.de(ProfesorDTO.class), p -> true).size());
+	}
+
+	@Test
+	public void lasConsultasIgualesSimultaneasSeAgrupan() throws Exception {
+		// libro no usa peticiones de cobertura, que duplicarían una consulta lenta
+		String url = base + "/libro/lento";
+		List<CompletableFuture<BackendResponse>> consultas = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			consultas.add(BackendClient.getAsync(BackendResource.LIBRO, url));
+		}
+		for (CompletableFuture<BackendResponse> consulta : consultas) {
+			assertEquals(200, consulta.get().getStatus());
+		}
+		assertEquals(1, RECIBIDAS.get("/libro/lento").get());
+	}
+
+	@Test
+	public void lasConexionesSeReutilizanEntrePaginas() throws Exception {
+		// cada oleada son las consultas simultáneas de una página; ids distintos
+		// para que no se agrupen
+		final int oleadas = 10;
+		final int oleada = 6;
+		for (int i = 0; i < oleadas; i++) {
+			List<CompletableFuture<BackendResponse>> consultas = new ArrayList<>();
+			for (int j = 0; j < oleada; j++) {
+				consultas.add(BackendClient.getAsync(BackendResource.LIBRO, base + "/libro/pagina?id=" + (i * oleada + j)));
+			}
+			for (CompletableFuture<BackendResponse> consulta : consultas) {
+				assertEquals(200, consulta.get().getStatus());
+			}
+			dormir(20);
+		}
+		assertEquals(oleadas * oleada, RECIBIDAS.get("/libro/pagina").get());
+		assertTrue(PUERTOS.size() + " conexiones para " + oleadas * oleada + " consultas", PUERTOS.size() <= oleada);
+	}
+
+	@Test
+	public void postFlujoEnviaElCuerpoCompleto() {
+		byte[] pdf = new byte[200_000];
+		for (int i = 0; i < pdf.length; i++) {
+			pdf[i] = (byte) i;
+		}
+		BackendResponse respuesta = BackendClient.postFlujo(BackendResource.LIBRO, base + "/libro/crear",
+				() -> new ByteArrayInputStream(pdf), "application/pdf", BackendPrioridad.FONDO);
+		assertEquals(200, respuesta.getStatus());
+		assertArrayEquals(pdf, CUERPOS.get("/libro/crear"));
+	}
+
+	private static void invalida(String url) {
+		try {
+			BackendClient.getList(BackendResource.PROFESOR, url, Codecs.de(ProfesorDTO.class), p -> true);
+			fail("debía fallar con " + url);
+		} catch (BackendException e) {
+			assertEquals(200, e.getStatus());
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Respuesta inválida"));
+		}
+	}
+
+	private static void responder(HttpExchange intercambio) throws IOException {
+		String ruta = intercambio.getRequestURI().getPath();
+		RECIBIDAS.computeIfAbsent(ruta, r -> new AtomicInteger()).incrementAndGet();
+		try (InputStream entrada = intercambio.getRequestBody()) {
+			CUERPOS.put(ruta, entrada.readAllBytes());
+		}
+
+		int estado = 200;
+		String cuerpo = "{}";
+		switch (ruta) {
+		case "/problema/getbyid":
+			cuerpo = "{\"id\":1,\"titulo\":\"A\"}";
+			break;
+		case "/problema/getall":
+		case "/profesor/getall":
+			cuerpo = LISTADO;
+			break;
+		case "/profesor/objeto":
+			cuerpo = "{\"error\":\"sin datos\"}";
+			break;
+		case "/profesor/numero":
+			cuerpo = "[{\"id\":\"uno\"}]";
+			break;
+		case "/libro/lento":
+			dormir(300);
+			break;
+		case "/libro/pagina":
+			PUERTOS.add(intercambio.getRemoteAddress().getPort());
+			dormir(20);
+			break;
+		case "/libro/crear":
+			break;
+		default:
+			estado = 404;
+			cuerpo = "no existe";
+		}
+		byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+		intercambio.getResponseHeaders().set("Content-Type", "application/json");
+		intercambio.sendResponseHeaders(estado, bytes.length);
+		try (OutputStream salida = intercambio.getResponseBody()) {
+			salida.write(bytes);
+		}
+	}
+
+	private static void dormir(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link BackendEnCurso}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class BackendEnCursoTest {
+
+	private static final String URL = "http://localhost/libro/getall";
+
+	private final BackendEnCurso<String> enCurso = new BackendEnCurso<>();
+
+	@Test
+	public void ejecutarLiberaLaUrlAlTerminar() throws Exception {
+		AtomicInteger consultas = new AtomicInteger();
+		BackendEnCurso.Consulta<String> consulta = () -> String.valueOf(consultas.incrementAndGet());
+		assertEquals("1", enCurso.ejecutar(URL, limite(1000), consulta));
+		assertEquals("2", enCurso.ejecutar(URL, limite(1000), consulta));
+	}
+
+	@Test
+	public void ejecutarLiberaLaUrlSiLaConsultaFalla() throws Exception {
+		try {
+			enCurso.ejecutar(URL, limite(1000), () -> {
+				throw new BackendException(500, "caido");
+			});
+			fail("debía propagar el error");
+		} catch (BackendException e) {
+			assertEquals(500, e.getStatus());
+		}
+		assertEquals("b", enCurso.ejecutar(URL, limite(1000), () -> "b"));
+	}
+
+	@Test
+	public void ejecutarEsperaLaConsultaAjenaSinRepetirla() throws Exception {
+		AtomicInteger ajenas = new AtomicInteger();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		String resultado = enCurso.ejecutar(URL, limite(5000), () -> {
+			// otra página pide la misma URL mientras esta consulta sigue en curso
+			Thread otra = new Thread(() -> {
+				try {
+					enCurso.ejecutar(URL, limite(50), () -> String.valueOf(ajenas.incrementAndGet()));
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			});
+			otra.start();
+			join(otra);
+			return "propia";
+		});
+		assertEquals("propia", resultado);
+		assertEquals("la espera no debe enviar otra petición", 0, ajenas.get());
+		assertTrue(error.get() instanceof BackendException);
+		assertEquals(BackendResponse.SIN_RESPUESTA, ((BackendException) error.get()).getStatus());
+	}
+
+	@Test
+	public void compartirAgrupaLasPeticionesIguales() throws Exception {
+		AtomicInteger origenes = new AtomicInteger();
+		CompletableFuture<String> peticion = new CompletableFuture<>();
+		CompletableFuture<String> primera = enCurso.compartir(URL, () -> {
+			origenes.incrementAndGet();
+			return peticion;
+		});
+		CompletableFuture<String> segunda = enCurso.compartir(URL, () -> {
+			origenes.incrementAndGet();
+			return new CompletableFuture<>();
+		});
+		assertEquals(1, origenes.get());
+		assertFalse(primera.isDone());
+
+		peticion.complete("listado");
+		assertEquals("listado", primera.get(1, TimeUnit.SECONDS));
+		assertEquals("listado", segunda.get(1, TimeUnit.SECONDS));
+
+		enCurso.compartir(URL, () -> {
+			origenes.incrementAndGet();
+			return CompletableFuture.completedFuture("nuevo");
+		});
+		assertEquals("terminada la petición la URL queda libre", 2, origenes.get());
+	}
+
+	@Test
+	public void compartirEntregaElMismoErrorATodos() throws Exception {
+		CompletableFuture<String> peticion = new CompletableFuture<>();
+		CompletableFuture<String> primera = enCurso.compartir(URL, () -> peticion);
+		CompletableFuture<String> segunda = enCurso.compartir(URL, CompletableFuture::new);
+		BackendException fallo = new BackendException(503, "no disponible");
+		peticion.completeExceptionally(fallo);
+		assertSame(fallo, causa(primera));
+		assertSame(fallo, causa(segunda));
+	}
+
+	@Test
+	public void compartirLiberaLaUrlSiElOrigenLanza() throws Exception {
+		IllegalArgumentException invalida = new IllegalArgumentException("URI inválida");
+		CompletableFuture<String> fallida = enCurso.compartir(URL, () -> {
+			throw invalida;
+		});
+		assertSame(invalida, causa(fallida));
+
+		CompletableFuture<String> siguiente = enCurso.compartir(URL, () -> CompletableFuture.completedFuture("c"));
+		assertEquals("c", siguiente.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void cancelarUnaCopiaNoAfectaALasDemas() throws Exception {
+		CompletableFuture<String> peticion = new CompletableFuture<>();
+		CompletableFuture<String> primera = enCurso.compartir(URL, () -> peticion);
+		CompletableFuture<String> segunda = enCurso.compartir(URL, CompletableFuture::new);
+		primera.cancel(true);
+		assertFalse(peticion.isCancelled());
+		peticion.complete("d");
+		assertEquals("d", segunda.get(1, TimeUnit.SECONDS));
+	}
+
+	private static long limite(long millis) {
+		return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+
+	private static void join(Thread hilo) {
+		try {
+			hilo.join(5000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static Throwable causa(CompletableFuture<?> futuro) throws Exception {
+		try {
+			futuro.get(1, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		fail("el futuro debía terminar con error");
+		return null;
+	}
+}
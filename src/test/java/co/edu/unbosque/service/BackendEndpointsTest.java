@@ -0,0 +1,107 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import co.edu.unbosque.service.BackendEndpoints.Nodo;
+
+/**
+ * Pruebas del balanceo de {@link BackendEndpoints}. Suponen la expulsión tras
+ * tres fallos seguidos de {@code backend.nodos.fallos}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class BackendEndpointsTest {
+
+	private final Nodo a = new Nodo(URI.create("http://a:8081"));
+	private final Nodo b = new Nodo(URI.create("http://b:8081"));
+	private final Nodo c = new Nodo(URI.create("http://c:8081"));
+
+	@Test
+	public void eligeElNodoConMenosPeticionesEnCurso() {
+		a.entrar();
+		a.entrar();
+		b.entrar();
+		assertSame(c, BackendEndpoints.elegir(List.of(a, b, c)));
+		c.entrar();
+		c.entrar();
+		assertSame(b, BackendEndpoints.elegir(List.of(a, b, c)));
+	}
+
+	@Test
+	public void losEmpatesSeRepartenEntreLosNodos() {
+		Set<Nodo> elegidos = new HashSet<>();
+		for (int i = 0; i < 200; i++) {
+			elegidos.add(BackendEndpoints.elegir(List.of(a, b, c)));
+		}
+		assertEquals(Set.of(a, b, c), elegidos);
+	}
+
+	@Test
+	public void unNodoConFallosSeguidosSeExpulsa() {
+		fallar(a, 3);
+		assertTrue(a.getExpulsadoHasta() > 0);
+		for (int i = 0; i < 50; i++) {
+			assertNotSame(a, BackendEndpoints.elegir(List.of(a, b)));
+		}
+	}
+
+	@Test
+	public void unExitoReiniciaLosFallos() {
+		fallar(a, 2);
+		a.entrar();
+		a.salir(true);
+		fallar(a, 2);
+		assertEquals(0, a.getExpulsadoHasta());
+		assertEquals(0, a.getEnCurso());
+	}
+
+	@Test
+	public void liberarNoCuentaComoFallo() {
+		for (int i = 0; i < 5; i++) {
+			a.entrar();
+			a.liberar();
+		}
+		assertEquals(0, a.getExpulsadoHasta());
+	}
+
+	@Test
+	public void conTodosExpulsadosEligeElQueVuelveAntes() throws Exception {
+		fallar(a, 3);
+		Thread.sleep(5);
+		fallar(b, 3);
+		assertSame(a, BackendEndpoints.elegir(List.of(a, b)));
+		assertSame(a, BackendEndpoints.elegir(List.of(b, a)));
+	}
+
+	@Test
+	public void unSoloNodoSeEligeSiempre() {
+		fallar(a, 3);
+		assertSame(a, BackendEndpoints.elegir(List.of(a)));
+	}
+
+	@Test
+	public void resuelveLaRutaContraLaBase() {
+		assertEquals(URI.create("http://a:8081/libro/getall"), a.resolver("/libro/getall"));
+		assertTrue(BackendEndpoints.esRuta("/libro/getall"));
+		assertFalse(BackendEndpoints.esRuta("http://otro/libro/getall"));
+	}
+
+	private static void fallar(Nodo nodo, int veces) {
+		for (int i = 0; i < veces; i++) {
+			nodo.entrar();
+			nodo.salir(false);
+		}
+	}
+}
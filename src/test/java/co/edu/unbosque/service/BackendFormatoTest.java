@@ -0,0 +1,103 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.gson.TypeAdapter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import co.edu.unbosque.codec.Binario;
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.codec.LectorBinario;
+import co.edu.unbosque.dto.ProblemaDTO;
+
+/**
+ * Pruebas de la vuelta a JSON cuando el backend rechaza un envío binario con
+ * {@code 415}, contra un backend simulado que no conoce el formato.
+ *
+ * @author
+ * @version 1.0
+ */
+public class BackendFormatoTest {
+
+	/** Envíos recibidos por el backend simulado, en orden. */
+	private static final List<Recibido> RECIBIDOS = new CopyOnWriteArrayList<>();
+
+	private static HttpServer servidor;
+	private static String url;
+
+	private record Recibido(String tipo, byte[] cuerpo) {
+	}
+
+	@BeforeClass
+	public static void iniciar() throws IOException {
+		BackendFormato.activarEnvio(BackendResource.PROBLEMA);
+		servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		servidor.createContext("/problema/crear", BackendFormatoTest::responder);
+		servidor.start();
+		url = "http://localhost:" + servidor.getAddress().getPort() + "/problema/crear";
+	}
+
+	@AfterClass
+	public static void detener() {
+		servidor.stop(0);
+	}
+
+	@Test
+	public void unRechazoRepiteElEnvioEnJsonYDejaElRecursoEnJson() throws IOException {
+		TypeAdapter<ProblemaDTO> adaptador = Codecs.de(ProblemaDTO.class);
+		ProblemaDTO problema = new ProblemaDTO(null, "A + B", 800, "sumas", "Codeforces", "https://codeforces.com");
+		assertTrue(BackendFormato.enviarBinario(BackendResource.PROBLEMA));
+
+		BackendResponse respuesta = BackendClient.post(BackendResource.PROBLEMA, url, problema, adaptador, null);
+		assertEquals(200, respuesta.getStatus());
+		assertEquals(2, RECIBIDOS.size());
+
+		Recibido binario = RECIBIDOS.get(0);
+		assertTrue(Binario.es(binario.tipo()));
+		ProblemaDTO leido = adaptador.read(new LectorBinario(new ByteArrayInputStream(binario.cuerpo())));
+		assertEquals(Codecs.json(adaptador, problema), Codecs.json(adaptador, leido));
+
+		Recibido json = RECIBIDOS.get(1);
+		assertTrue(json.tipo().startsWith("application/json"));
+		assertEquals(Codecs.json(adaptador, problema), new String(json.cuerpo(), StandardCharsets.UTF_8));
+		assertFalse(BackendFormato.enviarBinario(BackendResource.PROBLEMA));
+
+		assertEquals(200, BackendClient.post(BackendResource.PROBLEMA, url, problema, adaptador, null).getStatus());
+		assertEquals("tras el rechazo ya no se intenta en binario", 3, RECIBIDOS.size());
+		assertTrue(RECIBIDOS.get(2).tipo().startsWith("application/json"));
+	}
+
+	/**
+	 * Backend que solo acepta JSON.
+	 */
+	private static void responder(HttpExchange intercambio) throws IOException {
+		String tipo = intercambio.getRequestHeaders().getFirst("Content-Type");
+		byte[] cuerpo;
+		try (InputStream entrada = intercambio.getRequestBody()) {
+			cuerpo = entrada.readAllBytes();
+		}
+		RECIBIDOS.add(new Recibido(tipo, cuerpo));
+		byte[] respuesta = "{}".getBytes(StandardCharsets.UTF_8);
+		intercambio.getResponseHeaders().set("Content-Type", "application/json");
+		intercambio.sendResponseHeaders(Binario.es(tipo) ? 415 : 200, respuesta.length);
+		try (OutputStream salida = intercambio.getResponseBody()) {
+			salida.write(respuesta);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link HistogramaLatencia}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class HistogramaLatenciaTest {
+
+	private static final long MILI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void sinMuestrasElPercentilEsCero() {
+		HistogramaLatencia histograma = new HistogramaLatencia(0);
+		assertEquals(0, histograma.percentilMicros(0.5));
+		assertEquals(0, histograma.getTotal());
+	}
+
+	@Test
+	public void elPercentilTieneMenosDeUnVeintePorCientoDeError() {
+		HistogramaLatencia histograma = new HistogramaLatencia(0);
+		for (int i = 1; i <= 1000; i++) {
+			histograma.registrar(i * MILI);
+		}
+		enRango(500_000, histograma.percentilMicros(0.5));
+		enRango(950_000, histograma.percentilMicros(0.95));
+		enRango(990_000, histograma.percentilMicros(0.99));
+		assertEquals(1000, histograma.getTotal());
+	}
+
+	@Test
+	public void elPercentilNoPasaDelMaximo() {
+		HistogramaLatencia histograma = new HistogramaLatencia(0);
+		histograma.registrar(1234 * 1000L);
+		assertEquals(1234, histograma.getMaximoMicros());
+		assertEquals(1234, histograma.percentilMicros(1.0));
+	}
+
+	@Test
+	public void losExtremosCaenEnElPrimerYUltimoIntervalo() {
+		HistogramaLatencia histograma = new HistogramaLatencia(0);
+		histograma.registrar(10);
+		assertEquals("menos de un microsegundo cuenta como uno", 1, histograma.percentilMicros(1.0));
+		histograma.registrar(TimeUnit.HOURS.toNanos(1));
+		assertEquals(TimeUnit.HOURS.toMicros(1), histograma.getMaximoMicros());
+		assertTrue(histograma.percentilMicros(1.0) > TimeUnit.MINUTES.toMicros(10));
+	}
+
+	@Test
+	public void laVentanaOlvidaLasMuestrasAntiguas() {
+		HistogramaLatencia histograma = new HistogramaLatencia(100);
+		for (int i = 0; i < 100; i++) {
+			histograma.registrar(MILI);
+		}
+		assertEquals(50, histograma.getTotal());
+		for (int i = 0; i < 100; i++) {
+			histograma.registrar(100 * MILI);
+		}
+		// sin ventana la mitad de las muestras serían de 1 ms
+		assertTrue(histograma.percentilMicros(0.5) >= 100_000);
+		assertTrue(histograma.getTotal() < 100);
+	}
+
+	@Test
+	public void registraDesdeVariosHilos() throws Exception {
+		HistogramaLatencia histograma = new HistogramaLatencia(0);
+		List<Thread> hilos = new ArrayList<>();
+		for (int h = 0; h < 4; h++) {
+			Thread hilo = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					histograma.registrar(MILI);
+				}
+			});
+			hilos.add(hilo);
+			hilo.start();
+		}
+		for (Thread hilo : hilos) {
+			hilo.join();
+		}
+		assertEquals(40000, histograma.getTotal());
+	}
+
+	private static void enRango(long esperado, long obtenido) {
+		assertTrue(obtenido + " < " + esperado, obtenido >= esperado);
+		assertTrue(obtenido + " > " + esperado + " + 20 %", obtenido <= esperado * 1.2);
+	}
+}
@@ -0,0 +1,114 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import co.edu.unbosque.codec.Codecs;
+import co.edu.unbosque.dto.LibroDTO;
+
+/**
+ * Pruebas de {@link LibroBusqueda}: el listado completo solo se recorre cuando
+ * el backend no tiene la consulta por identificador.
+ *
+ * @author
+ * @version 1.0
+ */
+public class LibroBusquedaTest {
+
+	private static final String POR_ID = "/libro/getbyid?id=";
+	private static final String LISTADO = "/libro/getall";
+
+	/** URL consultadas, en orden. */
+	private final List<String> consultadas = new ArrayList<>();
+
+	/** Libros del backend simulado. */
+	private final List<LibroDTO> catalogo = new ArrayList<>(List.of(libro(1), libro(2)));
+
+	/** Resumen del catálogo en caché, que puede estar desactualizado. */
+	private final List<LibroDTO> resumen = new ArrayList<>(catalogo);
+
+	/** Estado de error de la consulta por id, o 0 si la ruta existe. */
+	private int errorPorId;
+
+	@Test
+	public void unLibroQueNoExisteNoRecorreElListado() throws BackendException {
+		assertNull(buscar(busqueda(POR_ID), 9));
+		assertEquals(List.of(POR_ID + 9), consultadas);
+	}
+
+	@Test
+	public void trasResponderUn404EsUnLibroQueNoExiste() throws BackendException {
+		LibroBusqueda busqueda = busqueda(POR_ID);
+		assertEquals(Long.valueOf(1), buscar(busqueda, 1).getId());
+		// borrado en el backend, pero todavía en el resumen
+		catalogo.remove(1);
+		consultadas.clear();
+		assertNull(buscar(busqueda, 2));
+		assertEquals(List.of(POR_ID + 2), consultadas);
+	}
+
+	@Test
+	public void un404DeUnLibroDelResumenUsaElListado() throws BackendException {
+		errorPorId = 404;
+		LibroBusqueda busqueda = busqueda(POR_ID);
+		assertEquals(Long.valueOf(2), buscar(busqueda, 2).getId());
+		assertEquals(List.of(POR_ID + 2, LISTADO), consultadas);
+
+		consultadas.clear();
+		assertEquals(Long.valueOf(1), buscar(busqueda, 1).getId());
+		assertEquals("la ruta no existe", List.of(LISTADO), consultadas);
+	}
+
+	@Test
+	public void unaRutaQueNoSeAdmiteUsaElListado() throws BackendException {
+		for (int status : new int[] { 400, 405, 501 }) {
+			errorPorId = status;
+			consultadas.clear();
+			assertNull(buscar(busqueda(POR_ID), 9));
+			assertEquals(List.of(POR_ID + 9, LISTADO), consultadas);
+		}
+	}
+
+	@Test(expected = BackendException.class)
+	public void otrosErroresSePropagan() throws BackendException {
+		errorPorId = 503;
+		buscar(busqueda(POR_ID), 1);
+	}
+
+	@Test
+	public void sinConsultaPorIdUsaElListado() throws BackendException {
+		assertEquals(Long.valueOf(2), buscar(busqueda(""), 2).getId());
+		assertEquals(List.of(LISTADO), consultadas);
+	}
+
+	/**
+	 * Búsqueda contra un backend simulado: la consulta por id responde
+	 * {@link #errorPorId}, o 404 si el libro no está en el catálogo.
+	 */
+	private LibroBusqueda busqueda(String porId) {
+		return new LibroBusqueda(porId, LISTADO, (url, adaptador, filtro) -> {
+			consultadas.add(url);
+			LibroDTO libro = catalogo.stream().filter(filtro).findFirst().orElse(null);
+			if (url.startsWith(POR_ID)) {
+				int status = errorPorId != 0 ? errorPorId : libro == null ? 404 : 200;
+				if (status != 200) {
+					throw new BackendException(status, "Error " + status);
+				}
+			}
+			return libro;
+		}, () -> resumen);
+	}
+
+	private static LibroDTO buscar(LibroBusqueda busqueda, long id) throws BackendException {
+		return busqueda.buscar(id, "", Codecs.libroConPdf(id));
+	}
+
+	private static LibroDTO libro(long id) {
+		return new LibroDTO(id, "Libro " + id, null, null, null, null, null);
+	}
+}
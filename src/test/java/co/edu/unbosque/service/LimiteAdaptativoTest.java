@@ -0,0 +1,128 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link LimiteAdaptativo}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class LimiteAdaptativoTest {
+
+	private static final long MILI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void descartaAlSuperarElLimite() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(2, 1, 10, false, 0);
+		assertTrue(limite.adquirir());
+		assertTrue(limite.adquirir());
+		assertFalse(limite.adquirir());
+		assertEquals(1, limite.getDescartadas());
+		assertEquals(2, limite.getEnCurso());
+
+		limite.liberar(-1, false);
+		assertTrue(limite.adquirir());
+	}
+
+	@Test
+	public void esperaAQueSeLibereUnLugar() throws Exception {
+		LimiteAdaptativo limite = new LimiteAdaptativo(1, 1, 1, false, 5000);
+		assertTrue(limite.adquirir());
+		CompletableFuture<Boolean> espera = CompletableFuture.supplyAsync(limite::adquirir);
+		Thread.sleep(50);
+		assertFalse(espera.isDone());
+		limite.liberar(-1, false);
+		assertTrue(espera.get(5, TimeUnit.SECONDS));
+		assertEquals(0, limite.getDescartadas());
+	}
+
+	@Test
+	public void elInicialQuedaEntreElMinimoYElMaximo() {
+		assertEquals(4, new LimiteAdaptativo(1, 4, 10, true, 0).getLimite());
+		assertEquals(10, new LimiteAdaptativo(50, 4, 10, true, 0).getLimite());
+		assertEquals("el mínimo nunca baja de 1", 1, new LimiteAdaptativo(0, 0, 0, true, 0).getLimite());
+	}
+
+	@Test
+	public void unFalloRecortaElLimite() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(20, 2, 100, true, 0);
+		limite.adquirir();
+		limite.liberar(MILI, true);
+		assertEquals(18, limite.getLimite());
+	}
+
+	@Test
+	public void losRecortesSeDetienenEnElMinimo() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(4, 3, 100, true, 0);
+		for (int i = 0; i < 10; i++) {
+			limite.adquirir();
+			limite.liberar(MILI, true);
+		}
+		assertEquals(3, limite.getLimite());
+	}
+
+	@Test
+	public void sinMuestraNoSeAjusta() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(20, 2, 100, true, 0);
+		limite.adquirir();
+		limite.liberar(-1, true);
+		assertEquals(20, limite.getLimite());
+	}
+
+	@Test
+	public void unLimiteFijoNoSeAjusta() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(20, 2, 100, false, 0);
+		limite.adquirir();
+		limite.liberar(MILI, true);
+		assertEquals(20, limite.getLimite());
+	}
+
+	@Test
+	public void creceSiLaLatenciaNoSube() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(10, 2, 100, true, 0);
+		for (int ronda = 0; ronda < 5; ronda++) {
+			rafaga(limite, 10, MILI, MILI);
+		}
+		assertTrue("límite " + limite.getLimite(), limite.getLimite() > 10);
+	}
+
+	@Test
+	public void bajaSiLaLatenciaCrece() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(10, 2, 100, true, 0);
+		// la primera muestra fija la latencia sin carga; las demás tardan diez veces más
+		rafaga(limite, 10, MILI, 10 * MILI);
+		assertTrue("límite " + limite.getLimite(), limite.getLimite() < 10);
+	}
+
+	@Test
+	public void noPasaDelMaximo() {
+		LimiteAdaptativo limite = new LimiteAdaptativo(10, 2, 11, true, 0);
+		for (int ronda = 0; ronda < 20; ronda++) {
+			rafaga(limite, limite.getLimite(), MILI, MILI);
+		}
+		assertEquals(11, limite.getLimite());
+	}
+
+	/**
+	 * Ocupa varios lugares y los libera uno por uno.
+	 *
+	 * @param primera latencia de la primera muestra liberada
+	 * @param resto   latencia de las demás
+	 */
+	private static void rafaga(LimiteAdaptativo limite, int peticiones, long primera, long resto) {
+		for (int i = 0; i < peticiones; i++) {
+			assertTrue(limite.adquirir());
+		}
+		for (int i = 0; i < peticiones; i++) {
+			limite.liberar(i == 0 ? primera : resto, false);
+		}
+	}
+}
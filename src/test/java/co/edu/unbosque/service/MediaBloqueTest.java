@@ -0,0 +1,142 @@
+package co.edu.unbosque.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de {@link MediaBloque} y de las referencias que le toman
+ * {@link Media} y sus flujos.
+ *
+ * @author
+ * @version 1.0
+ */
+public class MediaBloqueTest {
+
+	private static final byte[] CONTENIDO = { 1, 2, 3, 4, 5 };
+
+	@Test
+	public void copiaElContenido() {
+		MediaBloque bloque = MediaBloque.de(CONTENIDO);
+		assertEquals(CONTENIDO.length, bloque.getLongitud());
+		assertArrayEquals(CONTENIDO, bloque.getSegmento().toArray(ValueLayout.JAVA_BYTE));
+		bloque.soltar();
+	}
+
+	@Test
+	public void laMemoriaSeLiberaConLaUltimaReferencia() {
+		MediaBloque bloque = MediaBloque.de(CONTENIDO);
+		assertTrue(bloque.retener());
+		bloque.soltar();
+		assertTrue(vivo(bloque));
+		bloque.soltar();
+		assertFalse(vivo(bloque));
+		assertFalse("un bloque liberado no se puede retener", bloque.retener());
+	}
+
+	@Test
+	public void leeUnArchivo() throws IOException {
+		Path archivo = Files.createTempFile("bloque", null);
+		try {
+			Files.write(archivo, CONTENIDO);
+			MediaBloque bloque = MediaBloque.de(archivo, CONTENIDO.length);
+			assertArrayEquals(CONTENIDO, bloque.getSegmento().toArray(ValueLayout.JAVA_BYTE));
+			bloque.soltar();
+		} finally {
+			Files.delete(archivo);
+		}
+	}
+
+	@Test
+	public void unArchivoMasCortoFalla() throws IOException {
+		Path archivo = Files.createTempFile("bloque", null);
+		try {
+			Files.write(archivo, CONTENIDO);
+			MediaBloque.de(archivo, CONTENIDO.length + 1);
+			fail("debía fallar con un archivo incompleto");
+		} catch (IOException e) {
+			// esperado
+		} finally {
+			Files.delete(archivo);
+		}
+	}
+
+	@Test
+	public void unFlujoAbiertoSobreviveAlCierreDeLaMedia() throws IOException {
+		MediaBloque bloque = MediaBloque.de(CONTENIDO);
+		Media media = new Media(bloque, "hash", "application/pdf", "libro.pdf");
+		InputStream flujo = media.abrir();
+		media.close();
+		assertTrue(vivo(bloque));
+		assertArrayEquals(CONTENIDO, flujo.readAllBytes());
+		flujo.close();
+		assertFalse(vivo(bloque));
+	}
+
+	@Test
+	public void cerrarDosVecesSueltaUnaSolaReferencia() throws IOException {
+		MediaBloque bloque = MediaBloque.de(CONTENIDO);
+		assertTrue(bloque.retener());
+		Media media = new Media(bloque, "hash", "image/png", null);
+		InputStream flujo = media.abrir();
+		flujo.close();
+		flujo.close();
+		media.close();
+		media.close();
+		assertTrue("la referencia de quien creó el bloque sigue viva", vivo(bloque));
+		bloque.soltar();
+		assertFalse(vivo(bloque));
+	}
+
+	@Test
+	public void abrirUnaMediaLiberadaFalla() {
+		MediaBloque bloque = MediaBloque.de(CONTENIDO);
+		Media media = new Media(bloque, "hash", "image/png", null);
+		media.close();
+		try {
+			media.abrir().close();
+			fail("debía fallar con el contenido liberado");
+		} catch (IOException e) {
+			// esperado
+		}
+	}
+
+	@Test
+	public void referenciasDesdeVariosHilos() throws Exception {
+		MediaBloque bloque = MediaBloque.de(CONTENIDO);
+		List<Thread> hilos = new ArrayList<>();
+		for (int h = 0; h < 8; h++) {
+			Thread hilo = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					if (bloque.retener()) {
+						bloque.soltar();
+					}
+				}
+			});
+			hilos.add(hilo);
+			hilo.start();
+		}
+		for (Thread hilo : hilos) {
+			hilo.join();
+		}
+		assertTrue(vivo(bloque));
+		bloque.soltar();
+		assertFalse(vivo(bloque));
+	}
+
+	private static boolean vivo(MediaBloque bloque) {
+		return bloque.getSegmento().scope().isAlive();
+	}
+}
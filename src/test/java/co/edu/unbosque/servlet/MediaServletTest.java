@@ -0,0 +1,87 @@
+package co.edu.unbosque.servlet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Pruebas de la interpretación de la cabecera {@code Range} en
+ * {@link MediaServlet}.
+ *
+ * @author
+ * @version 1.0
+ */
+public class MediaServletTest {
+
+	private static final String ETAG = "\"abc\"";
+	private static final long LONGITUD = 1000;
+
+	private static final long[] NO_SATISFACIBLE = new long[0];
+
+	@Test
+	public void sinRangoSeEnviaCompleto() {
+		assertNull(tramo(null));
+		assertNull(tramo("items=0-10"));
+		assertNull(tramo("bytes=0-10,20-30"));
+	}
+
+	@Test
+	public void tramoCompleto() {
+		assertArrayEquals(new long[] { 0, 99 }, tramo("bytes=0-99"));
+		assertArrayEquals(new long[] { 999, 999 }, tramo("bytes=999-999"));
+		assertArrayEquals(new long[] { 0, 999 }, tramo("bytes= 0-999"));
+	}
+
+	@Test
+	public void tramoAbiertoHastaElFinal() {
+		assertArrayEquals(new long[] { 500, 999 }, tramo("bytes=500-"));
+	}
+
+	@Test
+	public void elFinSeRecortaAlContenido() {
+		assertArrayEquals(new long[] { 900, 999 }, tramo("bytes=900-5000"));
+	}
+
+	@Test
+	public void sufijo() {
+		assertArrayEquals(new long[] { 900, 999 }, tramo("bytes=-100"));
+		assertArrayEquals("un sufijo mayor que el contenido lo pide completo", new long[] { 0, 999 },
+				tramo("bytes=-5000"));
+		assertArrayEquals(NO_SATISFACIBLE, tramo("bytes=-0"));
+	}
+
+	@Test
+	public void inicioFueraDelContenido() {
+		assertArrayEquals(NO_SATISFACIBLE, tramo("bytes=1000-"));
+		assertArrayEquals(NO_SATISFACIBLE, tramo("bytes=1000-2000"));
+	}
+
+	@Test
+	public void contenidoVacio() {
+		assertArrayEquals(NO_SATISFACIBLE, MediaServlet.tramo("bytes=0-", null, ETAG, 0));
+		assertArrayEquals(NO_SATISFACIBLE, MediaServlet.tramo("bytes=-10", null, ETAG, 0));
+	}
+
+	@Test
+	public void unTramoMalEscritoSeIgnora() {
+		assertNull(tramo("bytes=5-3"));
+		assertNull(tramo("bytes=--5"));
+		assertNull(tramo("bytes=3--5"));
+		assertNull(tramo("bytes=abc-"));
+		assertNull(tramo("bytes=5"));
+		assertNull(tramo("bytes=-"));
+		assertNull(tramo("bytes="));
+	}
+
+	@Test
+	public void ifRange() {
+		assertArrayEquals(new long[] { 0, 9 }, MediaServlet.tramo("bytes=0-9", ETAG, ETAG, LONGITUD));
+		assertNull("otra versión del contenido se envía completa",
+				MediaServlet.tramo("bytes=0-9", "\"otro\"", ETAG, LONGITUD));
+	}
+
+	private static long[] tramo(String rango) {
+		return MediaServlet.tramo(rango, null, ETAG, LONGITUD);
+	}
+}